@@ -0,0 +1,82 @@
+package airstrike.bench;
+
+import airstrike.AirstrikeUtils;
+import airstrike.OrbitalData;
+import airstrike.OrbitalWriter;
+import airstrike.fixtures.CampaignFixture;
+import airstrike.fixtures.GameFixture;
+import mindustry.type.Planet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scanning saves, correcting and persisting orbital data of a large synthetic campaign.
+ * <p>
+ * Each planet has a sector save per sector, and each custom-map save has its own orbital data,
+ * so the number of save files and of locations grow together.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CampaignBenchmark {
+    static final int planets = 5;
+    static final float staleFraction = 0.05f;
+
+    @Param({"100", "1000", "5000"})
+    public int saves;
+
+    @Param({"10", "1000"})
+    public int weaponsPerLocation;
+
+    private CampaignFixture campaign;
+    private String serialized;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        GameFixture.launch();
+        // Half of the saves belong to planets, half are custom maps
+        campaign = CampaignFixture.generate(planets, saves / 2 / planets, saves / 2, weaponsPerLocation, staleFraction, 0);
+        serialized = OrbitalData.serializedOrbitalData();
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        campaign.dispose();
+    }
+
+    @Benchmark
+    public HashMap<Planet, LinkedList<Integer>> scanSaves() {
+        return AirstrikeUtils.getSaves();
+    }
+
+    @Benchmark
+    public void correct(CorrectState state) {
+        OrbitalData.correctOrbitalData();
+    }
+
+    @Benchmark
+    public void loadAndSave() {
+        // Start from the uncorrected data each time, as saving stores the corrected data
+        OrbitalWriter.flush();
+        OrbitalWriter.file().writeString(serialized);
+        OrbitalData.loadOrbitalData();
+        OrbitalData.saveOrbitalData();
+    }
+
+    /**
+     * Restores the uncorrected orbital data before each correction.
+     */
+    @State(Scope.Thread)
+    public static class CorrectState {
+        @Setup(Level.Invocation)
+        public void restore(CampaignBenchmark benchmark) {
+            OrbitalData.deserializeOrbitalData(benchmark.serialized);
+        }
+    }
+}
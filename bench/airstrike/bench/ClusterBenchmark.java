@@ -0,0 +1,69 @@
+package airstrike.bench;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import airstrike.items.Bomblets;
+import airstrike.items.ClusterWeapon;
+import arc.math.Mathf;
+import arc.math.Rand;
+import mindustry.Vars;
+import mindustry.entities.Damage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full salvo of bomblets landing in one tick over a dense base, batched versus one vanilla explosion per bomblet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClusterBenchmark {
+    static final int mapSize = 200;
+
+    @Param({"120", "480"})
+    public int bomblets;
+
+    private final ClusterWeapon weapon = (ClusterWeapon) AirstrikeItems.clusterBomb;
+    private float[] xs;
+    private float[] ys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFixture.launch();
+        WorldFixture.createWorld(mapSize, 0.3f, 0);
+        Rand rand = new Rand(0);
+        xs = new float[bomblets];
+        ys = new float[bomblets];
+        for (int i = 0; i < bomblets; i++) {
+            xs[i] = (mapSize / 2f + rand.range(weapon.spreadRadius)) * Vars.tilesize;
+            ys[i] = (mapSize / 2f + rand.range(weapon.spreadRadius)) * Vars.tilesize;
+        }
+        // Damage is dealt to nothing that can die, so every iteration hits the same targets
+        Vars.state.rules.unitHealthMultiplier = Float.MAX_VALUE;
+        Vars.state.rules.blockHealthMultiplier = Float.MAX_VALUE;
+    }
+
+    @Benchmark
+    public int batched() {
+        for (int i = 0; i < bomblets; i++) {
+            Bomblets.drop(weapon, xs[i], ys[i], 0f);
+        }
+        Bomblets.update(1f);
+        return Bomblets.size();
+    }
+
+    @Benchmark
+    public int damagePerBomblet() {
+        float radius = weapon.bombletRadius * Vars.tilesize;
+        for (int i = 0; i < bomblets; i++) {
+            Damage.damage(null, xs[i], ys[i], radius, weapon.bombletDamage, false, true, true, true, null);
+            Damage.tileDamage(null, Mathf.round(xs[i] / Vars.tilesize), Mathf.round(ys[i] / Vars.tilesize), weapon.bombletRadius, weapon.bombletDamage, null);
+        }
+        return bomblets;
+    }
+}
@@ -0,0 +1,46 @@
+package airstrike.bench;
+
+import airstrike.AirstrikeUtils;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.world.Tile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Explosions of a given radius on synthetic worlds of varying density.
+ * <p>
+ * Explosions deal no damage and no knockback, so the world stays the same between invocations
+ * while units and buildings in range are still visited.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExplosionBenchmark {
+    static final int mapSize = 200;
+
+    @Param({"0.01", "0.1", "0.5"})
+    public float density;
+
+    @Param({"2", "40"})
+    public float radius;
+
+    private Tile center;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFixture.launch();
+        WorldFixture.createWorld(mapSize, density, 0);
+        center = Vars.world.tile(mapSize / 2, mapSize / 2);
+    }
+
+    @Benchmark
+    public void explosion() {
+        AirstrikeUtils.explosion(center, radius, 0f, 0f, 0f, 0f);
+    }
+}
@@ -0,0 +1,60 @@
+package airstrike.bench;
+
+import airstrike.blocks.Launcher;
+import airstrike.content.AirstrikeBlocks;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import mindustry.world.modules.ItemModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item acceptance and volume checks of a launcher holding a given number of weapons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LauncherBenchmark {
+    @Param({"0", "10", "100"})
+    public int weapons;
+
+    private Launcher.LauncherBuild build;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFixture.launch();
+        build = (Launcher.LauncherBuild) AirstrikeBlocks.launcher.newBuilding();
+        build.block = AirstrikeBlocks.launcher;
+        build.items = new ItemModule();
+        build.satellite = AirstrikeItems.largeSatellite;
+        build.items.add(AirstrikeItems.largeSatellite, 1);
+        for (int i = 0; i < weapons; i++) {
+            build.weapons.add(AirstrikeItems.precisionBomb);
+        }
+        build.items.add(AirstrikeItems.precisionBomb, weapons);
+    }
+
+    @Benchmark
+    public boolean acceptWeapon() {
+        return build.acceptItem(build, AirstrikeItems.precisionBomb);
+    }
+
+    @Benchmark
+    public boolean acceptSatellite() {
+        return build.acceptItem(build, AirstrikeItems.smallSatellite);
+    }
+
+    @Benchmark
+    public int maximumAccepted() {
+        return build.getMaximumAccepted(AirstrikeItems.nuke);
+    }
+
+    @Benchmark
+    public float usedVolume() {
+        return build.usedVolume();
+    }
+}
@@ -0,0 +1,65 @@
+package airstrike.bench;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import mindustry.game.Team;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding, removing and counting orbital weapons at a location holding a given number of weapons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrbitalDataBenchmark {
+    static final String location = "1";
+    static final Team team = Team.sharded;
+
+    @Param({"10", "1000", "100000"})
+    public int weapons;
+
+    @Setup(Level.Trial)
+    public void launch() {
+        GameFixture.launch();
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        OrbitalData.planetOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons.put(location, new OrbitalLocation());
+        // Mix of weapons, with the rarer one at the end of the list
+        OrbitalData.addOrbitalWeaponToSector(location, team, AirstrikeItems.precisionBomb, weapons - weapons / 10);
+        OrbitalData.addOrbitalWeaponToSector(location, team, AirstrikeItems.nuke, weapons / 10);
+    }
+
+    @Benchmark
+    public void add() {
+        OrbitalData.addOrbitalWeaponToSector(location, team, AirstrikeItems.nuke, 1);
+    }
+
+    @Benchmark
+    public boolean removeAndAdd() {
+        boolean removed = OrbitalData.removeOrbitalWeaponFromSector(location, team, AirstrikeItems.nuke, 1);
+        OrbitalData.addOrbitalWeaponToSector(location, team, AirstrikeItems.nuke, 1);
+        return removed;
+    }
+
+    @Benchmark
+    public int count() {
+        return OrbitalData.getOrbitalWeaponCount(location, team, AirstrikeItems.nuke.name);
+    }
+
+    @Benchmark
+    public int countAll() {
+        return OrbitalData.getOrbitalWeaponCount(location, team);
+    }
+}
@@ -0,0 +1,65 @@
+package airstrike.bench;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.metrics.OrbitalJournal;
+import arc.files.Fi;
+import arc.math.Rand;
+import mindustry.game.Team;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaying an orbital journal as fast as possible.
+ * <p>
+ * Replays the journal given with {@code -p journal=<path>}, recorded with the {@code airstrike-journal} command,
+ * or a synthetic session of launches and strikes if no journal is given.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+    static final int syntheticMutations = 100000;
+
+    @Param({""})
+    public String journal;
+
+    private Fi file;
+
+    @Setup(Level.Trial)
+    public void record() {
+        GameFixture.launch();
+        if (!journal.isEmpty()) {
+            file = new Fi(journal);
+            return;
+        }
+        file = GameFixture.tempDirectory("airstrike-replay").child("journal.bin");
+        OrbitalData.planetOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons.put("1", new OrbitalLocation());
+        OrbitalJournal.start(file);
+        // Random launches of one to three weapons and removals by strikes, for two teams
+        Rand rand = new Rand(0);
+        for (int i = 0; i < syntheticMutations; i++) {
+            Team team = rand.chance(0.5f) ? Team.sharded : Team.crux;
+            if (rand.chance(0.5f)) {
+                OrbitalData.removeOrbitalWeaponFromSector("1", team, AirstrikeItems.nuke, 1);
+            } else {
+                OrbitalData.addOrbitalWeaponToSector("1", team, AirstrikeItems.nuke, rand.random(1, 3));
+            }
+        }
+        OrbitalJournal.stop();
+    }
+
+    @Benchmark
+    public int replay() {
+        return OrbitalJournal.replay(file, false);
+    }
+}
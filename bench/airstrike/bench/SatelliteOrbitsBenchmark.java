@@ -0,0 +1,48 @@
+package airstrike.bench;
+
+import airstrike.SatelliteOrbits;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.items.SatelliteItem;
+import arc.math.Rand;
+import mindustry.game.Team;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the next launch window of a strike, with thousands of satellites of several teams in orbit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SatelliteOrbitsBenchmark {
+    static final String location = "serpulo";
+    static final Team[] teams = {Team.sharded, Team.crux, Team.malis};
+
+    @Param({"100", "5000"})
+    public int satellites;
+
+    private final Rand rand = new Rand(0);
+    private long time;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFixture.launch();
+        SatelliteOrbits.clear();
+        SatelliteItem[] types = {AirstrikeItems.smallSatellite, AirstrikeItems.mediumSatellite, AirstrikeItems.largeSatellite};
+        for (int i = 0; i < satellites; i++) {
+            SatelliteOrbits.launch(location, teams[i % teams.length], types[rand.random(types.length - 1)], rand.random(1f), rand.nextLong() & 0xffffffL);
+        }
+    }
+
+    @Benchmark
+    public float waitTime() {
+        // One strike call, at a later time each call
+        time += 16;
+        return SatelliteOrbits.waitTime(location, Team.sharded, rand.random(SatelliteOrbits.mapSpan), time);
+    }
+}
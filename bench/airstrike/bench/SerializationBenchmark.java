@@ -0,0 +1,62 @@
+package airstrike.bench;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import mindustry.game.Team;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing and deserializing orbital data of a given size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int weapons;
+
+    @Param({"1", "50"})
+    public int locations;
+
+    private String serialized;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        GameFixture.launch();
+        OrbitalData.planetOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons = new HashMap<>();
+        for (int i = 0; i < locations; i++) {
+            String location = String.valueOf(i);
+            OrbitalData.sectorOrbitalWeapons.put(location, new OrbitalLocation());
+            // Two teams per location
+            int perTeam = weapons / locations / 2;
+            OrbitalData.addOrbitalWeaponToSector(location, Team.sharded, AirstrikeItems.nuke, perTeam);
+            OrbitalData.addOrbitalWeaponToSector(location, Team.crux, AirstrikeItems.precisionBomb, perTeam);
+        }
+        serialized = OrbitalData.serializedOrbitalData();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return OrbitalData.serializedOrbitalData();
+    }
+
+    @Benchmark
+    public void deserialize() {
+        OrbitalData.deserializeOrbitalData(serialized);
+    }
+
+    @Benchmark
+    public String roundTrip() {
+        OrbitalData.deserializeOrbitalData(OrbitalData.serializedOrbitalData());
+        return serialized;
+    }
+}
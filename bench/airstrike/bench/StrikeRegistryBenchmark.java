@@ -0,0 +1,64 @@
+package airstrike.bench;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import airstrike.targeting.StrikeRegistry;
+import arc.math.Rand;
+import mindustry.Vars;
+import mindustry.game.Team;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding, removing and finding strikes in flight, with hundreds of concurrent strikes on a large map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrikeRegistryBenchmark {
+    static final int mapSize = 500;
+
+    @Param({"100", "1000"})
+    public int strikes;
+
+    private final Rand rand = new Rand(0);
+    private int[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFixture.launch();
+        WorldFixture.createWorld(mapSize);
+        StrikeRegistry.reset();
+        ids = new int[strikes];
+        for (int i = 0; i < strikes; i++) {
+            ids[i] = add();
+        }
+    }
+
+    @Benchmark
+    public boolean replace() {
+        // One strike lands and another is called, keeping the number of strikes in flight constant
+        int slot = next++ % strikes;
+        boolean removed = StrikeRegistry.remove(ids[slot]);
+        ids[slot] = add();
+        return removed;
+    }
+
+    @Benchmark
+    public int closestEnemy() {
+        // A turret with a range of 30 tiles looking for a target
+        return StrikeRegistry.closestEnemy(Team.crux, rand.random(mapSize) * Vars.tilesize, rand.random(mapSize) * Vars.tilesize, 30f * Vars.tilesize);
+    }
+
+    private int add() {
+        int id = StrikeRegistry.nextId();
+        StrikeRegistry.add(id, Team.sharded, AirstrikeItems.nuke, Vars.world.tile(rand.random(mapSize - 1), rand.random(mapSize - 1)), 60f);
+        return id;
+    }
+}
@@ -0,0 +1,60 @@
+package airstrike.bench;
+
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import airstrike.targeting.ThreatHeatmap;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.game.Team;
+import mindustry.world.Tile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picking the best strike target on a large map, with and without changes since the last query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreatHeatmapBenchmark {
+    static final int mapSize = 500;
+
+    @Param({"0.01", "0.1"})
+    public float density;
+
+    @Param({"2", "40"})
+    public float radius;
+
+    private Tile changed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GameFixture.launch();
+        ThreatHeatmap.init();
+        WorldFixture.createWorld(mapSize, density, 0);
+        changed = Vars.world.tile(mapSize / 2, mapSize / 2);
+        ThreatHeatmap.reset();
+        // Units don't move in the benchmark, so they only need to be counted once
+        ThreatHeatmap.unitRefreshInterval = Float.MAX_VALUE;
+    }
+
+    @Benchmark
+    public Tile bestTarget() {
+        return ThreatHeatmap.bestTarget(Team.sharded, radius);
+    }
+
+    @Benchmark
+    public Tile bestTargetAfterChange() {
+        // One building changes between queries, so a cell is recounted and the table rebuilt
+        if (changed.build == null) {
+            changed.setBlock(Blocks.copperWall, Team.crux);
+        } else {
+            changed.setAir();
+        }
+        return ThreatHeatmap.bestTarget(Team.sharded, radius);
+    }
+}
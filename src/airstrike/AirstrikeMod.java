@@ -2,7 +2,19 @@ package airstrike;
 
 import airstrike.content.AirstrikeBlocks;
 import airstrike.content.AirstrikeItems;
+import airstrike.fallout.RadiationChunk;
+import airstrike.fallout.RadiationField;
+import airstrike.items.Bomblets;
+import airstrike.metrics.AirstrikeMetrics;
+import airstrike.metrics.OrbitalJournal;
+import airstrike.metrics.TickProfiler;
+import airstrike.net.OrbitalSync;
+import airstrike.net.StrikeSync;
+import airstrike.targeting.StrikeRegistry;
+import airstrike.targeting.ThreatHeatmap;
+import airstrike.targeting.UnitTargets;
 import arc.Events;
+import arc.util.CommandHandler;
 import mindustry.mod.*;
 import mindustry.game.EventType;
 
@@ -14,11 +26,73 @@ public class AirstrikeMod extends Mod {
     public void init() {
         super.init();
 
+        // Content is loaded, index the planets for name and id lookups
+        AirstrikeUtils.buildPlanetIndex();
+
+        // Keep the orbital data of clients in sync with the server
+        OrbitalSync.init();
+        // Validate strikes on the server and broadcast them to clients
+        StrikeSync.init();
+        // Track enemy value for automatic targeting
+        ThreatHeatmap.init();
+        // Remember where units targeted by strikes die
+        UnitTargets.init();
+        // Let defenses shoot down strikes in flight
+        StrikeRegistry.init();
+        // Drop the bomblets of cluster weapons
+        Bomblets.init();
+        // Let nuclear fallout linger and decay
+        RadiationField.init();
+        // Detonate explosive buildings destroyed by strikes
+        ChainReaction.init();
+        // Load the strikes waiting for other sectors to be loaded
+        RemoteStrikes.load();
+        // Load the satellites in orbit, which decide when strikes can be dropped
+        SatelliteOrbits.load();
+
+        // Store each sector's orbital weapons in its own save
+        OrbitalChunk.register();
+        // Store the fallout of each sector in its own save
+        RadiationChunk.register();
+
         // Hook into save & load events
+        int saveWriteSection = TickProfiler.section("event.save-write");
+        int saveLoadSection = TickProfiler.section("event.save-load");
         // Orbital data is saved whenever the current sector is saved
-        Events.on(EventType.SaveWriteEvent.class, event -> OrbitalData.saveOrbitalData());
+        Events.on(EventType.SaveWriteEvent.class, event -> {
+            long profilerStart = TickProfiler.begin(saveWriteSection);
+            OrbitalData.saveOrbitalData();
+            // Drop locations whose saves were deleted, scanned in the background at most once per interval
+            OrbitalReconciler.request();
+            RemoteStrikes.save();
+            SatelliteOrbits.save();
+            TickProfiler.end(saveWriteSection, TickProfiler.noPosition, profilerStart);
+        });
         // Orbital data is loaded whenever a new sector is loaded
-        Events.on(EventType.SaveLoadEvent.class, event -> OrbitalData.loadOrbitalData());
+        Events.on(EventType.SaveLoadEvent.class, event -> {
+            long profilerStart = TickProfiler.begin(saveLoadSection);
+            OrbitalData.loadOrbitalData();
+            OrbitalReconciler.request();
+            RadiationChunk.applyLoaded();
+            RemoteStrikes.applyPending();
+            TickProfiler.end(saveLoadSection, TickProfiler.noPosition, profilerStart);
+        });
+    }
+
+    @Override
+    public void registerServerCommands(CommandHandler handler) {
+        AirstrikeMetrics.registerServerCommands(handler);
+        TickProfiler.registerServerCommands(handler);
+        OrbitalJournal.registerServerCommands(handler);
+        RemoteStrikes.registerServerCommands(handler);
+    }
+
+    @Override
+    public void registerClientCommands(CommandHandler handler) {
+        AirstrikeMetrics.registerClientCommands(handler);
+        TickProfiler.registerClientCommands(handler);
+        OrbitalJournal.registerClientCommands(handler);
+        RemoteStrikes.registerClientCommands(handler);
     }
 
     @Override
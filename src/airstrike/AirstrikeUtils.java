@@ -1,6 +1,10 @@
 package airstrike;
 
+import airstrike.metrics.AirstrikeMetrics;
+import airstrike.net.OrbitalSync;
+import arc.files.Fi;
 import arc.math.Mathf;
+import arc.struct.Seq;
 import arc.util.Log;
 import mindustry.Vars;
 import mindustry.entities.Damage;
@@ -9,10 +13,21 @@ import mindustry.type.Planet;
 import mindustry.world.Tile;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
 public class AirstrikeUtils {
+    // Sector id used when the current game has no save file
+    public static final String unsavedSectorId = "-1";
+
+    // Planet lookup index (planet-name: planet, planet-id: planet), rebuilt when the planet list changes
+    // The maps are replaced instead of modified, so the background save scan can use them safely
+    private static volatile HashMap<String, Planet> planetsByName = new HashMap<>();
+    private static volatile HashMap<String, Planet> planetsById = new HashMap<>();
+    private static volatile Seq<Planet> indexedPlanets = null;
+    private static volatile int indexedPlanetCount = 0;
 
     /**
      * Gets all currently active sectors via their save files.
@@ -22,6 +37,22 @@ public class AirstrikeUtils {
      * @return a map of planet -> sector, with non-campaign sectors under null
      */
     public static HashMap<Planet, LinkedList<Integer>> getSaves() {
+        long start = AirstrikeMetrics.start();
+        HashMap<Planet, LinkedList<Integer>> saves = getSaves(planetIndex());
+        AirstrikeMetrics.savesScanTime.recordSince(start);
+        return saves;
+    }
+
+    /**
+     * Gets all currently active sectors via their save files, like {@link #getSaves()}, with the planets looked up
+     * in the given index.
+     * <p>
+     * Neither records metrics nor reads content, so it can run on a background thread.
+     *
+     * @param planets the planets by name, from {@link #planetIndex()}
+     * @return a map of planet -> sector, with non-campaign sectors under null
+     */
+    public static HashMap<Planet, LinkedList<Integer>> getSaves(Map<String, Planet> planets) {
         File[] saveFiles = Vars.saveDirectory.file().listFiles(((dir, name) -> name.endsWith(".msav") && !name.contains("backup")));
         String[] saveNames = new String[saveFiles.length];
         for (int i = 0; i < saveFiles.length; i++) {
@@ -40,7 +71,7 @@ public class AirstrikeUtils {
                 for (int i = 1; i < split.length - 1; i++) {
                     planetName.append("-").append(split[i]);
                 }
-                Planet planet = getPlanetByName(planetName.toString());
+                Planet planet = planets.get(planetName.toString());
                 if (planet == null) {
                     Log.err("Unknown planet " + planetName + " in save " + saveName);
                 } else {
@@ -68,10 +99,19 @@ public class AirstrikeUtils {
      * Gets the id of the sector the player is currently in.
      * Gets sector id via save files.
      * Works both on planets and not in campaign.
+     * <p>
+     * Clients connected to a server use the location reported by the server, as they have no save file.
+     * Without a save file (e.g. on a dedicated server), {@link #unsavedSectorId} is returned.
      *
      * @return the id of the sector the player is currently in
      */
     public static String getCurrentSectorId() {
+        if (OrbitalSync.isMirror() && OrbitalSync.serverLocation != null) {
+            return OrbitalSync.serverLocation;
+        }
+        if (Vars.control == null || Vars.control.saves.getCurrent() == null) {
+            return unsavedSectorId;
+        }
         String sectorId = Vars.control.saves.getCurrent().file.name().replace(".msav", "");
         if (sectorId.contains("-")) {
             String reverse = new StringBuilder(sectorId).reverse().toString();
@@ -80,40 +120,72 @@ public class AirstrikeUtils {
         return sectorId;
     }
 
+    /**
+     * Rebuilds the index used by {@link #getPlanetById(String)} and {@link #getPlanetByName(String)}.
+     * <p>
+     * Called once content is loaded. Lookups also rebuild the index when the planet list was replaced or grew
+     * (content reloads, planets created later), so it never goes stale.
+     */
+    public static void buildPlanetIndex() {
+        Seq<Planet> planets = Vars.content.planets();
+        HashMap<String, Planet> byName = new HashMap<>();
+        HashMap<String, Planet> byId = new HashMap<>();
+        for (int i = 0; i < planets.size; i++) {
+            Planet planet = planets.get(i);
+            byName.put(planet.name, planet);
+            byId.put(String.valueOf(planet.id), planet);
+        }
+        planetsByName = byName;
+        planetsById = byId;
+        indexedPlanets = planets;
+        indexedPlanetCount = planets.size;
+    }
+
     /**
      * Gets the planet with the specified id.
      * <p>
-     * Looks through all planets in the game and returns the one with the matching id.
+     * Looks the id up in the planet index, which is rebuilt if content changed since it was built.
      * If no such planet exists, returns null.
      *
      * @param id the id of the planet to look for
      * @return the planet with the given id, or null if no such planet exists
      */
     public static Planet getPlanetById(String id) {
-        for (Planet planet : Vars.content.planets()) {
-            if (String.valueOf(planet.id).equals(id)) {
-                return planet;
-            }
-        }
-        return null;
+        checkPlanetIndex();
+        return planetsById.get(id);
     }
 
     /**
      * Gets the planet with the specified name.
      * <p>
-     * Looks through all planets in the game and returns the one with the matching name.
+     * Looks the name up in the planet index, which is rebuilt if content changed since it was built.
      * If no such planet exists, returns null.
      *
      * @param name the name of the planet to look for
      * @return the planet with the given name, or null if no such planet exists
      */
     public static Planet getPlanetByName(String name) {
-        for (Planet planet : Vars.content.planets()) {
-            if (planet.name.equals(name)) {
-                return planet;
-            }
+        checkPlanetIndex();
+        return planetsByName.get(name);
+    }
+
+    /**
+     * Returns the planets by name, rebuilding the index first if content changed since it was built.
+     * <p>
+     * The returned map is never modified, a rebuild replaces it, so it can be handed to other threads.
+     *
+     * @return the planets by name
+     */
+    public static Map<String, Planet> planetIndex() {
+        checkPlanetIndex();
+        return planetsByName;
+    }
+
+    private static void checkPlanetIndex() {
+        Seq<Planet> planets = Vars.content.planets();
+        if (planets != indexedPlanets || planets.size != indexedPlanetCount) {
+            buildPlanetIndex();
         }
-        return null;
     }
 
     /**
@@ -134,6 +206,49 @@ public class AirstrikeUtils {
         }
     }
     
+    /**
+     * Returns the temporary sibling a file is written to before it replaces the file.
+     *
+     * @param file the file to write
+     * @return the temporary file next to it
+     */
+    public static Fi tempFile(Fi file) {
+        return file.sibling(file.name() + ".tmp");
+    }
+
+    /**
+     * Replaces a file with its fully written temporary file from {@link #tempFile(Fi)}.
+     * <p>
+     * The temporary file is renamed over the file, which replaces it atomically where the platform allows.
+     * Where a rename can't replace an existing file, the file is deleted first. A crash in between leaves only the
+     * temporary file, which {@link #readableFile(Fi)} falls back to.
+     * Only {@link File} is used, as {@code java.nio.file} is missing on older Android versions.
+     *
+     * @param file the file to replace
+     * @throws IOException if the temporary file could not be moved into place
+     */
+    public static void replaceFile(Fi file) throws IOException {
+        File temp = tempFile(file).file();
+        if (temp.renameTo(file.file())) {
+            return;
+        }
+        file.delete();
+        if (!temp.renameTo(file.file())) {
+            throw new IOException("Failed to move " + temp + " to " + file);
+        }
+    }
+
+    /**
+     * Returns the file to read a file written with {@link #replaceFile(Fi)} from.
+     *
+     * @param file the file that was written
+     * @return the file itself, or its temporary file if a crash interrupted the replacement
+     */
+    public static Fi readableFile(Fi file) {
+        Fi temp = tempFile(file);
+        return !file.exists() && temp.exists() ? temp : file;
+    }
+
     /**
      * Creates an explosion centered at the specified tile, dealing damage to units and buildings and applying knockback to units.
      * <p>
@@ -153,6 +268,24 @@ public class AirstrikeUtils {
      * @param shakeDuration the duration of the screen shake effect
      */
     public static void explosion(Tile tile, float radius, float damage, float knockback, float shakeIntensity, float shakeDuration) {
+        explosion(tile, radius, damage, knockback, shakeIntensity, shakeDuration, 0);
+    }
+
+    /**
+     * Creates an explosion like {@link #explosion(Tile, float, float, float, float, float)},
+     * as part of a chain reaction started by an airstrike.
+     * <p>
+     * Buildings holding explosive items that are destroyed by the explosion detonate in turn (see {@link ChainReaction}).
+     *
+     * @param tile the tile to center the explosion at
+     * @param radius the radius of the explosion in tiles
+     * @param damage the amount of damage to deal to units
+     * @param knockback the amount of knockback to apply to units
+     * @param shakeIntensity the intensity of the screen shake effect
+     * @param shakeDuration the duration of the screen shake effect
+     * @param generation 0 for the explosion of a strike, or the generation of the chain reaction causing it
+     */
+    public static void explosion(Tile tile, float radius, float damage, float knockback, float shakeIntensity, float shakeDuration, int generation) {
         // Get tile position
         int tilex = tile.x;
         int tiley = tile.y;
@@ -160,6 +293,19 @@ public class AirstrikeUtils {
         float worldx = tile.worldx();
         float worldy = tile.worldy();
 
+        if (AirstrikeMetrics.enabled) {
+            // Counted before the damage kills some of them, and outside of the explosion time
+            int[] units = {0};
+            int[] buildings = {0};
+            Units.nearby(null, worldx, worldy, radius * Vars.tilesize, unit -> units[0]++);
+            Vars.indexer.eachBlock(null, worldx, worldy, radius * Vars.tilesize, building -> true, building -> buildings[0]++);
+            AirstrikeMetrics.explosionUnits.record(units[0]);
+            AirstrikeMetrics.explosionBuildings.record(buildings[0]);
+        }
+
+        long start = AirstrikeMetrics.start();
+        ChainReaction.recordBlast(worldx, worldy, radius * Vars.tilesize, generation);
+
         // Apply damage to units (works in world space)
         Damage.damage(null, worldx, worldy, radius * Vars.tilesize, damage, false, true, true, true, null);
 
@@ -186,5 +332,9 @@ public class AirstrikeUtils {
 
         // Apply damage to buildings (works in tile space)
         Damage.tileDamage(null, tilex, tiley, radius, damage, null);
+        ChainReaction.expireBlasts();
+
+        AirstrikeMetrics.explosions.increment();
+        AirstrikeMetrics.explosionTime.recordSince(start);
     }
 }
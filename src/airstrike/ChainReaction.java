@@ -0,0 +1,233 @@
+package airstrike;
+
+import airstrike.metrics.AirstrikeMetrics;
+import arc.Core;
+import arc.Events;
+import arc.math.Mathf;
+import mindustry.Vars;
+import mindustry.content.Fx;
+import mindustry.game.EventType;
+import mindustry.gen.Building;
+import mindustry.type.Item;
+import mindustry.world.Tile;
+
+import java.util.Arrays;
+
+/**
+ * Secondary detonations of buildings holding explosive items that are destroyed by airstrike blasts.
+ * <p>
+ * When such a building dies inside a blast, its items are taken out before the game can explode them, and a
+ * detonation is queued instead. The queue is processed breadth first with at most {@link #detonationsPerTick}
+ * detonations per tick, so a chain reaction through a large base plays out over several frames instead of
+ * recursing within one. Each detonation is itself a blast, so buildings it destroys queue the next generation.
+ * <p>
+ * The queue holds at most {@link #capacity} detonations and chains stop after {@link #maxGenerations} generations,
+ * so no chain reaction can grow without bound. Only the server detonates, clients see the result through the
+ * game's building sync.
+ */
+public class ChainReaction {
+    // Maximum number of queued detonations, detonations beyond it are dropped
+    public static final int capacity = 1024;
+    // Detonations processed per tick
+    public static int detonationsPerTick = 8;
+    // Generations after the original blast that can still detonate
+    public static int maxGenerations = 16;
+    // Buildings with less total explosiveness than this don't detonate
+    public static float minExplosiveness = 5f;
+    // Largest radius in tiles and damage of a single detonation
+    public static float maxRadius = 12f;
+    public static float maxDamage = 4000f;
+
+    // Queued detonations as a ring buffer of parallel arrays
+    private static final float[] queueX = new float[capacity];
+    private static final float[] queueY = new float[capacity];
+    private static final float[] queuePower = new float[capacity];
+    private static final int[] queueGeneration = new int[capacity];
+    private static int head;
+    private static int size;
+
+    // Recent blasts, used to find out whether a destroyed building died in one
+    private static float[] blastX = new float[8];
+    private static float[] blastY = new float[8];
+    private static float[] blastRadius = new float[8];
+    private static int[] blastGeneration = new int[8];
+    // Number of blasts recorded before each blast, to expire blasts in the order they were recorded
+    private static int[] blastSequence = new int[8];
+    private static int blasts;
+    private static int blastsRecorded;
+
+    /**
+     * Registers the event hooks that queue and process detonations.
+     */
+    public static void init() {
+        Events.on(EventType.BlockDestroyEvent.class, event -> {
+            if (event.tile.build != null) {
+                onDestroyed(event.tile.build);
+            }
+        });
+        Events.run(EventType.Trigger.update, () -> {
+            if (Vars.state.isPlaying()) {
+                update();
+            }
+        });
+        Events.on(EventType.WorldLoadEvent.class, event -> clear());
+    }
+
+    /**
+     * Records a blast, so buildings destroyed by it can detonate.
+     * <p>
+     * Called by {@link AirstrikeUtils#explosion(Tile, float, float, float, float, float, int)} for every blast.
+     * The blast stays recorded until {@link #expireBlasts()} is called after its damage.
+     *
+     * @param x the world x coordinate of the blast
+     * @param y the world y coordinate of the blast
+     * @param radius the radius of the blast in world units
+     * @param generation 0 for the blast of a strike, or the generation of the detonation causing the blast
+     */
+    public static void recordBlast(float x, float y, float radius, int generation) {
+        if (blasts == blastX.length) {
+            int length = blasts * 2;
+            blastX = Arrays.copyOf(blastX, length);
+            blastY = Arrays.copyOf(blastY, length);
+            blastRadius = Arrays.copyOf(blastRadius, length);
+            blastGeneration = Arrays.copyOf(blastGeneration, length);
+            blastSequence = Arrays.copyOf(blastSequence, length);
+        }
+        blastX[blasts] = x;
+        blastY[blasts] = y;
+        blastRadius[blasts] = radius;
+        blastGeneration[blasts] = generation;
+        blastSequence[blasts] = blastsRecorded++;
+        blasts++;
+    }
+
+    /**
+     * Forgets the blasts recorded so far, once the building damage queued until now has been dealt.
+     * <p>
+     * The game deals building damage in a task posted to the application, which runs at the end of the frame or in
+     * the next one. The blasts are forgotten by a task posted after it, so they outlive the damage no matter how
+     * long the frame takes. Called by {@link AirstrikeUtils#explosion(Tile, float, float, float, float, float, int)}
+     * right after it dealt its damage.
+     */
+    public static void expireBlasts() {
+        int recorded = blastsRecorded;
+        Core.app.post(() -> expireBlasts(recorded));
+    }
+
+    /**
+     * Queues a detonation of the given building if it holds explosive items and died in a recent blast.
+     *
+     * @param building the building that was destroyed
+     */
+    public static void onDestroyed(Building building) {
+        if (Vars.net.client() || building.items == null || blasts == 0) {
+            return;
+        }
+        int generation = blastGeneration(building);
+        if (generation < 0 || generation >= maxGenerations) {
+            return;
+        }
+        float power = 0f;
+        int cap = building.explosionItemCap();
+        for (int i = 0; i < Vars.content.items().size; i++) {
+            Item item = Vars.content.item(i);
+            if (item.explosiveness > 0f) {
+                power += item.explosiveness * Math.min(building.items.get(item), cap);
+            }
+        }
+        if (power < minExplosiveness) {
+            return;
+        }
+        // The items detonate through the queue, so the game must not explode them right away
+        building.items.clear();
+        enqueue(building.x, building.y, power, generation + 1);
+    }
+
+    /**
+     * Processes up to {@link #detonationsPerTick} queued detonations, oldest first.
+     * <p>
+     * Called automatically once per tick.
+     */
+    public static void update() {
+        for (int i = 0; i < detonationsPerTick && size > 0; i++) {
+            float x = queueX[head];
+            float y = queueY[head];
+            float power = queuePower[head];
+            int generation = queueGeneration[head];
+            head = (head + 1) % capacity;
+            size--;
+            detonate(x, y, power, generation);
+        }
+    }
+
+    /**
+     * Removes all queued detonations and recorded blasts.
+     */
+    public static void clear() {
+        head = 0;
+        size = 0;
+        blasts = 0;
+    }
+
+    /**
+     * Returns the number of queued detonations.
+     *
+     * @return the number of detonations waiting for their tick
+     */
+    public static int size() {
+        return size;
+    }
+
+    private static void enqueue(float x, float y, float power, int generation) {
+        if (size == capacity) {
+            AirstrikeMetrics.chainDropped.increment();
+            return;
+        }
+        int index = (head + size) % capacity;
+        queueX[index] = x;
+        queueY[index] = y;
+        queuePower[index] = power;
+        queueGeneration[index] = generation;
+        size++;
+    }
+
+    private static void detonate(float x, float y, float power, int generation) {
+        Tile tile = Vars.world.tileWorld(x, y);
+        if (tile == null) {
+            return;
+        }
+        float radius = Mathf.clamp(Mathf.sqrt(power) * 0.5f, 1.5f, maxRadius);
+        float damage = Math.min(power * 4f, maxDamage);
+        Fx.dynamicExplosion.at(x, y, radius / 2f);
+        AirstrikeUtils.explosion(tile, radius, damage, radius, radius * 2f, 20f, generation);
+        AirstrikeMetrics.chainDetonations.increment();
+    }
+
+    // Lowest generation of the recent blasts the building is in, or -1 if it is in none
+    private static int blastGeneration(Building building) {
+        int generation = -1;
+        for (int i = 0; i < blasts; i++) {
+            float reach = blastRadius[i] + building.hitSize() / 2f;
+            if (Mathf.within(building.x, building.y, blastX[i], blastY[i], reach) && (generation < 0 || blastGeneration[i] < generation)) {
+                generation = blastGeneration[i];
+            }
+        }
+        return generation;
+    }
+
+    // Removes the blasts recorded before the given number of blasts had been recorded
+    private static void expireBlasts(int recorded) {
+        int kept = 0;
+        for (int i = 0; i < blasts; i++) {
+            if (blastSequence[i] >= recorded) {
+                blastX[kept] = blastX[i];
+                blastY[kept] = blastY[i];
+                blastRadius[kept] = blastRadius[i];
+                blastGeneration[kept] = blastGeneration[i];
+                blastSequence[kept] = blastSequence[i];
+                kept++;
+            }
+        }
+        blasts = kept;
+    }
+}
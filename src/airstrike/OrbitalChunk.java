@@ -0,0 +1,159 @@
+package airstrike;
+
+import airstrike.net.OrbitalSync;
+import arc.util.Log;
+import mindustry.game.Team;
+import mindustry.io.SaveFileReader;
+import mindustry.io.SaveVersion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Custom save chunk holding the orbital weapons of the sector a save belongs to.
+ * <p>
+ * Storing a sector's inventory inside its own save keeps the inventory in step with the world:
+ * loading an older save or a backup also restores the weapons that were in orbit at that time.
+ * Planet stock is shared by all sectors of a planet, so it stays in the global orbital index
+ * (see {@link OrbitalData#saveOrbitalData()}).
+ * <p>
+ * Saves made on a planet contain an empty chunk.
+ * <p>
+ * The chunk starts with its format version and the length of the rest, so readers can skip the rest of a chunk
+ * they don't understand without misreading whatever follows it. Version 1 chunks had no length.
+ */
+public class OrbitalChunk implements SaveFileReader.CustomChunk {
+    // Name of the chunk in the save file
+    public static final String name = "airstrike-orbital";
+    // Format version of the chunk
+    public static final byte version = 2;
+
+    // Slice read from the save being loaded, taken by OrbitalData when loading finishes (null if the save had none)
+    private static OrbitalLocation loadedSlice = null;
+
+    /**
+     * Registers the chunk with the save system, so it is written to and read from every save.
+     */
+    public static void register() {
+        SaveVersion.addCustomChunk(name, new OrbitalChunk());
+    }
+
+    /**
+     * Returns the slice read from the save that was just loaded, and forgets it.
+     *
+     * @return the orbital weapons of the loaded sector, or null if the save contained no slice
+     */
+    public static OrbitalLocation takeLoadedSlice() {
+        OrbitalLocation slice = loadedSlice;
+        loadedSlice = null;
+        return slice;
+    }
+
+    @Override
+    public void write(DataOutput stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream payload = new DataOutputStream(bytes);
+        OrbitalLocation slice = AirstrikeUtils.getCurrentPlanet() == null ? OrbitalData.sectorOrbitalWeapons.get(AirstrikeUtils.getCurrentSectorId()) : null;
+        payload.writeBoolean(slice != null);
+        if (slice != null) {
+            writeLocation(payload, slice);
+            OrbitalData.markChunkSector(AirstrikeUtils.getCurrentSectorId());
+        }
+        stream.writeByte(version);
+        stream.writeInt(bytes.size());
+        stream.write(bytes.toByteArray());
+    }
+
+    @Override
+    public void read(DataInput stream) throws IOException {
+        byte chunkVersion = stream.readByte();
+        if (chunkVersion == 1) {
+            // Written before chunks had a length, so it has to be parsed even if it is not used
+            OrbitalLocation slice = stream.readBoolean() ? readLocation(stream) : null;
+            if (!OrbitalSync.isMirror()) {
+                loadedSlice = slice;
+            }
+            return;
+        }
+        int length = stream.readInt();
+        // Clients receive the server's data through packets instead
+        if (chunkVersion != version || OrbitalSync.isMirror()) {
+            if (chunkVersion != version) {
+                Log.err("Unknown orbital data version " + chunkVersion + " in save, ignoring it.");
+            }
+            stream.readFully(new byte[length]);
+            return;
+        }
+        loadedSlice = stream.readBoolean() ? readLocation(stream) : null;
+    }
+
+    @Override
+    public boolean writeNet() {
+        // Clients get the orbital data from OrbitalSync
+        return false;
+    }
+
+    /**
+     * Writes a location as (team-id, ((weapon-name, count), ...)) per team with weapons.
+     *
+     * @param stream the output to write to
+     * @param location the location to write
+     * @throws IOException if writing fails
+     */
+    static void writeLocation(DataOutput stream, OrbitalLocation location) throws IOException {
+        LinkedList<String>[] teams = location.teams;
+        int teamCount = 0;
+        for (LinkedList<String> orbitalWeapons : teams) {
+            if (orbitalWeapons != null && !orbitalWeapons.isEmpty()) {
+                teamCount++;
+            }
+        }
+        stream.writeShort(teamCount);
+        for (int teamId = 0; teamId < teams.length; teamId++) {
+            if (teams[teamId] == null || teams[teamId].isEmpty()) {
+                continue;
+            }
+            // Weapon order within a team doesn't matter, so only counts are saved
+            HashMap<String, Integer> counts = new HashMap<>();
+            for (String weapon : teams[teamId]) {
+                counts.merge(weapon, 1, Integer::sum);
+            }
+            stream.writeByte(teamId);
+            stream.writeShort(counts.size());
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                stream.writeUTF(count.getKey());
+                stream.writeInt(count.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a location written by {@link #writeLocation(DataOutput, OrbitalLocation)}.
+     *
+     * @param stream the input to read from
+     * @return the location that was read
+     * @throws IOException if reading fails
+     */
+    static OrbitalLocation readLocation(DataInput stream) throws IOException {
+        OrbitalLocation location = new OrbitalLocation();
+        int teamCount = stream.readUnsignedShort();
+        for (int i = 0; i < teamCount; i++) {
+            LinkedList<String> orbitalWeapons = location.get(Team.get(stream.readUnsignedByte()));
+            int weapons = stream.readUnsignedShort();
+            for (int j = 0; j < weapons; j++) {
+                String weapon = stream.readUTF();
+                int count = stream.readInt();
+                for (int k = 0; k < count; k++) {
+                    orbitalWeapons.add(weapon);
+                }
+            }
+        }
+        return location;
+    }
+}
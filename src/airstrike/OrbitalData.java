@@ -2,66 +2,88 @@ package airstrike;
 
 import airstrike.items.AirstrikeWeapon;
 import airstrike.content.AirstrikeItems;
-import arc.Core;
+import airstrike.metrics.AirstrikeMetrics;
+import airstrike.metrics.OrbitalJournal;
+import airstrike.net.OrbitalSync;
 import arc.util.Log;
-import arc.util.serialization.Json;
-import arc.util.serialization.JsonValue;
+import arc.util.Strings;
+import mindustry.game.Team;
 import mindustry.type.Planet;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
 
 public class OrbitalData {
-    // Orbital data for planets (planet-id: (weapon1-id, weapon2-id, ...))
-    public static HashMap<String, LinkedList<String>> planetOrbitalWeapons = new HashMap<>();
-    // Orbital data for sectors without planets (sector-id: (weapon1-id, weapon2-id, ...))
-    public static HashMap<String, LinkedList<String>> sectorOrbitalWeapons = new HashMap<>();
+    /**
+     * Orbital data for planets (planet-id: (team-id: (weapon1-id, weapon2-id, ...))).
+     * <p>
+     * This is the mod's own storage, integrations should use {@link OrbitalInventory}, which stays stable if it changes.
+     */
+    public static HashMap<String, OrbitalLocation> planetOrbitalWeapons = new HashMap<>();
+    /**
+     * Orbital data for sectors without planets (sector-id: (team-id: (weapon1-id, weapon2-id, ...))).
+     * <p>
+     * Like {@link #planetOrbitalWeapons}, integrations should read and change it through {@link OrbitalInventory}.
+     */
+    public static HashMap<String, OrbitalLocation> sectorOrbitalWeapons = new HashMap<>();
+
+    // Sectors whose inventory was read from or written to their own save, left out of the index
+    private static final HashSet<String> chunkSectors = new HashSet<>();
+
+    // Team that owns weapons saved before orbital data was split by team
+    public static final Team legacyTeam = Team.sharded;
+
+    // Implementation of the public inventory interface, see OrbitalInventory.get()
+    static final OrbitalDataInventory inventory = new OrbitalDataInventory();
 
     public OrbitalData() {}
 
     /**
-     * Retrieves the orbital data for the specified planet.
-     * If the planet has no associated orbital data, a new empty list is returned.
+     * Retrieves the orbital data of all teams for the specified planet or sector.
+     *
+     * @param planetNameOrSectorId the ID of the planet or sector for which to retrieve orbital data
+     * @return the orbital data of the location, or null if the location has no orbital data
+     */
+    public static OrbitalLocation getOrbitalLocation(String planetNameOrSectorId) {
+        OrbitalLocation location = planetOrbitalWeapons.get(planetNameOrSectorId);
+        if (location == null) {
+            location = sectorOrbitalWeapons.get(planetNameOrSectorId);
+        }
+        return location;
+    }
+
+    /**
+     * Retrieves the orbital data of the given team for the specified planet.
+     * If the team has no weapons on the planet, a new empty list is returned.
      *
      * @param planetName the name of the planet for which to retrieve orbital data
-     * @return a list of weapon IDs for the given planet,
+     * @param team the team owning the weapons
+     * @return a list of weapon IDs for the given planet and team,
      *         or null if the planet has no orbital data
      */
-    public static LinkedList<String> getOrbitalWeaponsOfPlanet(String planetName) {
-        if (planetOrbitalWeapons.containsKey(planetName)) {
-            LinkedList<String> orbitalWeapons = planetOrbitalWeapons.get(planetName);
-            if (orbitalWeapons == null) {
-                orbitalWeapons = new LinkedList<>();
-            }
-            return orbitalWeapons;
-        } else {
-            return null;
-        }
+    public static LinkedList<String> getOrbitalWeaponsOfPlanet(String planetName, Team team) {
+        OrbitalLocation location = planetOrbitalWeapons.get(planetName);
+        return location == null ? null : location.get(team);
     }
 
     /**
-     * Retrieves the orbital data for the specified sector.
-     * If the sector has no associated orbital data, a new empty list is returned.
+     * Retrieves the orbital data of the given team for the specified sector.
+     * If the team has no weapons in the sector, a new empty list is returned.
      *
      * @param sectorId the id of the sector for which to retrieve orbital data
-     * @return a list of weapon IDs for the given sector,
+     * @param team the team owning the weapons
+     * @return a list of weapon IDs for the given sector and team,
      *         or null if the sector has no orbital data
      */
-    public static LinkedList<String> getOrbitalWeaponsOfSector(String sectorId) {
-        if (sectorOrbitalWeapons.containsKey(sectorId)) {
-            LinkedList<String> orbitalWeapons = sectorOrbitalWeapons.get(sectorId);
-            if (orbitalWeapons == null) {
-                orbitalWeapons = new LinkedList<>();
-            }
-            return orbitalWeapons;
-        } else {
-            return null;
-        }
+    public static LinkedList<String> getOrbitalWeaponsOfSector(String sectorId, Team team) {
+        OrbitalLocation location = sectorOrbitalWeapons.get(sectorId);
+        return location == null ? null : location.get(team);
     }
 
     /**
-     * Retrieves the orbital data associated with the given planet or sector.
+     * Retrieves the orbital data of the given team associated with the given planet or sector.
      * <p>
      * If the given ID is associated with a planet, it returns the orbital data
      * associated with that planet. If the given ID is associated with a sector,
@@ -69,98 +91,121 @@ public class OrbitalData {
      *
      * @param planetNameOrSectorId the ID of the planet or sector for which to
      *                              retrieve orbital data
-     * @return a list of weapon IDs for the given planet or sector,
+     * @param team the team owning the weapons
+     * @return a list of weapon IDs for the given planet or sector and team,
      *         or null if the location has no orbital data
      */
-    public static LinkedList<String> getOrbitalWeapons(String planetNameOrSectorId) {
-        if (planetOrbitalWeapons.containsKey(planetNameOrSectorId)) {
-            return getOrbitalWeaponsOfPlanet(planetNameOrSectorId);
-        } else {
-            return getOrbitalWeaponsOfSector(planetNameOrSectorId);
-        }
+    public static LinkedList<String> getOrbitalWeapons(String planetNameOrSectorId, Team team) {
+        OrbitalLocation location = getOrbitalLocation(planetNameOrSectorId);
+        return location == null ? null : location.get(team);
     }
 
     /**
-     * Retrieves the orbital data for the current location of the player.
+     * Retrieves the orbital data of the given team for the current location of the player.
      * <p>
      * If the player is currently on a planet, it returns the orbital data
      * associated with that planet. If the player is not on a planet, it returns
      * the orbital data associated with the current sector.
      *
-     * @return a list of weapon IDs for the current planet or sector, or null if the location has no orbital data
+     * If the location is missing from the orbital data, it is created (see {@link #getCurrentOrbitalLocation()}).
+     *
+     * @param team the team owning the weapons
+     * @return a list of weapon IDs for the current planet or sector and team
      */
-    public static LinkedList<String> getOrbitalWeapons() {
-        LinkedList<String> orbitalWeapons = getOrbitalWeapons(AirstrikeUtils.getLocation());
-        if (orbitalWeapons == null) {
-            Log.err("Location " + AirstrikeUtils.getLocation() + " not in orbital data, trying to correct data...");
-            correctOrbitalData();
-            return new LinkedList<>();
-        }
-        return orbitalWeapons;
+    public static LinkedList<String> getOrbitalWeapons(Team team) {
+        return getCurrentOrbitalLocation().get(team);
     }
 
     /**
-     * Returns the total number of weapons in orbit of the specified planet or sector.
+     * Retrieves the orbital data of all teams for the current location of the player, creating it if it is missing.
      * <p>
-     * This method calculates the sum of the counts of all weapons associated with
-     * the given planet or sector ID.
+     * A location can be missing when it has no save file yet, for example on a fresh custom map.
+     * A missing location is created empty right away, and a reconciliation with the save directory is requested
+     * from {@link OrbitalReconciler}, which runs in the background and at most once per interval.
+     * This keeps per-tick callers from scanning the saves.
+     *
+     * @return the orbital data of the current location
+     */
+    public static OrbitalLocation getCurrentOrbitalLocation() {
+        Planet planet = AirstrikeUtils.getCurrentPlanet();
+        HashMap<String, OrbitalLocation> locations = planet == null ? sectorOrbitalWeapons : planetOrbitalWeapons;
+        String name = planet == null ? AirstrikeUtils.getCurrentSectorId() : planet.name;
+        OrbitalLocation location = locations.get(name);
+        if (location == null) {
+            location = new OrbitalLocation();
+            locations.put(name, location);
+            OrbitalReconciler.request();
+        }
+        return location;
+    }
+
+    /**
+     * Returns the total number of weapons of the given team in orbit of the specified planet or sector.
      *
      * @param planetNameOrSectorId the ID of the planet or sector for which to retrieve the weapon count
-     * @return the total number of weapons in orbit of the specified planet or sector
+     * @param team the team owning the weapons
+     * @return the total number of weapons in orbit of the specified planet or sector, or 0 if the location has no orbital data
      */
-    public static int getOrbitalWeaponCount(String planetNameOrSectorId) {
-        return getOrbitalWeapons(planetNameOrSectorId).size();
+    public static int getOrbitalWeaponCount(String planetNameOrSectorId, Team team) {
+        LinkedList<String> orbitalWeapons = getOrbitalWeapons(planetNameOrSectorId, team);
+        return orbitalWeapons == null ? 0 : orbitalWeapons.size();
     }
 
     /**
-     * Returns the count of a specific weapon in orbit of the specified planet or sector.
+     * Returns the count of a specific weapon of the given team in orbit of the specified planet or sector.
      * <p>
-     * This method searches the orbital weapons associated with the given planet or sector ID
+     * This method searches the orbital weapons of the team at the given planet or sector ID
      * and counts how many of them match the specified weapon ID.
      *
      * @param planetNameOrSectorId the ID of the planet or sector for which to retrieve the weapon count
+     * @param team the team owning the weapons
      * @param weaponId the ID of the weapon to count
      * @return the number of weapons with the given ID in orbit of the specified planet or sector
      */
-    public static int getOrbitalWeaponCount(String planetNameOrSectorId, String weaponId) {
-        LinkedList<String> orbitalWeapons = getOrbitalWeapons(planetNameOrSectorId);
-        return (int) orbitalWeapons.stream().filter(weapon -> weapon.equals(weaponId)).count();
+    public static int getOrbitalWeaponCount(String planetNameOrSectorId, Team team, String weaponId) {
+        LinkedList<String> orbitalWeapons = getOrbitalWeapons(planetNameOrSectorId, team);
+        return orbitalWeapons == null ? 0 : countWeapon(orbitalWeapons, weaponId);
     }
 
     /**
-     * Returns the total number of orbital weapons for current sector or planet.
-     * <p>
-     * This is the sum of the counts of all weapons in orbit of the current sector or planet.
+     * Returns the total number of orbital weapons of the given team for current sector or planet.
      *
+     * @param team the team owning the weapons
      * @return the total number of orbital weapons for the current sector or planet
      */
-    public static int getCurrentOrbitalWeaponCount() {
-        return getOrbitalWeaponCount(AirstrikeUtils.getLocation());
+    public static int getCurrentOrbitalWeaponCount(Team team) {
+        return getOrbitalWeaponCount(AirstrikeUtils.getLocation(), team);
     }
 
     /**
-     * Returns the number of weapons in orbit of the current sector or planet with the given weapon ID.
+     * Returns the number of weapons of the given team in orbit of the current sector or planet with the given weapon ID.
      * <p>
      * If the weapon ID is not present in the orbital data, returns 0.
      *
+     * @param team the team owning the weapons
      * @param weaponId the weapon ID to look for
      * @return the number of weapons with the given ID in orbit of the current sector or planet
      */
-    public static int getCurrentOrbitalWeaponCount(String weaponId) {
-        return getOrbitalWeaponCount(AirstrikeUtils.getLocation(), weaponId);
+    public static int getCurrentOrbitalWeaponCount(Team team, String weaponId) {
+        return getOrbitalWeaponCount(AirstrikeUtils.getLocation(), team, weaponId);
     }
 
     /**
-     * Adds a given number of weapons of the given type to the given planet in the orbital data.
+     * Adds a given number of weapons of the given type to the given team on the given planet in the orbital data.
      * <p>
      * If the planet is not in the orbital data, an error log message is generated.
+     * Does nothing on clients, where the orbital data only mirrors the server.
      *
      * @param planetName the name of the planet to add the weapons to
+     * @param team the team owning the weapons
      * @param weapon the weapon type to add
      * @param amount the number of weapons to add
      */
-    public static void addOrbitalWeaponToPlanet(String planetName, AirstrikeWeapon weapon, int amount) {
-        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfPlanet(planetName);
+    public static void addOrbitalWeaponToPlanet(String planetName, Team team, AirstrikeWeapon weapon, int amount) {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
+        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfPlanet(planetName, team);
         if (orbitalWeapons == null) {
             Log.err("Planet " + planetName + " not in orbital data");
             return;
@@ -168,19 +213,25 @@ public class OrbitalData {
         for (int i = 0; i < amount; i++) {
             orbitalWeapons.add(weapon.name);
         }
+        recordChange(OrbitalSync.planetKind, planetName, team, weapon, amount);
     }
 
     /**
-     * Adds a specified number of weapons of a given type to the specified sector in the orbital data.
+     * Adds a specified number of weapons of a given type to the given team in the specified sector in the orbital data.
      * <p>
      * If the sector is not present in the orbital data, an error log message is generated.
+     * Does nothing on clients, where the orbital data only mirrors the server.
      *
      * @param sectorId the ID of the sector to add the weapons to
+     * @param team the team owning the weapons
      * @param weapon the weapon type to add
      * @param amount the number of weapons to add
      */
-    public static void addOrbitalWeaponToSector(String sectorId, AirstrikeWeapon weapon, int amount) {
-        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfSector(sectorId);
+    public static void addOrbitalWeaponToSector(String sectorId, Team team, AirstrikeWeapon weapon, int amount) {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
+        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfSector(sectorId, team);
         if (orbitalWeapons == null) {
             Log.err("Sector " + sectorId + " not in orbital data");
             return;
@@ -188,168 +239,210 @@ public class OrbitalData {
         for (int i = 0; i < amount; i++) {
             orbitalWeapons.add(weapon.name);
         }
+        recordChange(OrbitalSync.sectorKind, sectorId, team, weapon, amount);
     }
 
     /**
-     * Adds a specified number of weapons of a given type to the current sector or planet in the orbital data.
+     * Adds a specified number of weapons of a given type to the given team at the current sector or planet in the orbital data.
      * <p>
      * If the player is not on a planet, the sector the player is currently in is used.
      * If the sector is not present in the orbital data, an error log message is generated.
      * If the planet is not present in the orbital data, an error log message is generated.
      *
+     * @param team the team owning the weapons
      * @param weapon the weapon type to add
      * @param amount the number of weapons to add
      */
-    public static void addOrbitalWeapon(AirstrikeWeapon weapon, int amount) {
+    public static void addOrbitalWeapon(Team team, AirstrikeWeapon weapon, int amount) {
+        // Create the current location if it is missing
+        getCurrentOrbitalLocation();
         Planet planet = AirstrikeUtils.getCurrentPlanet();
         if (planet == null) {
-            addOrbitalWeaponToSector(AirstrikeUtils.getCurrentSectorId(), weapon, amount);
+            addOrbitalWeaponToSector(AirstrikeUtils.getCurrentSectorId(), team, weapon, amount);
         } else {
-            addOrbitalWeaponToPlanet(planet.name, weapon, amount);
+            addOrbitalWeaponToPlanet(planet.name, team, weapon, amount);
         }
     }
 
     /**
-     * Adds one weapon of the given type to the current sector or planet in the orbital data.
+     * Adds one weapon of the given type to the given team at the current sector or planet in the orbital data.
      * <p>
      * If the player is not on a planet, the sector the player is currently in is used.
      * If the sector is not present in the orbital data, an error log message is generated.
      * If the planet is not present in the orbital data, an error log message is generated.
      *
+     * @param team the team owning the weapon
      * @param weapon the weapon type to add
-     * @see #addOrbitalWeapon(AirstrikeWeapon, int)
+     * @see #addOrbitalWeapon(Team, AirstrikeWeapon, int)
      */
-    public static void addOrbitalWeapon(AirstrikeWeapon weapon) {
-        addOrbitalWeapon(weapon, 1);
+    public static void addOrbitalWeapon(Team team, AirstrikeWeapon weapon) {
+        addOrbitalWeapon(team, weapon, 1);
     }
 
     /**
-     * Removes a specified number of weapons of a given type from the given planet in the orbital data.
+     * Removes a specified number of weapons of a given type of the given team from the given planet in the orbital data.
      * <p>
      * If the planet is not present in the orbital data, an error log message is generated and the method returns false.
-     * If there are less than the given amount of the given weapon type in the orbital data for the given planet,
+     * If the team has less than the given amount of the given weapon type in orbit of the given planet,
      * the method returns false.
      * Otherwise, the method removes the given amount of the given weapon type from the orbital data for the given planet,
      * and returns true.
+     * On clients, where the orbital data only mirrors the server, nothing is removed and the method returns false.
      *
      * @param planetName the name of the planet from which to remove the weapons
+     * @param team the team owning the weapons
      * @param weapon the weapon type to remove
      * @param amount the number of weapons to remove
      * @return true if the removal was successful, false otherwise
      */
-    public static boolean removeOrbitalWeaponFromPlanet(String planetName, AirstrikeWeapon weapon, int amount) {
-        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfPlanet(planetName);
-        int weaponCount = getCurrentOrbitalWeaponCount(weapon.name);
+    public static boolean removeOrbitalWeaponFromPlanet(String planetName, Team team, AirstrikeWeapon weapon, int amount) {
+        if (OrbitalSync.isMirror()) {
+            return false;
+        }
+        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfPlanet(planetName, team);
         if (orbitalWeapons == null) {
             Log.err("Planet " + planetName + " not in orbital data");
             return false;
         }
-        if (weaponCount < amount) {
+        if (countWeapon(orbitalWeapons, weapon.name) < amount) {
             return false;
         }
         for (int i = 0; i < amount; i++) {
             orbitalWeapons.remove(weapon.name);
         }
+        recordChange(OrbitalSync.planetKind, planetName, team, weapon, -amount);
         return true;
     }
 
     /**
-     * Removes a specified number of weapons of a given type from the given sector in the orbital data.
+     * Removes a specified number of weapons of a given type of the given team from the given sector in the orbital data.
      * <p>
      * If the sector is not present in the orbital data, an error log message is generated and the method returns false.
-     * If there are less than the given amount of the given weapon type in the orbital data for the given sector,
+     * If the team has less than the given amount of the given weapon type in orbit of the given sector,
      * the method returns false.
      * Otherwise, the method removes the given amount of the given weapon type from the orbital data for the given sector,
      * and returns true.
+     * On clients, where the orbital data only mirrors the server, nothing is removed and the method returns false.
      *
      * @param sectorId the ID of the sector from which to remove the weapons
+     * @param team the team owning the weapons
      * @param weapon the weapon type to remove
      * @param amount the number of weapons to remove
      * @return true if the removal was successful, false otherwise
      */
-    public static boolean removeOrbitalWeaponFromSector(String sectorId, AirstrikeWeapon weapon, int amount) {
-        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfSector(sectorId);
-        int weaponCount = getCurrentOrbitalWeaponCount(weapon.name);
+    public static boolean removeOrbitalWeaponFromSector(String sectorId, Team team, AirstrikeWeapon weapon, int amount) {
+        if (OrbitalSync.isMirror()) {
+            return false;
+        }
+        LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfSector(sectorId, team);
         if (orbitalWeapons == null) {
             Log.err("Sector " + sectorId + " not in orbital data");
             return false;
         }
-        if (weaponCount < amount) {
+        if (countWeapon(orbitalWeapons, weapon.name) < amount) {
             return false;
         }
         for (int i = 0; i < amount; i++) {
             orbitalWeapons.remove(weapon.name);
         }
+        recordChange(OrbitalSync.sectorKind, sectorId, team, weapon, -amount);
         return true;
     }
 
     /**
-     * Removes a specified number of weapons of a given type from the current planet or sector in the orbital data.
+     * Removes a specified number of weapons of a given type of the given team from the current planet or sector in the orbital data.
      * <p>
      * If the current location is a planet, this method calls
-     * {@link #removeOrbitalWeaponFromPlanet(String, AirstrikeWeapon, int)} with the planet's name and the given weapon and amount.
+     * {@link #removeOrbitalWeaponFromPlanet(String, Team, AirstrikeWeapon, int)} with the planet's name and the given team, weapon and amount.
      * If the current location is a sector, this method calls
-     * {@link #removeOrbitalWeaponFromSector(String, AirstrikeWeapon, int)} with the sector's ID and the given weapon and amount.
+     * {@link #removeOrbitalWeaponFromSector(String, Team, AirstrikeWeapon, int)} with the sector's ID and the given team, weapon and amount.
      *
+     * @param team the team owning the weapons
      * @param weapon the weapon type to remove
      * @param amount the number of weapons to remove
      * @return true if the removal was successful, false otherwise
      */
-    public static boolean removeOrbitalWeapon(AirstrikeWeapon weapon, int amount) {
+    public static boolean removeOrbitalWeapon(Team team, AirstrikeWeapon weapon, int amount) {
+        // Create the current location if it is missing
+        getCurrentOrbitalLocation();
         Planet planet = AirstrikeUtils.getCurrentPlanet();
         if (planet == null) {
-            return removeOrbitalWeaponFromSector(AirstrikeUtils.getCurrentSectorId(), weapon, amount);
+            return removeOrbitalWeaponFromSector(AirstrikeUtils.getCurrentSectorId(), team, weapon, amount);
         } else {
-            return removeOrbitalWeaponFromPlanet(planet.name, weapon, amount);
+            return removeOrbitalWeaponFromPlanet(planet.name, team, weapon, amount);
         }
     }
 
     /**
-     * Removes a single weapon of the given type from the current planet or sector in the orbital data.
+     * Removes a single weapon of the given type of the given team from the current planet or sector in the orbital data.
      * <p>
-     * This method is equivalent to calling {@link #removeOrbitalWeapon(AirstrikeWeapon, int)} with the given weapon and an amount of 1.
-     * <p>
-     * If the current location is a planet, this method calls
-     * {@link #removeOrbitalWeaponFromPlanet(String, AirstrikeWeapon, int)} with the planet's name and the given weapon and amount.
-     * If the current location is a sector, this method calls
-     * {@link #removeOrbitalWeaponFromSector(String, AirstrikeWeapon, int)} with the sector's ID and the given weapon and amount.
+     * This method is equivalent to calling {@link #removeOrbitalWeapon(Team, AirstrikeWeapon, int)} with the given team, weapon and an amount of 1.
      *
+     * @param team the team owning the weapon
      * @param weapon the weapon type to remove
      * @return true if the removal was successful, false otherwise
      */
-    public static boolean removeOrbitalWeapon(AirstrikeWeapon weapon) {
-        return removeOrbitalWeapon(weapon, 1);
+    public static boolean removeOrbitalWeapon(Team team, AirstrikeWeapon weapon) {
+        return removeOrbitalWeapon(team, weapon, 1);
     }
 
     /**
      * Ensures that the orbital data is up to date with the active planets and sectors in the game.
      * <p>
-     * This method is called automatically by the mod whenever the game saves or loads.
+     * The mod does this automatically in the background when the current location is missing from the orbital data.
      * It ensures that the orbital data is up to date with the active planets and sectors in the game, by adding any missing planets or sectors and removing any inactive ones.
      * <p>
      * This method is useful for ensuring that the orbital data is always up to date and correct, even if the user manually edits the save files.
+     * <p>
+     * Does nothing on clients, as their saves are unrelated to the server's orbital data.
+     * <p>
+     * This method scans the save directory on the calling thread, see {@link OrbitalReconciler} for a background scan.
      */
     public static void correctOrbitalData() {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
+        correctOrbitalData(AirstrikeUtils.getSaves());
+    }
+
+    /**
+     * Ensures that the orbital data is up to date with the given active planets and sectors.
+     * <p>
+     * The current location is always kept, even if it has no save file yet.
+     *
+     * @param saves the active planets and sectors, as returned by {@link AirstrikeUtils#getSaves()}; modified by this method
+     * @see #correctOrbitalData()
+     */
+    public static void correctOrbitalData(HashMap<Planet, LinkedList<Integer>> saves) {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
         if (planetOrbitalWeapons == null) {
             planetOrbitalWeapons = new HashMap<>();
         }
         if (sectorOrbitalWeapons == null) {
             sectorOrbitalWeapons = new HashMap<>();
         }
-        // Saves to check if orbital data is up to date with active planets/sectors (active = in saves - has been played)
-        HashMap<Planet, LinkedList<Integer>> saves = AirstrikeUtils.getSaves();
+        // The current location is always active, even without a save file (dedicated servers, unsaved custom maps)
+        Planet currentPlanet = AirstrikeUtils.getCurrentPlanet();
+        String currentSectorId = AirstrikeUtils.getCurrentSectorId();
+        if (currentPlanet != null) {
+            saves.computeIfAbsent(currentPlanet, key -> new LinkedList<>());
+        } else if (Strings.canParseInt(currentSectorId)) {
+            saves.computeIfAbsent(null, key -> new LinkedList<>()).add(Integer.parseInt(currentSectorId));
+        }
         // Add missing planets/sectors
         for (Planet planet : saves.keySet()) {
             if (planet != null) {
                 if (!planetOrbitalWeapons.containsKey(String.valueOf(planet.name))) {
 //                    Log.info("Adding untracked Planet " + planet.name + " to orbital data.");
-                    planetOrbitalWeapons.put(String.valueOf(planet.name), new LinkedList<String>());
+                    planetOrbitalWeapons.put(String.valueOf(planet.name), new OrbitalLocation());
                 }
             } else {
                 for (int sectorId : saves.get(null)) {
                     if (!sectorOrbitalWeapons.containsKey(String.valueOf(sectorId))) {
 //                        Log.info("Adding untracked non-planet Sector " + sectorId + " to orbital data.");
-                        sectorOrbitalWeapons.put(String.valueOf(sectorId), new LinkedList<String>());
+                        sectorOrbitalWeapons.put(String.valueOf(sectorId), new OrbitalLocation());
                     }
                 }
             }
@@ -357,14 +450,12 @@ public class OrbitalData {
         // Remove planets that are no longer active
         LinkedList<String> toRemove = new LinkedList<>();
         for (String planetName : planetOrbitalWeapons.keySet()) {
-            if (AirstrikeUtils.getPlanetByName(planetName) == null || !saves.containsKey(AirstrikeUtils.getPlanetByName(planetName))) {
+            Planet planet = AirstrikeUtils.getPlanetByName(planetName);
+            if (planet == null || !saves.containsKey(planet)) {
 //                Log.info("Removing invalid Planet " + planetName + " from orbital data.");
                 toRemove.add(planetName);
             }
-            LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfPlanet(planetName);
-            if ((orbitalWeapons != null)) {
-                correctOrbitalDataWeapons(orbitalWeapons);
-            }
+            correctOrbitalLocation(planetOrbitalWeapons.get(planetName));
         }
         for (String planetId : toRemove) {
             planetOrbitalWeapons.remove(planetId);
@@ -377,10 +468,7 @@ public class OrbitalData {
 //                    Log.info("Removing invalid non-planet sector " + sectorId + " from orbital data.");
                     toRemove.add(sectorId);
                 }
-                LinkedList<String> orbitalWeapons = getOrbitalWeaponsOfSector(sectorId);
-                if ((orbitalWeapons != null)) {
-                    correctOrbitalDataWeapons(orbitalWeapons);
-                }
+                correctOrbitalLocation(sectorOrbitalWeapons.get(sectorId));
             }
         } else {
             for (String sectorId : sectorOrbitalWeapons.keySet()) {
@@ -393,6 +481,23 @@ public class OrbitalData {
         }
     }
 
+    /**
+     * Removes any invalid weapons from the weapon lists of all teams at the given location.
+     *
+     * @param location the location to clean up, may be null
+     * @see #correctOrbitalDataWeapons(LinkedList)
+     */
+    public static void correctOrbitalLocation(OrbitalLocation location) {
+        if (location == null) {
+            return;
+        }
+        for (LinkedList<String> orbitalWeapons : location.teams) {
+            if (orbitalWeapons != null) {
+                correctOrbitalDataWeapons(orbitalWeapons);
+            }
+        }
+    }
+
     /**
      * Removes any invalid weapons from the given list of weapons.
      * <p>
@@ -416,39 +521,60 @@ public class OrbitalData {
     }
 
     /**
-     * Saves the orbital data to the game's settings.
+     * Saves the orbital index to the game's data directory.
      * <p>
-     * This method first calls {@link #correctOrbitalData()} to ensure that the data is up to date and correct.
-     * It then saves the data to the game's settings using the key "airstrike-orbital-data".
+     * The index holds the planet stock, shared by all sectors of a planet, and the inventories of sectors
+     * that were not saved since inventories moved into the saves.
+     * The inventories of the current sector and of every sector whose inventory is in its own save ({@link OrbitalChunk})
+     * are left out, as are empty inventories, which are created again on first access.
+     * The index is serialized on the game thread and written to {@link OrbitalWriter#file()} in the background.
      * <p>
      * This method is called automatically by the mod whenever the game saves.
+     * It does nothing on clients, so the server's data never overwrites their own.
      */
     public static void saveOrbitalData() {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
+        // Never save a mirror of a server that was just left
+        OrbitalSync.restoreLocalData();
 //        Log.info("Saving orbital data");
+        long start = AirstrikeMetrics.start();
 
-        // Correct the data before saving
-        correctOrbitalData();
+        // Only the snapshot is taken on the game thread, the file is written in the background
+        String serializedData = serializedOrbitalIndex();
+        OrbitalWriter.submit(serializedData);
 
-        // Save orbital data to settings
-        Core.settings.put("airstrike-orbital-data", serializedOrbitalData());
-        Core.settings.saveValues();
+        AirstrikeMetrics.saveTime.recordSince(start);
+        AirstrikeMetrics.saveBytes.record(serializedData.length());
 
-//        Log.info("Orbital data was saved: " + Core.settings.getString("airstrike-orbital-data", ""));
+//        Log.info("Orbital data was saved: " + serializedData);
     }
 
     /**
-     * Loads the orbital data from the game's settings.
+     * Loads the orbital index, and the current sector's inventory from its save.
      * <p>
-     * This method first attempts to load the orbital data from the game's settings using the key "airstrike-orbital-data".
-     * If the data exists, it is then deserialized back into the {@link #planetOrbitalWeapons} and {@link #sectorOrbitalWeapons} fields.
+     * This method first loads the index written by {@link OrbitalWriter}, or from the settings for older versions,
+     * replacing the {@link #planetOrbitalWeapons} and {@link #sectorOrbitalWeapons} fields.
+     * If the save that was just loaded contained an {@link OrbitalChunk}, its inventory replaces the current sector's.
+     * Saves from before inventories moved into the saves keep the sector's inventory from the index,
+     * it moves into the save the next time the sector is saved.
+     * <p>
+     * The save directory is not scanned, only the current location is added if missing and unknown weapons are removed.
      * <p>
      * This method is called automatically by the mod whenever the game loads.
+     * On clients, it does nothing, as the data is received from the server instead.
+     * On servers, the loaded data is sent to all clients.
      */
     public static void loadOrbitalData() {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
 //        Log.info("Loading orbital data");
+        long start = AirstrikeMetrics.start();
 
-        // Load orbital data from settings (default needs to be '{}', so the json reader doesn't crash)
-        String serializedData = Core.settings.getString("airstrike-orbital-data", "{}");
+        // Load orbital index, waiting for pending writes (default needs to be '{}', so the json reader doesn't crash)
+        String serializedData = OrbitalWriter.read();
 
         // Check if orbital data exists
         if (serializedData != null) {
@@ -456,33 +582,89 @@ public class OrbitalData {
             deserializeOrbitalData(serializedData);
         }
 
-        // Correct data if needed, initializes empty data if needed
-        correctOrbitalData();
+        // Take the current sector's inventory from its save
+        OrbitalLocation slice = OrbitalChunk.takeLoadedSlice();
+        Planet planet = AirstrikeUtils.getCurrentPlanet();
+        if (planet == null) {
+            String sectorId = AirstrikeUtils.getCurrentSectorId();
+            if (slice != null) {
+                sectorOrbitalWeapons.put(sectorId, slice);
+                markChunkSector(sectorId);
+            } else {
+                sectorOrbitalWeapons.computeIfAbsent(sectorId, key -> new OrbitalLocation());
+            }
+        } else {
+            planetOrbitalWeapons.computeIfAbsent(planet.name, key -> new OrbitalLocation());
+        }
+
+        // Remove unknown weapons
+        for (OrbitalLocation location : planetOrbitalWeapons.values()) {
+            correctOrbitalLocation(location);
+        }
+        for (OrbitalLocation location : sectorOrbitalWeapons.values()) {
+            correctOrbitalLocation(location);
+        }
+
+        AirstrikeMetrics.loadTime.recordSince(start);
+
+        // Replace the mirrors of connected clients
+        OrbitalSync.broadcastSnapshot();
 
 //        Log.info("Orbital data was loaded: ");
 //        Log.info("Planet orbital data: " + planetOrbitalWeapons);
 //        Log.info("Sector orbital data: " + sectorOrbitalWeapons);
     }
 
+    /**
+     * Returns the JSON string representation of the orbital index written by {@link #saveOrbitalData()}.
+     * <p>
+     * The index has the same format as {@link #serializedOrbitalData()},
+     * but leaves out the current sector and all other sectors stored in their own saves, and empty sectors.
+     *
+     * @return the JSON string representation of the orbital index
+     */
+    public static String serializedOrbitalIndex() {
+        String currentSector = AirstrikeUtils.getCurrentPlanet() == null ? AirstrikeUtils.getCurrentSectorId() : null;
+        HashMap<String, OrbitalLocation> indexSectors = new HashMap<>();
+        for (Map.Entry<String, OrbitalLocation> entry : sectorOrbitalWeapons.entrySet()) {
+            String sectorId = entry.getKey();
+            if (!sectorId.equals(currentSector) && !chunkSectors.contains(sectorId) && !entry.getValue().isEmpty()) {
+                indexSectors.put(sectorId, entry.getValue());
+            }
+        }
+        StringBuilder jsonBuilder = new StringBuilder("{");
+
+        jsonBuilder.append("\"planets\":");
+        appendLocations(jsonBuilder, planetOrbitalWeapons);
+
+        jsonBuilder.append(",\"sectors\":");
+        appendLocations(jsonBuilder, indexSectors);
+
+        jsonBuilder.append("}");
+        return jsonBuilder.toString();
+    }
+
     /**
      * Returns a JSON string representation of the current orbital data.
      * <p>
-     * The JSON string is formatted as follows:
+     * The JSON string is formatted as follows, with the weapons of each location grouped by team id:
      * <pre>
      * {
      *   "planets": {
-     *     "planet1": ["item1", "item2", ...],
-     *     "planet2": ["item3", "item4", ...],
+     *     "planet1": {"team1": ["item1", "item2", ...], "team2": [...]},
+     *     "planet2": {"team1": ["item3", "item4", ...]},
      *     ...
      *   },
      *   "sectors": {
-     *     "sector1": ["item1", "item2", ...],
-     *     "sector2": ["item3", "item4", ...],
+     *     "sector1": {"team1": ["item1", "item2", ...]},
+     *     "sector2": {"team2": ["item3", "item4", ...]},
      *     ...
      *   }
      * }
      * </pre>
      * <p>
+     * Teams without weapons are left out.
+     * <p>
      * The order of the planets and sectors is not guaranteed to be the same as the order in which they were added.
      * <p>
      * The order of the items within a given planet or sector is not guaranteed to be the same as the order in which they were added.
@@ -495,55 +677,53 @@ public class OrbitalData {
         // Create a StringBuilder to construct the JSON string
         StringBuilder jsonBuilder = new StringBuilder("{");
 
-        jsonBuilder.append("\"planets\":{");
-        // Iterate over each planet and its associated items
-        for (Map.Entry<String, LinkedList<String>> entry : planetOrbitalWeapons.entrySet()) {
-            String planetName = entry.getKey();
-            LinkedList<String> items = entry.getValue();
+        jsonBuilder.append("\"planets\":");
+        appendLocations(jsonBuilder, planetOrbitalWeapons);
+
+        jsonBuilder.append(",\"sectors\":");
+        appendLocations(jsonBuilder, sectorOrbitalWeapons);
 
-            // Append the planet ID and its items to the JSON string
-            jsonBuilder.append("\"").append(planetName).append("\":[");
-            for (String item : items) {
-                jsonBuilder.append("\"").append(item).append("\",");
-            }
-            // Remove the trailing comma and close the planet's JSON object
-            if (!items.isEmpty()) {
-                jsonBuilder.setLength(jsonBuilder.length() - 1);
-            }
-            jsonBuilder.append("],");
-        }
-        // Remove the trailing comma and close the main JSON object
-        if (!planetOrbitalWeapons.isEmpty()) {
-            jsonBuilder.setLength(jsonBuilder.length() - 1);
-        }
         jsonBuilder.append("}");
 
-        jsonBuilder.append(",\"sectors\":{");
-        // Iterate over each sector and its associated items
-        for (Map.Entry<String, LinkedList<String>> entry : sectorOrbitalWeapons.entrySet()) {
-            String sectorId = entry.getKey();
-            LinkedList<String> items = entry.getValue();
+        // Return the constructed JSON string
+        return jsonBuilder.toString();
+    }
 
-            // Append the sector ID and its items to the JSON string
-            jsonBuilder.append("\"").append(sectorId).append("\":[");
-            for (String item : items) {
-                jsonBuilder.append("\"").append(item).append("\",");
+    private static void appendLocations(StringBuilder jsonBuilder, HashMap<String, OrbitalLocation> locations) {
+        jsonBuilder.append("{");
+        boolean anyLocation = false;
+        // Iterate over each location and its teams
+        for (Map.Entry<String, OrbitalLocation> entry : locations.entrySet()) {
+            anyLocation = true;
+            jsonBuilder.append("\"").append(entry.getKey()).append("\":{");
+            LinkedList<String>[] teams = entry.getValue().teams;
+            boolean anyTeam = false;
+            for (int teamId = 0; teamId < teams.length; teamId++) {
+                LinkedList<String> items = teams[teamId];
+                if (items == null || items.isEmpty()) {
+                    continue;
+                }
+                // Append the team ID and its items to the JSON string
+                jsonBuilder.append("\"").append(teamId).append("\":[");
+                for (String item : items) {
+                    jsonBuilder.append("\"").append(item).append("\",");
+                }
+                // Remove the trailing comma and close the team's JSON array
+                jsonBuilder.setLength(jsonBuilder.length() - 1);
+                jsonBuilder.append("],");
+                anyTeam = true;
             }
-            if (!items.isEmpty()) {
+            // Remove the trailing comma and close the location's JSON object
+            if (anyTeam) {
                 jsonBuilder.setLength(jsonBuilder.length() - 1);
             }
-            jsonBuilder.append("],");
+            jsonBuilder.append("},");
         }
-        // Remove the trailing comma and close the main JSON object
-        if (!sectorOrbitalWeapons.isEmpty()) {
+        // Remove the trailing comma and close the JSON object
+        if (anyLocation) {
             jsonBuilder.setLength(jsonBuilder.length() - 1);
         }
         jsonBuilder.append("}");
-
-        jsonBuilder.append("}");
-
-        // Return the constructed JSON string
-        return jsonBuilder.toString();
     }
 
     /**
@@ -551,50 +731,72 @@ public class OrbitalData {
      * <p>
      * This method expects the given JSON string to have the same structure as the one generated by
      * {@link #serializedOrbitalData()}, with the main JSON object containing two sub-objects, "planets" and "sectors".
-     * These sub-objects should contain a mapping of planet names and sector IDs to a list of item IDs.
+     * These sub-objects should contain a mapping of planet names and sector IDs to the item IDs of each team.
+     * <p>
+     * Data saved before orbital data was split by team maps locations directly to a list of item IDs.
+     * Such lists are assigned to {@link #legacyTeam}.
      * <p>
      * This method will not modify any existing data in the HashMaps; instead, it will clear the existing data and
      * load the new data from the given JSON string.
+     * The data is read by {@link OrbitalDataReader}, which streams it without building a JSON tree.
      *
      * @param data the JSON string to deserialize
+     * @throws arc.util.serialization.SerializationException if the data is not valid JSON, in which case the current data is kept
      */
     public static void deserializeOrbitalData(String data) {
-        // Create a JSON deserializer
-        Json json = new Json();
-        json.setTypeName(null); // Match what we saved
-
-        JsonValue jsonData = json.fromJson(null, data);
-
-        // Deserialize the JSON into the HashMaps
-        planetOrbitalWeapons = new HashMap<>();
-        sectorOrbitalWeapons = new HashMap<>();
-        for (JsonValue typeValue : jsonData) {
-            String type = typeValue.name;
-            if (type.equals("planets")) {
-//                Log.info("Loading planet orbital data...");
-                for (JsonValue planetValue : typeValue) {
-                    String planetName = planetValue.name;
-                    LinkedList<String> orbitalWeapons = new LinkedList<>();
-                    for (JsonValue itemValue : planetValue) {
-                        String itemId = itemValue.toString();
-                        orbitalWeapons.add(itemId);
-                    }
-                    planetOrbitalWeapons.put(planetName, orbitalWeapons);
-                }
-            } else if (type.equals("sectors")) {
-//                Log.info("Loading sector orbital data...");
-                for (JsonValue sectorValue : typeValue) {
-                    String sectorId = sectorValue.name;
-                    LinkedList<String> orbitalWeapons = new LinkedList<>();
-                    for (JsonValue itemValue : sectorValue) {
-                        String itemId = itemValue.toString();
-                        orbitalWeapons.add(itemId);
-                    }
-                    sectorOrbitalWeapons.put(sectorId, orbitalWeapons);
-                }
-            } else {
-                Log.err("Unknown type " + type + " in orbital data.");
+        // Stream the data straight into new HashMaps, without building a JSON tree
+        HashMap<String, OrbitalLocation> planets = new HashMap<>();
+        HashMap<String, OrbitalLocation> sectors = new HashMap<>();
+        new OrbitalDataReader(data).read(planets, sectors);
+        planetOrbitalWeapons = planets;
+        sectorOrbitalWeapons = sectors;
+        inventory.fireReloaded();
+    }
+
+    /**
+     * Notifies the {@link OrbitalInventory} listeners of a change that didn't go through the mutation methods,
+     * such as a delta received from the server.
+     *
+     * @param location the planet name or sector id
+     * @param team the team owning the weapons
+     * @param weapon the weapon type that changed
+     * @param change the number of weapons added (positive) or removed (negative)
+     */
+    public static void notifyChanged(String location, Team team, AirstrikeWeapon weapon, int change) {
+        inventory.fireChanged(location, team, weapon, change);
+    }
+
+    /**
+     * Records that the inventory of the given sector is stored in the sector's own save,
+     * so it is no longer written to the orbital index.
+     *
+     * @param sectorId the id of the sector
+     */
+    static void markChunkSector(String sectorId) {
+        chunkSectors.add(sectorId);
+    }
+
+    /**
+     * Notifies the {@link OrbitalInventory} listeners that the whole orbital data was replaced.
+     */
+    public static void notifyReloaded() {
+        inventory.fireReloaded();
+    }
+
+    // Sends a mutation to clients, the journal and the inventory listeners
+    private static void recordChange(byte kind, String location, Team team, AirstrikeWeapon weapon, int change) {
+        OrbitalSync.recordChange(kind, location, team, weapon, change);
+        OrbitalJournal.recordMutation(kind, location, team, weapon, change);
+        inventory.fireChanged(location, team, weapon, change);
+    }
+
+    private static int countWeapon(LinkedList<String> orbitalWeapons, String weaponId) {
+        int count = 0;
+        for (String weapon : orbitalWeapons) {
+            if (weapon.equals(weaponId)) {
+                count++;
             }
         }
+        return count;
     }
 }
@@ -0,0 +1,157 @@
+package airstrike;
+
+import airstrike.items.AirstrikeWeapon;
+import airstrike.net.OrbitalSync;
+import mindustry.Vars;
+import mindustry.game.Team;
+import mindustry.type.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * {@link OrbitalInventory} backed by the weapon lists in {@link OrbitalData}.
+ */
+class OrbitalDataInventory implements OrbitalInventory {
+    private final ArrayList<ChangeListener> listeners = new ArrayList<>();
+
+    @Override
+    public int count(String location, Team team) {
+        return OrbitalData.getOrbitalWeaponCount(location, team);
+    }
+
+    @Override
+    public int count(String location, Team team, AirstrikeWeapon weapon) {
+        return OrbitalData.getOrbitalWeaponCount(location, team, weapon.name);
+    }
+
+    @Override
+    public void each(String location, Team team, WeaponCountConsumer consumer) {
+        OrbitalLocation orbitalLocation = OrbitalData.getOrbitalLocation(location);
+        LinkedList<String> orbitalWeapons = orbitalLocation == null ? null : orbitalLocation.getOrNull(team);
+        if (orbitalWeapons == null || orbitalWeapons.isEmpty()) {
+            return;
+        }
+        // Count by content id, so the weapons are visited without copying the list
+        int[] counts = new int[Vars.content.items().size];
+        for (String weaponName : orbitalWeapons) {
+            Item item = Vars.content.item(weaponName);
+            if (item instanceof AirstrikeWeapon) {
+                counts[item.id]++;
+            }
+        }
+        for (int id = 0; id < counts.length; id++) {
+            if (counts[id] > 0) {
+                consumer.accept((AirstrikeWeapon) Vars.content.item(id), counts[id]);
+            }
+        }
+    }
+
+    @Override
+    public Batch batch() {
+        return new ListBatch();
+    }
+
+    @Override
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    void fireChanged(String location, Team team, AirstrikeWeapon weapon, int change) {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).changed(location, team, weapon, change);
+        }
+    }
+
+    void fireReloaded() {
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).reloaded();
+        }
+    }
+
+    private static boolean isPlanet(String location) {
+        return OrbitalData.planetOrbitalWeapons.containsKey(location) || AirstrikeUtils.getPlanetByName(location) != null;
+    }
+
+    /**
+     * Batch that checks all removals up front, then applies the mutations through {@link OrbitalData}.
+     */
+    private static class ListBatch implements Batch {
+        private final ArrayList<String> locations = new ArrayList<>();
+        private final ArrayList<Team> teams = new ArrayList<>();
+        private final ArrayList<AirstrikeWeapon> weapons = new ArrayList<>();
+        private final ArrayList<Integer> changes = new ArrayList<>();
+
+        @Override
+        public Batch add(String location, Team team, AirstrikeWeapon weapon, int amount) {
+            return queue(location, team, weapon, amount);
+        }
+
+        @Override
+        public Batch remove(String location, Team team, AirstrikeWeapon weapon, int amount) {
+            return queue(location, team, weapon, -amount);
+        }
+
+        @Override
+        public boolean apply() {
+            if (OrbitalSync.isMirror()) {
+                return false;
+            }
+            // Net change per (location, team, weapon), so removals can use weapons added in the same batch
+            HashMap<String, Integer> net = new HashMap<>();
+            for (int i = 0; i < changes.size(); i++) {
+                net.merge(key(i), changes.get(i), Integer::sum);
+            }
+            for (int i = 0; i < changes.size(); i++) {
+                Integer change = net.get(key(i));
+                if (change < 0 && OrbitalData.getOrbitalWeaponCount(locations.get(i), teams.get(i), weapons.get(i).name) + change < 0) {
+                    return false;
+                }
+            }
+            // Additions first, so every removal is satisfied
+            for (int pass = 0; pass < 2; pass++) {
+                for (int i = 0; i < changes.size(); i++) {
+                    int change = changes.get(i);
+                    if ((pass == 0) != (change > 0) || change == 0) {
+                        continue;
+                    }
+                    String location = locations.get(i);
+                    if (isPlanet(location)) {
+                        OrbitalData.planetOrbitalWeapons.computeIfAbsent(location, key -> new OrbitalLocation());
+                        if (change > 0) {
+                            OrbitalData.addOrbitalWeaponToPlanet(location, teams.get(i), weapons.get(i), change);
+                        } else {
+                            OrbitalData.removeOrbitalWeaponFromPlanet(location, teams.get(i), weapons.get(i), -change);
+                        }
+                    } else {
+                        OrbitalData.sectorOrbitalWeapons.computeIfAbsent(location, key -> new OrbitalLocation());
+                        if (change > 0) {
+                            OrbitalData.addOrbitalWeaponToSector(location, teams.get(i), weapons.get(i), change);
+                        } else {
+                            OrbitalData.removeOrbitalWeaponFromSector(location, teams.get(i), weapons.get(i), -change);
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private Batch queue(String location, Team team, AirstrikeWeapon weapon, int change) {
+            locations.add(location);
+            teams.add(team);
+            weapons.add(weapon);
+            changes.add(change);
+            return this;
+        }
+
+        private String key(int i) {
+            return locations.get(i) + "\n" + teams.get(i).id + "\n" + weapons.get(i).name;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package airstrike;
+
+import arc.util.Log;
+import arc.util.serialization.SerializationException;
+import mindustry.game.Team;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * Streaming reader for the JSON orbital data written by {@link OrbitalData#serializedOrbitalData()}.
+ * <p>
+ * The data is tokenized in a single pass and weapons are added straight to the inventory, without building a tree.
+ * Weapon names are interned: each distinct name is allocated once, and every entry in the inventory shares it,
+ * so large blobs don't create a string per weapon.
+ * <p>
+ * Both the current format (locations mapping team ids to weapon lists) and the legacy format
+ * (locations mapping directly to a weapon list, assigned to {@link OrbitalData#legacyTeam}) are read.
+ */
+public class OrbitalDataReader {
+    private final String data;
+    private int position;
+    // Distinct weapon names seen so far
+    private final ArrayList<String> names = new ArrayList<>();
+
+    public OrbitalDataReader(String data) {
+        this.data = data;
+    }
+
+    /**
+     * Reads the data into the given maps, which are expected to be empty.
+     *
+     * @param planetData the map to add the planets to
+     * @param sectorData the map to add the sectors to
+     * @throws SerializationException if the data is not valid JSON
+     */
+    public void read(HashMap<String, OrbitalLocation> planetData, HashMap<String, OrbitalLocation> sectorData) {
+        expect('{');
+        if (next('}')) {
+            return;
+        }
+        do {
+            String type = readString();
+            expect(':');
+            if (type.equals("planets")) {
+                readLocations(planetData);
+            } else if (type.equals("sectors")) {
+                readLocations(sectorData);
+            } else {
+                Log.err("Unknown type " + type + " in orbital data.");
+                skipValue();
+            }
+        } while (next(','));
+        expect('}');
+    }
+
+    private void readLocations(HashMap<String, OrbitalLocation> locations) {
+        expect('{');
+        if (next('}')) {
+            return;
+        }
+        do {
+            String name = readString();
+            expect(':');
+            OrbitalLocation location = new OrbitalLocation();
+            if (peek() == '[') {
+                // Legacy data without teams
+                readWeapons(location.get(OrbitalData.legacyTeam));
+            } else {
+                readTeams(location);
+            }
+            locations.put(name, location);
+        } while (next(','));
+        expect('}');
+    }
+
+    private void readTeams(OrbitalLocation location) {
+        expect('{');
+        if (next('}')) {
+            return;
+        }
+        do {
+            String teamName = readString();
+            expect(':');
+            int teamId;
+            try {
+                teamId = Integer.parseInt(teamName);
+            } catch (NumberFormatException e) {
+                teamId = -1;
+            }
+            if (teamId < 0 || teamId >= Team.all.length) {
+                Log.err("Unknown team " + teamName + " in orbital data.");
+                skipValue();
+                continue;
+            }
+            readWeapons(location.get(Team.get(teamId)));
+        } while (next(','));
+        expect('}');
+    }
+
+    private void readWeapons(LinkedList<String> orbitalWeapons) {
+        expect('[');
+        if (next(']')) {
+            return;
+        }
+        do {
+            orbitalWeapons.add(readName());
+        } while (next(','));
+        expect(']');
+    }
+
+    /**
+     * Reads a string token, returning the interned instance if the same name was read before.
+     */
+    private String readName() {
+        expect('"');
+        int start = position;
+        int end = data.indexOf('"', start);
+        if (end < 0) {
+            throw error("Unterminated string");
+        }
+        if (hasEscape(start, end)) {
+            // Escaped names are rare enough to not be worth interning by region
+            position = start - 1;
+            return intern(readString());
+        }
+        position = end + 1;
+        int length = end - start;
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            if (name.length() == length && data.regionMatches(start, name, 0, length)) {
+                return name;
+            }
+        }
+        String name = data.substring(start, end);
+        names.add(name);
+        return name;
+    }
+
+    // Only the name itself is checked, searching the whole data for a backslash would make reading quadratic
+    private boolean hasEscape(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data.charAt(i) == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String intern(String value) {
+        for (String name : names) {
+            if (name.equals(value)) {
+                return name;
+            }
+        }
+        names.add(value);
+        return value;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder builder = null;
+        int start = position;
+        while (position < data.length()) {
+            char c = data.charAt(position++);
+            if (c == '"') {
+                return builder == null ? data.substring(start, position - 1) : builder.toString();
+            }
+            if (c == '\\') {
+                if (builder == null) {
+                    builder = new StringBuilder(data.substring(start, position - 1));
+                }
+                if (position >= data.length()) {
+                    break;
+                }
+                char escaped = data.charAt(position++);
+                switch (escaped) {
+                    case 'n':
+                        builder.append('\n');
+                        break;
+                    case 't':
+                        builder.append('\t');
+                        break;
+                    case 'r':
+                        builder.append('\r');
+                        break;
+                    case 'b':
+                        builder.append('\b');
+                        break;
+                    case 'f':
+                        builder.append('\f');
+                        break;
+                    case 'u':
+                        if (position + 4 > data.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        builder.append((char) Integer.parseInt(data.substring(position, position + 4), 16));
+                        position += 4;
+                        break;
+                    default:
+                        builder.append(escaped);
+                }
+            } else if (builder != null) {
+                builder.append(c);
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private void skipValue() {
+        char c = peek();
+        if (c == '"') {
+            readString();
+        } else if (c == '{' || c == '[') {
+            char close = c == '{' ? '}' : ']';
+            position++;
+            if (next(close)) {
+                return;
+            }
+            do {
+                if (c == '{') {
+                    readString();
+                    expect(':');
+                }
+                skipValue();
+            } while (next(','));
+            expect(close);
+        } else {
+            // Number, boolean or null
+            while (position < data.length() && ",}] \t\r\n".indexOf(data.charAt(position)) < 0) {
+                position++;
+            }
+        }
+    }
+
+    private char peek() {
+        skipWhitespace();
+        if (position >= data.length()) {
+            throw error("Unexpected end of data");
+        }
+        return data.charAt(position);
+    }
+
+    private boolean next(char c) {
+        skipWhitespace();
+        if (position < data.length() && data.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!next(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < data.length() && Character.isWhitespace(data.charAt(position))) {
+            position++;
+        }
+    }
+
+    private SerializationException error(String message) {
+        return new SerializationException(message + " at position " + position + " of orbital data");
+    }
+}
@@ -0,0 +1,145 @@
+package airstrike;
+
+import airstrike.items.AirstrikeWeapon;
+import mindustry.game.Team;
+
+/**
+ * Stable interface to the orbital weapons of all teams, for other mods and scripts.
+ * <p>
+ * Locations are planet names or sector ids, as returned by {@link AirstrikeUtils#getLocation()}.
+ * The interface hides how the weapons are stored, so integrations keep working when the storage changes.
+ * Get the instance with {@link #get()}.
+ * <p>
+ * All methods must be called on the game thread. On clients connected to a server, the inventory is a read-only
+ * mirror of the server's: mutations are ignored, but listeners are notified of the changes the server sends.
+ */
+public interface OrbitalInventory {
+
+    /**
+     * Returns the orbital inventory of the game.
+     *
+     * @return the orbital inventory
+     */
+    static OrbitalInventory get() {
+        return OrbitalData.inventory;
+    }
+
+    /**
+     * Returns the number of weapons of the given team in orbit of the given location.
+     *
+     * @param location the planet name or sector id
+     * @param team the team owning the weapons
+     * @return the number of weapons, 0 if the location is unknown
+     */
+    int count(String location, Team team);
+
+    /**
+     * Returns the number of weapons of the given type of the given team in orbit of the given location.
+     *
+     * @param location the planet name or sector id
+     * @param team the team owning the weapons
+     * @param weapon the weapon type to count
+     * @return the number of weapons, 0 if the location is unknown
+     */
+    int count(String location, Team team, AirstrikeWeapon weapon);
+
+    /**
+     * Calls the consumer once for each weapon type the given team has in orbit of the given location,
+     * with the number of weapons of that type.
+     * <p>
+     * The counts are a snapshot taken before the first call, so the consumer may modify the inventory.
+     *
+     * @param location the planet name or sector id
+     * @param team the team owning the weapons
+     * @param consumer the consumer to call
+     */
+    void each(String location, Team team, WeaponCountConsumer consumer);
+
+    /**
+     * Starts a batch of mutations, applied together by {@link Batch#apply()}.
+     *
+     * @return a new empty batch
+     */
+    Batch batch();
+
+    /**
+     * Adds a listener that is notified of every change of the inventory.
+     *
+     * @param listener the listener to add
+     */
+    void addListener(ChangeListener listener);
+
+    /**
+     * Removes a listener added with {@link #addListener(ChangeListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    void removeListener(ChangeListener listener);
+
+    /**
+     * Receives (weapon, count) pairs from {@link #each(String, Team, WeaponCountConsumer)}.
+     */
+    interface WeaponCountConsumer {
+        void accept(AirstrikeWeapon weapon, int count);
+    }
+
+    /**
+     * Listens for changes of the inventory.
+     */
+    interface ChangeListener {
+        /**
+         * Called after weapons were added to or removed from a location.
+         *
+         * @param location the planet name or sector id
+         * @param team the team owning the weapons
+         * @param weapon the weapon type that changed
+         * @param change the number of weapons added (positive) or removed (negative)
+         */
+        void changed(String location, Team team, AirstrikeWeapon weapon, int change);
+
+        /**
+         * Called after the whole inventory was replaced, for example when a save was loaded.
+         */
+        default void reloaded() {
+        }
+    }
+
+    /**
+     * Mutations of the inventory that are applied together.
+     * <p>
+     * Either all mutations are applied, or none if a removal can't be satisfied.
+     */
+    interface Batch {
+        /**
+         * Queues adding weapons to the given location.
+         *
+         * @param location the planet name or sector id
+         * @param team the team owning the weapons
+         * @param weapon the weapon type to add
+         * @param amount the number of weapons to add
+         * @return this batch
+         */
+        Batch add(String location, Team team, AirstrikeWeapon weapon, int amount);
+
+        /**
+         * Queues removing weapons from the given location.
+         *
+         * @param location the planet name or sector id
+         * @param team the team owning the weapons
+         * @param weapon the weapon type to remove
+         * @param amount the number of weapons to remove
+         * @return this batch
+         */
+        Batch remove(String location, Team team, AirstrikeWeapon weapon, int amount);
+
+        /**
+         * Applies all queued mutations.
+         * <p>
+         * Removals are checked against the inventory after the additions of this batch.
+         * Locations are created if they are missing.
+         *
+         * @return true if the mutations were applied, false if a removal could not be satisfied or this is a mirror
+         */
+        boolean apply();
+    }
+}
@@ -0,0 +1,54 @@
+package airstrike;
+
+import mindustry.game.Team;
+
+import java.util.LinkedList;
+
+/**
+ * Orbital weapons of a single planet or sector, split by the team that launched them.
+ * <p>
+ * The weapon lists are stored in a dense array indexed by team id, so looking up the weapons of a team is O(1).
+ */
+public class OrbitalLocation {
+    // Orbital data per team (team-id: (weapon1-id, weapon2-id, ...)), null for teams without weapons
+    @SuppressWarnings("unchecked")
+    public final LinkedList<String>[] teams = new LinkedList[Team.all.length];
+
+    /**
+     * Returns the weapons of the given team, creating an empty list if the team has none yet.
+     *
+     * @param team the team to get the weapons of
+     * @return the list of weapon IDs of the team
+     */
+    public LinkedList<String> get(Team team) {
+        LinkedList<String> orbitalWeapons = teams[team.id];
+        if (orbitalWeapons == null) {
+            orbitalWeapons = teams[team.id] = new LinkedList<>();
+        }
+        return orbitalWeapons;
+    }
+
+    /**
+     * Returns the weapons of the given team, or null if the team has none yet.
+     *
+     * @param team the team to get the weapons of
+     * @return the list of weapon IDs of the team, or null
+     */
+    public LinkedList<String> getOrNull(Team team) {
+        return teams[team.id];
+    }
+
+    /**
+     * Returns whether no team has any weapons at this location.
+     *
+     * @return true if all teams have no weapons
+     */
+    public boolean isEmpty() {
+        for (LinkedList<String> orbitalWeapons : teams) {
+            if (orbitalWeapons != null && !orbitalWeapons.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package airstrike;
+
+import airstrike.metrics.AirstrikeMetrics;
+import airstrike.net.OrbitalSync;
+import arc.Core;
+import arc.util.Log;
+import arc.util.Threads;
+import arc.util.Time;
+import mindustry.type.Planet;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Reconciles the orbital data with the save directory in the background, at most once per {@link #interval}.
+ * <p>
+ * The save directory is scanned on a background thread, the result is applied with
+ * {@link OrbitalData#correctOrbitalData(HashMap)} on the game thread.
+ * Requests while a scan is running or within the interval after the last scan are ignored,
+ * so bursts of misses (e.g. every beacon on every tick) cause a single scan.
+ */
+public class OrbitalReconciler {
+    // Minimum time between two scans in milliseconds
+    public static long interval = 10000;
+
+    // Start time of the last scan, 0 if there was none
+    private static long lastScan = 0;
+    // Whether a scan is running, only accessed on the game thread
+    private static boolean running = false;
+
+    /**
+     * Requests a reconciliation of the orbital data with the save directory.
+     * <p>
+     * Does nothing on clients, while a scan is running, or if the last scan started less than {@link #interval} ago.
+     */
+    public static void request() {
+        if (OrbitalSync.isMirror() || running || (lastScan != 0 && Time.timeSinceMillis(lastScan) < interval)) {
+            return;
+        }
+        running = true;
+        lastScan = Time.millis();
+        // Content is only read on the game thread, the scan gets a snapshot of the planets
+        Map<String, Planet> planets = AirstrikeUtils.planetIndex();
+        Threads.daemon("Airstrike Orbital Reconciler", () -> {
+            long start = AirstrikeMetrics.start();
+            HashMap<Planet, LinkedList<Integer>> saves;
+            try {
+                saves = AirstrikeUtils.getSaves(planets);
+            } catch (Throwable e) {
+                Log.err("Failed to scan saves for orbital data", e);
+                Core.app.post(() -> running = false);
+                return;
+            }
+            long elapsed = start == 0 ? -1 : Time.nanos() - start;
+            // The orbital data and the metrics are only modified on the game thread
+            Core.app.post(() -> {
+                if (elapsed >= 0) {
+                    AirstrikeMetrics.savesScanTime.record(elapsed);
+                }
+                OrbitalData.correctOrbitalData(saves);
+                running = false;
+            });
+        });
+    }
+
+    /**
+     * Returns whether a scan is running.
+     *
+     * @return true if a scan was started and its result was not applied yet
+     */
+    public static boolean isRunning() {
+        return running;
+    }
+}
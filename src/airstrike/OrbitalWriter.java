@@ -0,0 +1,163 @@
+package airstrike;
+
+import airstrike.metrics.AirstrikeMetrics;
+import arc.ApplicationListener;
+import arc.Core;
+import arc.files.Fi;
+import arc.util.Log;
+import arc.util.Time;
+import mindustry.Vars;
+
+import java.io.IOException;
+
+/**
+ * Writes the orbital index to disk on a background thread.
+ * <p>
+ * The game thread only serializes the index and hands the string to {@link #submit(String)}.
+ * Submissions that arrive while a write is in progress are coalesced, only the newest one is written.
+ * Files are replaced through a temporary file (see {@link AirstrikeUtils#replaceFile(Fi)}), so a crash during
+ * a write leaves the previous index intact.
+ * Pending data is flushed when the game exits.
+ */
+public class OrbitalWriter {
+    // Settings key the index was stored under before it got its own file
+    public static final String legacyKey = "airstrike-orbital-data";
+
+    private static final Object lock = new Object();
+    // Newest data not yet written, null if there is none
+    private static String pending = null;
+    // Whether a write is in progress, on the writer thread or in flush()
+    private static boolean writing = false;
+    private static Thread thread = null;
+
+    /**
+     * Returns the file the orbital index is written to.
+     *
+     * @return the index file in the game's data directory
+     */
+    public static Fi file() {
+        return Vars.dataDirectory.child("airstrike-orbital-data.json");
+    }
+
+    /**
+     * Queues the given data to be written to {@link #file()} in the background.
+     * <p>
+     * Replaces any data that is still waiting to be written.
+     *
+     * @param data the serialized orbital index
+     */
+    public static void submit(String data) {
+        synchronized (lock) {
+            if (pending != null) {
+                AirstrikeMetrics.coalescedWrites.increment();
+            }
+            pending = data;
+            if (thread == null) {
+                start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until all submitted data is written.
+     * <p>
+     * Data still waiting is written on the calling thread instead of waiting for the writer thread.
+     */
+    public static void flush() {
+        String data;
+        synchronized (lock) {
+            while (writing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            data = pending;
+            pending = null;
+            if (data == null) {
+                return;
+            }
+            writing = true;
+        }
+        writeAndRelease(data);
+    }
+
+    /**
+     * Returns the most recently written orbital index.
+     * <p>
+     * Pending data is flushed first. If the index was never written to its file,
+     * the index stored in the settings by older versions is returned.
+     *
+     * @return the serialized orbital index, "{}" if there is none
+     */
+    public static String read() {
+        flush();
+        Fi file = AirstrikeUtils.readableFile(file());
+        if (file.exists()) {
+            return file.readString();
+        }
+        return Core.settings.getString(legacyKey, "{}");
+    }
+
+    private static void start() {
+        thread = new Thread(OrbitalWriter::run, "Airstrike Orbital Writer");
+        thread.setDaemon(true);
+        thread.start();
+        // The writer thread is a daemon, so write whatever is left before the game exits
+        Core.app.addListener(new ApplicationListener() {
+            @Override
+            public void dispose() {
+                flush();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(OrbitalWriter::flush, "Airstrike Orbital Writer Shutdown"));
+    }
+
+    private static void run() {
+        while (true) {
+            String data;
+            synchronized (lock) {
+                while (pending == null || writing) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                data = pending;
+                pending = null;
+                writing = true;
+            }
+            writeAndRelease(data);
+        }
+    }
+
+    private static void writeAndRelease(String data) {
+        try {
+            long start = AirstrikeMetrics.start();
+            write(data);
+            if (start != 0) {
+                // Histograms aren't thread safe, so the time is recorded on the game thread
+                long elapsed = Time.nanos() - start;
+                Core.app.post(() -> AirstrikeMetrics.writeTime.record(elapsed));
+            }
+        } catch (Throwable e) {
+            Log.err("Failed to write orbital data", e);
+        } finally {
+            synchronized (lock) {
+                writing = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static void write(String data) throws IOException {
+        Fi file = file();
+        // Write to a temporary file first, so the index is never half written
+        AirstrikeUtils.tempFile(file).writeString(data);
+        AirstrikeUtils.replaceFile(file);
+    }
+}
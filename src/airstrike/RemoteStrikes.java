@@ -0,0 +1,381 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.items.AirstrikeWeapon;
+import airstrike.metrics.AirstrikeMetrics;
+import arc.files.Fi;
+import arc.math.geom.Point2;
+import arc.struct.LongSeq;
+import arc.util.CommandHandler;
+import arc.util.Log;
+import arc.util.Strings;
+import mindustry.Vars;
+import mindustry.game.Team;
+import mindustry.gen.Player;
+import mindustry.type.Item;
+import mindustry.type.Planet;
+import mindustry.type.Sector;
+import mindustry.world.Tile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Strikes on other sectors of the current planet, fired from the planet's orbital stock.
+ * <p>
+ * Unloaded sectors are never simulated. A strike on another sector only takes its weapon out of orbit and
+ * appends an impact to that sector's pending queue. When the sector's save is loaded, all of its pending impacts
+ * land in one pass, before the first tick is played.
+ * <p>
+ * Each pending impact is packed into a single long holding the target tile, the weapon and the team, so the queue
+ * of a sector is one primitive array. The queues are written to {@link #file()} whenever the game saves, right after
+ * the orbital index the weapons were taken from has been written. The two files are separate, so a crash between
+ * the two writes can lose the strikes queued since the last save, but never keeps a weapon in orbit that was
+ * already queued.
+ */
+public class RemoteStrikes {
+    // Format version of the pending impacts file
+    public static final byte version = 1;
+
+    // Pending impacts per sector (planet-name-sector-id: packed impacts)
+    private static final HashMap<String, LongSeq> pending = new HashMap<>();
+    // Whether the queues changed since they were last written
+    private static boolean dirty = false;
+
+    /**
+     * Returns the file the pending impacts are written to.
+     *
+     * @return the pending impacts file in the game's data directory
+     */
+    public static Fi file() {
+        return Vars.dataDirectory.child("airstrike-remote-strikes.bin");
+    }
+
+    /**
+     * Returns the key the pending impacts of the given sector are stored under.
+     * <p>
+     * It matches the name of the sector's save file, without the prefix.
+     *
+     * @param sector the sector
+     * @return the key of the sector
+     */
+    public static String sectorKey(Sector sector) {
+        return sector.planet.name + "-" + sector.id;
+    }
+
+    /**
+     * Fires a weapon from the orbit of the given sector's planet at another sector.
+     * <p>
+     * The weapon is removed from the planet's orbital stock right away, its impact lands when the sector is next loaded.
+     * Does nothing on clients.
+     *
+     * @param team the team firing the weapon
+     * @param sector the sector to strike, which must have a save
+     * @param weapon the weapon to fire
+     * @param x the target tile x coordinate
+     * @param y the target tile y coordinate
+     * @return null if the strike was queued, or the reason it was not
+     */
+    public static String request(Team team, Sector sector, AirstrikeWeapon weapon, int x, int y) {
+        if (Vars.net.client()) {
+            return "Only the server can fire remote strikes.";
+        }
+        if (!sector.hasSave()) {
+            return "Sector " + sector.id + " has no base to strike.";
+        }
+        if (x < 0 || y < 0 || x > Short.MAX_VALUE || y > Short.MAX_VALUE) {
+            return "Invalid target tile " + x + ", " + y + ".";
+        }
+        if (!OrbitalData.removeOrbitalWeaponFromPlanet(sector.planet.name, team, weapon, 1)) {
+            return "No " + weapon.localizedName + " of team " + team.name + " in orbit of " + sector.planet.localizedName + ".";
+        }
+        queue(sectorKey(sector), team, weapon, x, y);
+        return null;
+    }
+
+    /**
+     * Appends an impact to the pending queue of the given sector.
+     *
+     * @param sectorKey the key of the sector, see {@link #sectorKey(Sector)}
+     * @param team the team that fired the weapon
+     * @param weapon the weapon that lands
+     * @param x the target tile x coordinate
+     * @param y the target tile y coordinate
+     */
+    public static void queue(String sectorKey, Team team, AirstrikeWeapon weapon, int x, int y) {
+        pending.computeIfAbsent(sectorKey, key -> new LongSeq()).add(pack(Point2.pack(x, y), weapon.id, team.id));
+        dirty = true;
+        AirstrikeMetrics.remoteStrikes.increment();
+    }
+
+    /**
+     * Returns the number of impacts pending for the given sector.
+     *
+     * @param sectorKey the key of the sector, see {@link #sectorKey(Sector)}
+     * @return the number of pending impacts
+     */
+    public static int pendingCount(String sectorKey) {
+        LongSeq impacts = pending.get(sectorKey);
+        return impacts == null ? 0 : impacts.size;
+    }
+
+    /**
+     * Lands all impacts pending for the sector that was just loaded.
+     * <p>
+     * This method is called automatically by the mod whenever the game loads.
+     * It does nothing on clients, which receive the damaged world from the server.
+     */
+    public static void applyPending() {
+        Sector sector = Vars.state.rules.sector;
+        if (Vars.net.client() || sector == null) {
+            return;
+        }
+        applyPending(sectorKey(sector));
+    }
+
+    /**
+     * Lands all impacts pending for the given sector on the current world, and removes them from its queue.
+     * <p>
+     * Impacts outside the world, which may happen if the sector's map changed, are dropped.
+     *
+     * @param sectorKey the key of the sector, see {@link #sectorKey(Sector)}
+     * @return the number of impacts that landed
+     */
+    public static int applyPending(String sectorKey) {
+        LongSeq impacts = pending.remove(sectorKey);
+        if (impacts == null) {
+            return 0;
+        }
+        dirty = true;
+        long start = AirstrikeMetrics.start();
+        int landed = 0;
+        for (int i = 0; i < impacts.size; i++) {
+            long impact = impacts.items[i];
+            Tile tile = Vars.world.tile(position(impact));
+            Item item = Vars.content.item(weaponId(impact));
+            if (tile == null || !(item instanceof AirstrikeWeapon)) {
+                continue;
+            }
+            ((AirstrikeWeapon) item).onImpact(tile);
+            landed++;
+        }
+        AirstrikeMetrics.remoteImpacts.add(landed);
+        AirstrikeMetrics.remoteApplyTime.recordSince(start);
+        return landed;
+    }
+
+    /**
+     * Removes all pending impacts.
+     */
+    public static void clear() {
+        pending.clear();
+        dirty = true;
+    }
+
+    /**
+     * Writes the pending impacts to {@link #file()} if they changed since they were last written.
+     * <p>
+     * This method is called automatically by the mod whenever the game saves.
+     * The orbital index is written in the background, so it is flushed first: the queues must never be on disk
+     * while the weapons they took are still in the index.
+     * The file is replaced through a temporary file, so a crash during a write leaves the previous queues intact.
+     */
+    public static void save() {
+        if (!dirty || Vars.net.client()) {
+            return;
+        }
+        OrbitalWriter.flush();
+        Fi file = file();
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(AirstrikeUtils.tempFile(file).write()))) {
+            write(stream);
+        } catch (IOException e) {
+            Log.err("Failed to write pending remote strikes", e);
+            return;
+        }
+        try {
+            AirstrikeUtils.replaceFile(file);
+            dirty = false;
+        } catch (IOException e) {
+            Log.err("Failed to write pending remote strikes", e);
+        }
+    }
+
+    /**
+     * Replaces the pending impacts with the ones in {@link #file()}, if it exists.
+     * <p>
+     * This method is called once when the mod is initialized.
+     */
+    public static void load() {
+        pending.clear();
+        dirty = false;
+        Fi file = AirstrikeUtils.readableFile(file());
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(file.read()))) {
+            read(stream);
+        } catch (IOException e) {
+            Log.err("Failed to read pending remote strikes", e);
+        }
+    }
+
+    /**
+     * Writes the pending impacts.
+     * <p>
+     * The format is: byte version, the weapons as (short count, (utf name, ...)), and the queues as
+     * (int count, (utf sector-key, int count, (int position, short weapon-index, byte team-id, ...), ...)).
+     * Weapons are written by name, as content ids can change between versions.
+     *
+     * @param stream the output to write to
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutput stream) throws IOException {
+        // Weapon content id: index in the written weapon names
+        HashMap<Integer, Integer> weaponIndices = new HashMap<>();
+        ArrayList<String> weaponNames = new ArrayList<>();
+        for (LongSeq impacts : pending.values()) {
+            for (int i = 0; i < impacts.size; i++) {
+                int weaponId = weaponId(impacts.items[i]);
+                if (!weaponIndices.containsKey(weaponId)) {
+                    weaponIndices.put(weaponId, weaponNames.size());
+                    weaponNames.add(Vars.content.item(weaponId).name);
+                }
+            }
+        }
+        stream.writeByte(version);
+        stream.writeShort(weaponNames.size());
+        for (String name : weaponNames) {
+            stream.writeUTF(name);
+        }
+        stream.writeInt(pending.size());
+        for (Map.Entry<String, LongSeq> entry : pending.entrySet()) {
+            LongSeq impacts = entry.getValue();
+            stream.writeUTF(entry.getKey());
+            stream.writeInt(impacts.size);
+            for (int i = 0; i < impacts.size; i++) {
+                long impact = impacts.items[i];
+                stream.writeInt(position(impact));
+                stream.writeShort(weaponIndices.get(weaponId(impact)));
+                stream.writeByte(teamId(impact));
+            }
+        }
+    }
+
+    /**
+     * Adds the pending impacts written by {@link #write(DataOutput)}.
+     * <p>
+     * Impacts of weapons that no longer exist are dropped.
+     *
+     * @param stream the input to read from
+     * @throws IOException if reading fails
+     */
+    static void read(DataInput stream) throws IOException {
+        byte fileVersion = stream.readByte();
+        if (fileVersion != version) {
+            Log.err("Unknown pending remote strikes version " + fileVersion + ", ignoring them.");
+            return;
+        }
+        int weaponCount = stream.readUnsignedShort();
+        AirstrikeWeapon[] weapons = new AirstrikeWeapon[weaponCount];
+        for (int i = 0; i < weaponCount; i++) {
+            String name = stream.readUTF();
+            weapons[i] = AirstrikeItems.getWeapon(name);
+            if (weapons[i] == null) {
+                Log.err("Unknown weapon " + name + " in pending remote strikes, dropping its impacts.");
+            }
+        }
+        int sectorCount = stream.readInt();
+        for (int i = 0; i < sectorCount; i++) {
+            String sectorKey = stream.readUTF();
+            int count = stream.readInt();
+            LongSeq impacts = pending.computeIfAbsent(sectorKey, key -> new LongSeq(count));
+            for (int j = 0; j < count; j++) {
+                int position = stream.readInt();
+                AirstrikeWeapon weapon = weapons[stream.readUnsignedShort()];
+                int teamId = stream.readUnsignedByte();
+                if (weapon != null) {
+                    impacts.add(pack(position, weapon.id, teamId));
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the {@code airstrike-remote} command, striking another sector as the default team.
+     *
+     * @param handler the server command handler
+     */
+    public static void registerServerCommands(CommandHandler handler) {
+        handler.register("airstrike-remote", "<sector> <weapon> <x> <y>", "Fires an orbital weapon of the Airstrike mod at another sector of the planet.", args -> {
+            Log.info(runCommand(args, Vars.state.rules.defaultTeam));
+        });
+    }
+
+    /**
+     * Registers the {@code airstrike-remote} command, striking another sector as the player's team.
+     *
+     * @param handler the client command handler
+     */
+    public static void registerClientCommands(CommandHandler handler) {
+        handler.<Player>register("airstrike-remote", "<sector> <weapon> <x> <y>", "Fires an orbital weapon of the Airstrike mod at another sector of the planet.", (args, player) -> {
+            if (!player.admin) {
+                player.sendMessage("[scarlet]You must be an admin to use this command.");
+                return;
+            }
+            player.sendMessage(runCommand(args, player.team()));
+        });
+    }
+
+    private static String runCommand(String[] args, Team team) {
+        Planet planet = AirstrikeUtils.getCurrentPlanet();
+        Sector current = Vars.state.rules.sector;
+        if (planet == null || current == null) {
+            return "Remote strikes can only be fired from a sector of a planet.";
+        }
+        if (!Strings.canParseInt(args[0]) || !Strings.canParseInt(args[2]) || !Strings.canParseInt(args[3])) {
+            return "Sector and target tile must be numbers.";
+        }
+        int sectorId = Strings.parseInt(args[0]);
+        if (sectorId < 0 || sectorId >= planet.sectors.size) {
+            return "Planet " + planet.localizedName + " has no sector " + sectorId + ".";
+        }
+        Sector sector = planet.sectors.get(sectorId);
+        if (sector == current) {
+            return "Use a beacon to strike the current sector.";
+        }
+        AirstrikeWeapon weapon = AirstrikeItems.getWeapon(args[1]);
+        if (weapon == null) {
+            return "Unknown weapon " + args[1] + ".";
+        }
+        String error = request(team, sector, weapon, Strings.parseInt(args[2]), Strings.parseInt(args[3]));
+        if (error != null) {
+            return error;
+        }
+        return weapon.localizedName + " will strike sector " + sectorId + " when it is next loaded (" + pendingCount(sectorKey(sector)) + " pending).";
+    }
+
+    // Packs an impact as (position: 32 bits, weapon content id: 16 bits, team id: 8 bits)
+    private static long pack(int position, int weaponId, int teamId) {
+        return ((long) position << 32) | ((weaponId & 0xffffL) << 8) | (teamId & 0xffL);
+    }
+
+    private static int position(long impact) {
+        return (int) (impact >>> 32);
+    }
+
+    private static int weaponId(long impact) {
+        return (int) ((impact >>> 8) & 0xffff);
+    }
+
+    private static int teamId(long impact) {
+        return (int) (impact & 0xff);
+    }
+}
@@ -0,0 +1,313 @@
+package airstrike;
+
+import airstrike.items.SatelliteItem;
+import airstrike.net.OrbitalSync;
+import arc.files.Fi;
+import arc.util.Log;
+import arc.util.Time;
+import mindustry.Vars;
+import mindustry.ctype.ContentType;
+import mindustry.game.Team;
+import mindustry.type.Item;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Satellites in orbit of each location, and the launch windows they give strikes.
+ * <p>
+ * A satellite circles its location with the orbital period of its type, starting above the launcher it was launched
+ * from. Its phase (the fraction of an orbit it has completed) is never simulated, it is evaluated in closed form from
+ * its launch time and launch phase whenever a strike is called, so satellites cost nothing per tick.
+ * <p>
+ * Each orbit pass crosses the map from its left to its right edge, covering {@link #mapSpan} of the orbit.
+ * A weapon can only be dropped by a satellite of its team that is within {@link #dropWindow} of the phase above the
+ * target, so the delay of a strike is the time until the first such satellite comes around (see {@link #waitTime}).
+ * <p>
+ * Satellites are stored as parallel primitive arrays per location, so a location with thousands of satellites is
+ * scanned in one linear pass without following a single reference. They are written to {@link #file()} whenever the
+ * game saves. Orbit times are wall clock times, so satellites keep circling while the game is closed.
+ */
+public class SatelliteOrbits {
+    // Format version of the satellites file
+    public static final byte version = 1;
+    // Fraction of an orbit spent above the map
+    public static float mapSpan = 0.25f;
+    // Fraction of an orbit before and after the target in which a satellite can drop a weapon
+    public static float dropWindow = 0.01f;
+
+    // Satellites per location (planet-name or sector-id: satellites)
+    private static final HashMap<String, Orbit> orbits = new HashMap<>();
+    // Whether the satellites changed since they were last written
+    private static boolean dirty = false;
+
+    /**
+     * Returns the file the satellites are written to.
+     *
+     * @return the satellites file in the game's data directory
+     */
+    public static Fi file() {
+        return Vars.dataDirectory.child("airstrike-satellites.bin");
+    }
+
+    /**
+     * Puts a satellite into orbit of the current location, above the given tile column.
+     * <p>
+     * Does nothing on clients, strike delays are computed by the server.
+     *
+     * @param team the team owning the satellite
+     * @param satellite the type of the satellite
+     * @param x the tile x coordinate it was launched from
+     */
+    public static void launch(Team team, SatelliteItem satellite, int x) {
+        if (OrbitalSync.isMirror()) {
+            return;
+        }
+        launch(AirstrikeUtils.getLocation(), team, satellite, phaseAbove(x), Time.millis());
+    }
+
+    /**
+     * Puts a satellite into orbit of the given location.
+     *
+     * @param location the planet name or sector id
+     * @param team the team owning the satellite
+     * @param satellite the type of the satellite
+     * @param phase the phase of the satellite at launch
+     * @param time the launch time in milliseconds
+     */
+    public static void launch(String location, Team team, SatelliteItem satellite, float phase, long time) {
+        orbits.computeIfAbsent(location, key -> new Orbit()).add(team.id, satellite, phase, time);
+        dirty = true;
+    }
+
+    /**
+     * Returns the number of satellites of the given team in orbit of the given location.
+     *
+     * @param location the planet name or sector id
+     * @param team the team owning the satellites
+     * @return the number of satellites
+     */
+    public static int count(String location, Team team) {
+        Orbit orbit = orbits.get(location);
+        if (orbit == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < orbit.size; i++) {
+            if (orbit.teams[i] == team.id) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the seconds until a satellite of the given team in orbit of the current location can drop a weapon
+     * on the given tile column.
+     *
+     * @param team the team calling the strike
+     * @param x the target tile x coordinate
+     * @return the wait in seconds, 0 if a satellite is above the target or the team has no satellites
+     */
+    public static float waitTime(Team team, int x) {
+        return waitTime(AirstrikeUtils.getLocation(), team, phaseAbove(x), Time.millis());
+    }
+
+    /**
+     * Returns the seconds until a satellite of the given team in orbit of the given location is within
+     * {@link #dropWindow} of the given phase.
+     * <p>
+     * Teams without satellites, such as teams whose weapons were launched before satellites stayed in orbit,
+     * don't wait at all.
+     *
+     * @param location the planet name or sector id
+     * @param team the team calling the strike
+     * @param phase the phase above the target
+     * @param time the current time in milliseconds
+     * @return the wait in seconds, 0 if a satellite is above the target or the team has no satellites
+     */
+    public static float waitTime(String location, Team team, float phase, long time) {
+        Orbit orbit = orbits.get(location);
+        if (orbit == null) {
+            return 0f;
+        }
+        float wait = Float.POSITIVE_INFINITY;
+        int teamId = team.id;
+        // The distance a satellite still has to travel is measured to the start of the window
+        double target = phase - dropWindow;
+        for (int i = 0; i < orbit.size; i++) {
+            if (orbit.teams[i] != teamId) {
+                continue;
+            }
+            double travelled = orbit.launchPhases[i] + (time - orbit.launchTimes[i]) / 1000.0 / orbit.periods[i];
+            double distance = target - travelled;
+            distance -= Math.floor(distance);
+            // Satellites inside the window, up to dropWindow past the target, drop right away
+            if (distance >= 1.0 - 2.0 * dropWindow) {
+                return 0f;
+            }
+            wait = Math.min(wait, (float) (distance * orbit.periods[i]));
+        }
+        return wait == Float.POSITIVE_INFINITY ? 0f : wait;
+    }
+
+    /**
+     * Returns the phase at which a satellite is above the given tile column of the current map.
+     *
+     * @param x the tile x coordinate
+     * @return the phase, between 0 and {@link #mapSpan}
+     */
+    public static float phaseAbove(int x) {
+        int width = Vars.world.width();
+        return width <= 1 ? 0f : mapSpan * x / (width - 1);
+    }
+
+    /**
+     * Removes all satellites.
+     */
+    public static void clear() {
+        orbits.clear();
+        dirty = true;
+    }
+
+    /**
+     * Writes the satellites to {@link #file()} if they changed since they were last written.
+     * <p>
+     * This method is called automatically by the mod whenever the game saves.
+     * The file is replaced through a temporary file, so a crash during a write leaves the previous satellites intact.
+     */
+    public static void save() {
+        if (!dirty || Vars.net.client()) {
+            return;
+        }
+        Fi file = file();
+        try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(AirstrikeUtils.tempFile(file).write()))) {
+            write(stream);
+        } catch (IOException e) {
+            Log.err("Failed to write satellites", e);
+            return;
+        }
+        try {
+            AirstrikeUtils.replaceFile(file);
+            dirty = false;
+        } catch (IOException e) {
+            Log.err("Failed to write satellites", e);
+        }
+    }
+
+    /**
+     * Replaces the satellites with the ones in {@link #file()}, if it exists.
+     * <p>
+     * This method is called once when the mod is initialized.
+     */
+    public static void load() {
+        orbits.clear();
+        dirty = false;
+        Fi file = AirstrikeUtils.readableFile(file());
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(file.read()))) {
+            read(stream);
+        } catch (IOException e) {
+            Log.err("Failed to read satellites", e);
+        }
+    }
+
+    /**
+     * Writes the satellites.
+     * <p>
+     * The format is: byte version, int location count, and for each location a utf location, an int satellite count,
+     * and for each satellite a byte team id, a utf type name, a float launch phase and a long launch time.
+     *
+     * @param stream the output to write to
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutput stream) throws IOException {
+        stream.writeByte(version);
+        stream.writeInt(orbits.size());
+        for (Map.Entry<String, Orbit> entry : orbits.entrySet()) {
+            Orbit orbit = entry.getValue();
+            stream.writeUTF(entry.getKey());
+            stream.writeInt(orbit.size);
+            for (int i = 0; i < orbit.size; i++) {
+                stream.writeByte(orbit.teams[i]);
+                stream.writeUTF(Vars.content.item(orbit.types[i]).name);
+                stream.writeFloat(orbit.launchPhases[i]);
+                stream.writeLong(orbit.launchTimes[i]);
+            }
+        }
+    }
+
+    /**
+     * Adds the satellites written by {@link #write(DataOutput)}.
+     * <p>
+     * Satellites of types that no longer exist are dropped.
+     *
+     * @param stream the input to read from
+     * @throws IOException if reading fails
+     */
+    static void read(DataInput stream) throws IOException {
+        byte fileVersion = stream.readByte();
+        if (fileVersion != version) {
+            Log.err("Unknown satellites version " + fileVersion + ", ignoring them.");
+            return;
+        }
+        int locations = stream.readInt();
+        for (int i = 0; i < locations; i++) {
+            String location = stream.readUTF();
+            int count = stream.readInt();
+            for (int j = 0; j < count; j++) {
+                Team team = Team.get(stream.readUnsignedByte());
+                String name = stream.readUTF();
+                float phase = stream.readFloat();
+                long time = stream.readLong();
+                Item item = Vars.content.getByName(ContentType.item, name);
+                if (item instanceof SatelliteItem) {
+                    launch(location, team, (SatelliteItem) item, phase, time);
+                } else {
+                    Log.err("Unknown satellite " + name + " in orbit of " + location + ", dropping it.");
+                }
+            }
+        }
+    }
+
+    /**
+     * The satellites in orbit of one location, as parallel arrays.
+     */
+    private static class Orbit {
+        int size;
+        int[] teams = new int[16];
+        // Content id of the satellite type
+        short[] types = new short[16];
+        // Orbital period in seconds, copied from the type so the scan doesn't look it up
+        float[] periods = new float[16];
+        float[] launchPhases = new float[16];
+        long[] launchTimes = new long[16];
+
+        void add(int team, SatelliteItem satellite, float phase, long time) {
+            if (size == teams.length) {
+                int length = size * 2;
+                teams = Arrays.copyOf(teams, length);
+                types = Arrays.copyOf(types, length);
+                periods = Arrays.copyOf(periods, length);
+                launchPhases = Arrays.copyOf(launchPhases, length);
+                launchTimes = Arrays.copyOf(launchTimes, length);
+            }
+            teams[size] = team;
+            types[size] = satellite.id;
+            periods[size] = satellite.orbitalPeriod;
+            launchPhases[size] = phase;
+            launchTimes[size] = time;
+            size++;
+        }
+    }
+}
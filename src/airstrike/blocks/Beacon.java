@@ -1,10 +1,12 @@
 package airstrike.blocks;
 
-import airstrike.AirstrikeUtils;
 import airstrike.OrbitalData;
+import airstrike.SatelliteOrbits;
 import airstrike.items.AirstrikeWeapon;
 import airstrike.content.AirstrikeItems;
 import airstrike.meta.AirstrikeStat;
+import airstrike.metrics.TickProfiler;
+import airstrike.net.StrikeSync;
 import arc.Core;
 import arc.graphics.Color;
 import arc.scene.event.Touchable;
@@ -15,9 +17,18 @@ import arc.scene.ui.TextButton;
 import arc.scene.ui.layout.Table;
 import arc.util.Align;
 import arc.util.Log;
+import arc.util.Time;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.Vars;
+import mindustry.entities.Units;
+import mindustry.game.Team;
 import mindustry.gen.Building;
+import mindustry.gen.Unit;
+import mindustry.type.Item;
 import mindustry.ui.Styles;
 import mindustry.world.Block;
+import mindustry.world.Tile;
 import mindustry.world.meta.StatUnit;
 
 import java.util.LinkedList;
@@ -25,10 +36,16 @@ import java.util.LinkedList;
 public class Beacon extends Block {
     public int selected;
     public LinkedList<AirstrikeWeapon> weapons;
-    public float impactDelay;  // Time from call to impact in seconds
+    public float impactDelay;  // Time from the drop to impact in seconds, strikes also wait for a satellite above the target
+    // Tick profiler section of this block type
+    public final int profilerSection;
+    // Sentinel mode: radius in tiles checked for enemies, and ticks between checks
+    public float sentinelRange = 12f;
+    public float sentinelInterval = 30f;
 
     public Beacon(String name) {
         super(name);
+        profilerSection = TickProfiler.section(name);
         update = true;
         solid = true;
         hasItems = false;
@@ -36,6 +53,31 @@ public class Beacon extends Block {
         buildType = BeaconBuild::new;
         weapons = new LinkedList<>();
         selected = 0;
+
+        // Sentinel threshold (0 disables sentinel mode) and weapon, configured through the server
+        config(Integer.class, (BeaconBuild build, Integer threshold) -> {
+            build.sentinelThreshold = Math.max(threshold, 0);
+            build.sentinelArmed = true;
+        });
+        config(Item.class, (BeaconBuild build, Item item) -> {
+            if (item instanceof AirstrikeWeapon) {
+                build.sentinelWeapon = (AirstrikeWeapon) item;
+            }
+        });
+    }
+
+    /**
+     * Returns the seconds from calling a strike on the given tile to its impact.
+     * <p>
+     * The weapon falls for {@code impactDelay} seconds once a satellite of the team is above the target,
+     * see {@link SatelliteOrbits#waitTime(Team, int)}.
+     *
+     * @param team the team calling the strike
+     * @param target the target tile
+     * @return the delay until impact in seconds
+     */
+    public float impactDelay(Team team, Tile target) {
+        return SatelliteOrbits.waitTime(team, target.x) + impactDelay;
     }
 
     @Override
@@ -45,34 +87,57 @@ public class Beacon extends Block {
     }
 
     public class BeaconBuild extends Building {
+        // Number of enemy units in range that triggers a sentinel strike, 0 if sentinel mode is off
+        public int sentinelThreshold = 0;
+        // Weapon called by sentinel strikes
+        public AirstrikeWeapon sentinelWeapon = null;
+        // Whether the sentinel can strike, cleared by a strike until enemies drop below half the threshold
+        public boolean sentinelArmed = true;
+        // Ticks until the next sentinel check, offset per building so sentinels don't all check on the same tick
+        public float sentinelTimer = -1f;
+        // Enemy units counted by the last sentinel check
+        public int sentinelCount = 0;
 
         public void call() {
             if (selected < weapons.size()) {
                 AirstrikeWeapon selectedWeapon = weapons.get(selected);
-                if (OrbitalData.removeOrbitalWeapon(selectedWeapon)) {
-                    deselect();
-                    selected = 0; // Reset selection, in case block is not destroyed
-                    selectedWeapon.impact(tile, impactDelay);
-                } else {
-                    // Should be impossible, only weapons in orbit are displayed
-                    Log.err("Selected weapon not in orbit");
-                }
+                deselect();
+                selected = 0; // Reset selection, in case block is not destroyed
+                // The server checks the request against the orbital data before striking
+                Tile aim = strikeTarget(selectedWeapon);
+                StrikeSync.requestStrike(this, selectedWeapon, aim, strikeUnit(selectedWeapon, aim));
             }
         }
 
+        /**
+         * Returns the tile strikes called from this building are aimed at.
+         *
+         * @param weapon the weapon that is called
+         * @return the beacon's own tile
+         */
+        public Tile strikeTarget(AirstrikeWeapon weapon) {
+            return tile;
+        }
+
+        /**
+         * Returns the unit strikes called from this building follow until impact, if any.
+         *
+         * @param weapon the weapon that is called
+         * @param aim the tile the strike is aimed at, as returned by {@link #strikeTarget}
+         * @return null, beacons only strike their own tile
+         */
+        public Unit strikeUnit(AirstrikeWeapon weapon, Tile aim) {
+            return null;
+        }
+
         @Override
         public void updateTile() {
+            long profilerStart = TickProfiler.begin(profilerSection);
             super.updateTile();
 
-            // Update the weapons list
-            LinkedList<String> orbitalWeapons = OrbitalData.getOrbitalWeapons();
-            if (orbitalWeapons == null) {
-                // Handle case where location is not in data
-                // Bug finding credit: BlueTheCube
-                Log.err("Location " + AirstrikeUtils.getLocation() + " not in orbital data, trying to correct data...");
-                OrbitalData.correctOrbitalData();
-                orbitalWeapons = new LinkedList<>();
-            }
+            // Update the weapons list (only the weapons launched by this building's team)
+            // A missing location is created by OrbitalData, so this never scans the saves
+            LinkedList<String> orbitalWeapons = OrbitalData.getOrbitalWeapons(team);
             weapons.clear();
             for (String weaponName : orbitalWeapons) {
                 AirstrikeWeapon weapon = AirstrikeItems.getWeapon(weaponName);
@@ -82,6 +147,90 @@ public class Beacon extends Block {
                 }
                 weapons.add(weapon);
             }
+
+            updateSentinel();
+
+            TickProfiler.end(profilerSection, pos(), profilerStart);
+        }
+
+        /**
+         * Counts enemy units in range every {@link #sentinelInterval} ticks, and strikes the beacon's target
+         * with the sentinel weapon when the count reaches the threshold.
+         * <p>
+         * After a strike, the sentinel only re-arms once the count dropped below half the threshold,
+         * so it doesn't keep striking a group that barely stays above it.
+         * Only the server strikes, clients see the strike through {@link StrikeSync}.
+         */
+        public void updateSentinel() {
+            if (sentinelThreshold <= 0 || sentinelWeapon == null || Vars.net.client()) {
+                return;
+            }
+            if (sentinelTimer < 0f) {
+                sentinelTimer = id % sentinelInterval;
+            }
+            sentinelTimer -= Time.delta;
+            if (sentinelTimer > 0f) {
+                return;
+            }
+            sentinelTimer += sentinelInterval;
+
+            // Range queries on the enemy teams' unit trees, cheap when nothing is nearby
+            float range = sentinelRange * Vars.tilesize;
+            sentinelCount = 0;
+            Units.nearbyEnemies(team, x - range, y - range, range * 2f, range * 2f, unit -> {
+                if (unit.within(this, range)) {
+                    sentinelCount++;
+                }
+            });
+
+            if (!sentinelArmed) {
+                sentinelArmed = sentinelCount * 2 < sentinelThreshold;
+                return;
+            }
+            if (sentinelCount >= sentinelThreshold && OrbitalData.getCurrentOrbitalWeaponCount(team, sentinelWeapon.name) > 0) {
+                sentinelArmed = false;
+                StrikeSync.handleRequest(team, pos(), sentinelWeapon.id, strikeTarget(sentinelWeapon).pos());
+            }
+        }
+
+        private void configureSentinel(int threshold, Label label) {
+            if (selected < weapons.size()) {
+                configure(weapons.get(selected));
+            }
+            configure(Math.max(threshold, 0));
+            label.setText(sentinelText(Math.max(threshold, 0)));
+        }
+
+        private String sentinelText() {
+            return sentinelText(sentinelThreshold);
+        }
+
+        private String sentinelText(int threshold) {
+            return threshold <= 0 ? Core.bundle.get("label.sentinel-off") : Core.bundle.format("label.sentinel", threshold);
+        }
+
+        @Override
+        public byte version() {
+            return 1;
+        }
+
+        @Override
+        public void write(Writes write) {
+            super.write(write);
+            write.i(sentinelThreshold);
+            write.s(sentinelWeapon == null ? -1 : sentinelWeapon.id);
+        }
+
+        @Override
+        public void read(Reads read, byte revision) {
+            super.read(read, revision);
+            // Beacons saved before sentinel mode have no sentinel settings
+            if (revision >= 1) {
+                sentinelThreshold = read.i();
+                short weaponId = read.s();
+                Item item = weaponId < 0 ? null : Vars.content.item(weaponId);
+                sentinelWeapon = item instanceof AirstrikeWeapon ? (AirstrikeWeapon) item : null;
+            }
         }
 
         @Override
@@ -134,6 +283,20 @@ public class Beacon extends Block {
             // Add the ScrollPane to the main table
             table.add(scrollPane).size(200f, 150f).row();
 
+            // Sentinel threshold, the selected weapon becomes the sentinel weapon when the threshold is changed
+            Table sentinelTable = new Table();
+            sentinelTable.background(Styles.black6);
+            Label sentinelLabel = new Label(sentinelText(), Styles.defaultLabel);
+            sentinelLabel.setAlignment(Align.center);
+            Button lessButton = new TextButton("-", Styles.defaultt);
+            Button moreButton = new TextButton("+", Styles.defaultt);
+            lessButton.clicked(() -> configureSentinel(sentinelThreshold - 1, sentinelLabel));
+            moreButton.clicked(() -> configureSentinel(sentinelThreshold + 1, sentinelLabel));
+            sentinelTable.add(lessButton).size(40f, 50f);
+            sentinelTable.add(sentinelLabel).size(120f, 50f);
+            sentinelTable.add(moreButton).size(40f, 50f);
+            table.add(sentinelTable).row();
+
             // Create a Table to hold the "call" button
             Table buttonTable = new Table();
             // Create the "call" button
@@ -1,9 +1,12 @@
 package airstrike.blocks;
 
 import airstrike.OrbitalData;
+import airstrike.SatelliteOrbits;
 import airstrike.content.AirstrikePal;
 import airstrike.items.AirstrikeWeapon;
 import airstrike.items.SatelliteItem;
+import airstrike.metrics.AirstrikeMetrics;
+import airstrike.metrics.TickProfiler;
 import arc.*;
 import arc.graphics.Color;
 import arc.math.*;
@@ -29,9 +32,12 @@ import mindustry.world.modules.ItemModule;
 import java.util.LinkedList;
 
 public class Launcher extends LaunchPad {
+    // Tick profiler section of this block type
+    public final int profilerSection;
 
     public Launcher(String name) {
         super(name);
+        profilerSection = TickProfiler.section(name);
         this.configurable = false;
         this.itemCapacity = 9999;
         this.acceptsItems = true;
@@ -82,6 +88,7 @@ public class Launcher extends LaunchPad {
 
         @Override
         public void updateTile() {
+            long profilerStart = TickProfiler.begin(profilerSection);
 
             // Update custom item managers
             weapons.clear();
@@ -110,10 +117,17 @@ public class Launcher extends LaunchPad {
 
             // Increment launchCounter and launch when contents are ready and power is available
             if ((launchCounter += edelta()) >= launchTime && satellite != null && power.status >= 1f) {
-                // Add weapons to orbital data
+                AirstrikeMetrics.launches.increment();
+                AirstrikeMetrics.launchWeapons.record(weapons.size());
+                if (AirstrikeMetrics.enabled) {
+                    AirstrikeMetrics.launchVolume.record((long) usedVolume());
+                }
+                // Add weapons to orbital data of this building's team
                 for (AirstrikeWeapon weapon : weapons) {
-                    OrbitalData.addOrbitalWeapon(weapon);
+                    OrbitalData.addOrbitalWeapon(team, weapon);
                 }
+                // The satellite stays in orbit, rising above the launcher
+                SatelliteOrbits.launch(team, satellite, tile.x);
                 // Consume weapons & satellite
                 weapons.clear();
                 satellite = null;
@@ -135,6 +149,8 @@ public class Launcher extends LaunchPad {
 
                 launchCounter = 0f;
             }
+
+            TickProfiler.end(profilerSection, pos(), profilerStart);
         }
 
         @Override
@@ -1,7 +1,7 @@
 package airstrike.blocks;
 
-import airstrike.OrbitalData;
 import airstrike.items.AirstrikeWeapon;
+import airstrike.targeting.ThreatHeatmap;
 import arc.Core;
 import arc.graphics.Color;
 import arc.scene.event.Touchable;
@@ -10,15 +10,18 @@ import arc.scene.ui.layout.Cell;
 import arc.scene.ui.layout.Table;
 import arc.struct.Seq;
 import arc.util.Align;
-import arc.util.Log;
 import mindustry.Vars;
+import mindustry.entities.Units;
 import mindustry.game.Team;
 import mindustry.gen.Building;
+import mindustry.gen.Unit;
 import mindustry.ui.Styles;
 import mindustry.world.Tile;
 
 public class OrbitalController extends Beacon {
     public Tile target;
+    // Radius in tiles around the target in which a unit to track is searched
+    public float trackRange = 8f;
 
     public OrbitalController(String name) {
         super(name);
@@ -26,6 +29,10 @@ public class OrbitalController extends Beacon {
     }
 
     public class OrbitalControllerBuild extends BeaconBuild {
+        // Whether strikes are aimed at the densest enemy area instead of the entered coordinates
+        public boolean autoTarget = false;
+        // Whether strikes follow the enemy unit closest to the target until impact
+        public boolean trackUnits = false;
 
         @Override
         public Building init(Tile tile, Team team, boolean shouldAdd, int rotation) {
@@ -35,18 +42,23 @@ public class OrbitalController extends Beacon {
         }
 
         @Override
-        public void call() {
-            if (selected < weapons.size()) {
-                AirstrikeWeapon selectedWeapon = weapons.get(selected);
-                if (OrbitalData.removeOrbitalWeapon(selectedWeapon)) {
-                    deselect();
-                    selected = 0; // Reset selection, in case block is not destroyed
-                    selectedWeapon.impact(target, impactDelay);
-                } else {
-                    // Should be impossible, only weapons in orbit are displayed
-                    Log.err("Selected weapon not in orbit");
+        public Tile strikeTarget(AirstrikeWeapon weapon) {
+            if (autoTarget) {
+                // Aim where the weapon's blast hits the most enemy value, if there are any enemies
+                Tile best = ThreatHeatmap.bestTarget(team, weapon.targetRadius);
+                if (best != null) {
+                    return best;
                 }
             }
+            return target;
+        }
+
+        @Override
+        public Unit strikeUnit(AirstrikeWeapon weapon, Tile aim) {
+            if (!trackUnits) {
+                return null;
+            }
+            return Units.closestEnemy(team, aim.worldx(), aim.worldy(), trackRange * Vars.tilesize, unit -> true);
         }
 
         @Override
@@ -132,6 +144,18 @@ public class OrbitalController extends Beacon {
             // Add to main table
             table.add(targetTable).row();
 
+            // Toggle for automatic targeting, which ignores the coordinates while enabled
+            TextButton autoTargetButton = new TextButton(Core.bundle.get("button.auto-target"), Styles.togglet);
+            autoTargetButton.setChecked(autoTarget);
+            autoTargetButton.clicked(() -> autoTarget = !autoTarget);
+            table.add(autoTargetButton).size(200f, 50f).row();
+
+            // Toggle for strikes that follow the closest enemy unit to the target
+            TextButton trackUnitsButton = new TextButton(Core.bundle.get("button.track-units"), Styles.togglet);
+            trackUnitsButton.setChecked(trackUnits);
+            trackUnitsButton.clicked(() -> trackUnits = !trackUnits);
+            table.add(trackUnitsButton).size(200f, 50f).row();
+
             // Create a Table to hold the "call" button
             Table buttonTable = new Table();
             // Create the "call" button
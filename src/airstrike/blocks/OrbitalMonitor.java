@@ -1,6 +1,5 @@
 package airstrike.blocks;
 
-import airstrike.AirstrikeUtils;
 import airstrike.OrbitalData;
 import airstrike.items.AirstrikeWeapon;
 import airstrike.content.AirstrikeItems;
@@ -44,15 +43,8 @@ public class OrbitalMonitor extends Block {
             weaponsTable.center().top();
             weaponsTable.background(Styles.black6);
 
-            // Retrieve the available airstrike weapons
-            LinkedList<String> weapons = OrbitalData.getOrbitalWeapons();
-            if (weapons == null) {
-                // Handle case where location is not in data
-                // Bug finding credit: BlueTheCube
-                Log.err("Location " + AirstrikeUtils.getLocation() + " not in orbital data, trying to correct data...");
-                OrbitalData.correctOrbitalData();
-                weapons = new LinkedList<>();
-            }
+            // Retrieve the available airstrike weapons of this building's team
+            LinkedList<String> weapons = OrbitalData.getOrbitalWeapons(team);
             // Iterate through the weapons and add them to the weaponsTable
             for (String weaponName : weapons) {
                 AirstrikeWeapon weapon = AirstrikeItems.getWeapon(weaponName);
@@ -24,6 +24,7 @@ public class AirstrikeBlocks {
     public static Block largeSatelliteAssembler;
     public static Block nukeAssembler;
     public static Block precisionBombAssembler;
+    public static Block clusterBombAssembler;
 
     public static void load() {
 
@@ -140,5 +141,20 @@ public class AirstrikeBlocks {
 
             alwaysUnlocked = true;
         }};
+
+        clusterBombAssembler = new GenericCrafter("cluster-bomb-assembler") {{
+            requirements(Category.effect, BuildVisibility.shown, with(Items.copper, 40, Items.lead, 30, Items.silicon, 40, Items.titanium, 30, Items.plastanium, 10));
+            size = 1;
+            ambientSound = Sounds.machine;
+            ambientSoundVolume = 0.1f;
+            craftTime = 240f;
+            itemCapacity = 60;
+
+            consumeItems(with(Items.titanium, 20, Items.blastCompound, 40, Items.plastanium, 10));
+            consumePower(6f);
+            outputItems = with(AirstrikeItems.clusterBomb, 1);
+
+            alwaysUnlocked = true;
+        }};
     }
 }
@@ -1,10 +1,14 @@
 package airstrike.content;
 
 import airstrike.AirstrikeUtils;
+import airstrike.fallout.RadiationField;
 import airstrike.items.AirstrikeWeapon;
+import airstrike.items.ClusterWeapon;
 import airstrike.items.SatelliteItem;
 import airstrike.meta.AirstrikeStat;
+import airstrike.terrain.Craters;
 import mindustry.Vars;
+import mindustry.content.Blocks;
 import mindustry.entities.Effect;
 import mindustry.world.Tile;
 
@@ -16,24 +20,28 @@ public class AirstrikeItems {
     public static SatelliteItem largeSatellite;
     public static AirstrikeWeapon nuke;
     public static AirstrikeWeapon precisionBomb;
+    public static AirstrikeWeapon clusterBomb;
 
     public static void load() {
 
         smallSatellite = new SatelliteItem("small-satellite") {{
             alwaysUnlocked = true;
             volume = 5f;
+            orbitalPeriod = 20f;
             color = AirstrikePal.satelliteGrey;
         }};
 
         mediumSatellite = new SatelliteItem("medium-satellite") {{
             alwaysUnlocked = true;
             volume = 10f;
+            orbitalPeriod = 30f;
             color = AirstrikePal.satelliteGrey;
         }};
 
         largeSatellite = new SatelliteItem("large-satellite") {{
             alwaysUnlocked = true;
             volume = 20f;
+            orbitalPeriod = 45f;
             color = AirstrikePal.satelliteGrey;
             radioactivity = 0.1f;
         }};
@@ -45,6 +53,15 @@ public class AirstrikeItems {
             final float knockbackStrength = 100f;
             final float shakeIntensity = 500f;
             final float shakeDuration = 50f;
+            // Radius in tiles of the fallout left behind, its level at the center is the nuke's radioactivity
+            final float falloutRadius = 60f;
+            // Radius in tiles of the crater left behind
+            final float craterRadius = 30f;
+
+            {
+                targetRadius = explosionRadius;
+                interceptHealth = 1000f;
+            }
 
             @Override
             public void onImpact(Tile impactTile) {
@@ -62,6 +79,10 @@ public class AirstrikeItems {
                 AirstrikeFx.nukeExplosion(explosionRadius, explosionRadius * Vars.tilesize).at(worldx, worldy);
 
                 AirstrikeUtils.explosion(impactTile, explosionRadius, explosionDamage, knockbackStrength, shakeIntensity, shakeDuration);
+
+                Craters.stamp(impactTile, craterRadius, Blocks.charr.asFloor());
+
+                RadiationField.contaminate(impactTile, falloutRadius, radioactivity);
             }
 
             @Override
@@ -85,6 +106,15 @@ public class AirstrikeItems {
             final float knockbackStrength = 1f;
             final float shakeIntensity = 5f;
             final float shakeDuration = 10f;
+            // Radius in tiles of the crater left behind
+            final float craterRadius = 2f;
+
+            {
+                targetRadius = explosionRadius;
+                interceptHealth = 100f;
+                // The blast is barely wider than a unit, so tracked units are hit where they are heading
+                leadTime = 30f;
+            }
 
             @Override
             public void onImpact(Tile impactTile) {
@@ -102,6 +132,8 @@ public class AirstrikeItems {
                 AirstrikeFx.nukeExplosion(explosionRadius, explosionRadius * Vars.tilesize).at(worldx, worldy);
 
                 AirstrikeUtils.explosion(impactTile, explosionRadius, explosionDamage, knockbackStrength, shakeIntensity, shakeDuration);
+
+                Craters.stamp(impactTile, craterRadius, Blocks.charr.asFloor());
             }
 
             @Override
@@ -117,6 +149,22 @@ public class AirstrikeItems {
         precisionBomb.alwaysUnlocked = true;
         precisionBomb.explosiveness = 0.5f;
 
+        clusterBomb = new ClusterWeapon("cluster-bomb") {{
+            bomblets = 120;
+            spreadRadius = 12f;
+            spreadTime = 40f;
+            bombletRadius = 1.5f;
+            bombletDamage = 150f;
+            targetRadius = spreadRadius;
+            // Aim the middle of the spread at where a tracked unit will be while the bomblets land
+            leadTime = spreadTime / 2f;
+            interceptHealth = 300f;
+            volume = 4f;
+            color = AirstrikePal.clusterBombGrey;
+            alwaysUnlocked = true;
+            explosiveness = 2f;
+        }};
+
     };
 
     public static AirstrikeWeapon getWeapon(String name) {
@@ -7,7 +7,8 @@ public class AirstrikePal {
 
     satelliteGrey = Color.valueOf("#2f2f2e"),
     nukeGrey = Color.valueOf("#2f2f2a"),
-    precisionBombGrey = Color.valueOf("#2e2e2e")
+    precisionBombGrey = Color.valueOf("#2e2e2e"),
+    clusterBombGrey = Color.valueOf("#3a3a34")
 
     ;
 }
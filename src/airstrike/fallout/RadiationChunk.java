@@ -0,0 +1,96 @@
+package airstrike.fallout;
+
+import arc.util.Log;
+import mindustry.Vars;
+import mindustry.io.SaveFileReader;
+import mindustry.io.SaveVersion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Custom save chunk holding the radiation field of the world a save belongs to.
+ * <p>
+ * Only contaminated cells are written, with their level at the time of saving, so saves without fallout
+ * only grow by a few bytes. The chunk is also sent to joining clients, which draw the field.
+ * <p>
+ * The chunk starts with its format version and the length of the rest, so a chunk of an unknown version is skipped
+ * whole and doesn't misalign the save or the world stream after it. Version 1 chunks had no length.
+ */
+public class RadiationChunk implements SaveFileReader.CustomChunk {
+    // Name of the chunk in the save file
+    public static final String name = "airstrike-radiation";
+    // Format version of the chunk
+    public static final byte version = 2;
+
+    // Field read from the save being loaded, applied when loading finishes (null if the save had none)
+    private static int[] loadedCells = null;
+    private static float[] loadedLevels = null;
+    private static int loadedWidth;
+    private static int loadedHeight;
+
+    /**
+     * Registers the chunk with the save system, so it is written to and read from every save.
+     */
+    public static void register() {
+        SaveVersion.addCustomChunk(name, new RadiationChunk());
+    }
+
+    /**
+     * Replaces the radiation field with the field read from the save that was just loaded, if any.
+     * <p>
+     * The world is reset while loading a save, so this has to be called once loading has finished.
+     */
+    public static void applyLoaded() {
+        if (loadedCells == null) {
+            return;
+        }
+        RadiationField.load(loadedWidth, loadedHeight, loadedCells, loadedLevels);
+        loadedCells = null;
+        loadedLevels = null;
+    }
+
+    @Override
+    public void write(DataOutput stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RadiationField.write(new DataOutputStream(bytes));
+        stream.writeByte(version);
+        stream.writeInt(bytes.size());
+        stream.write(bytes.toByteArray());
+    }
+
+    @Override
+    public void read(DataInput stream) throws IOException {
+        byte chunkVersion = stream.readByte();
+        // Version 1 chunks have no length, but are read the same way
+        if (chunkVersion != 1) {
+            int length = stream.readInt();
+            if (chunkVersion != version) {
+                Log.err("Unknown radiation field version " + chunkVersion + " in save, ignoring it.");
+                stream.readFully(new byte[length]);
+                return;
+            }
+        }
+        loadedWidth = stream.readInt();
+        loadedHeight = stream.readInt();
+        int count = stream.readInt();
+        loadedCells = new int[count];
+        loadedLevels = new float[count];
+        for (int i = 0; i < count; i++) {
+            loadedCells[i] = stream.readInt();
+            loadedLevels[i] = stream.readFloat();
+        }
+        // Clients load the world from the network without a save load event, and the world is complete at this point
+        if (Vars.net.client()) {
+            applyLoaded();
+        }
+    }
+
+    @Override
+    public boolean writeNet() {
+        return true;
+    }
+}
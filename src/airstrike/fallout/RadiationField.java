@@ -0,0 +1,364 @@
+package airstrike.fallout;
+
+import arc.Events;
+import arc.graphics.Color;
+import arc.graphics.Pixmap;
+import arc.graphics.Texture;
+import arc.graphics.g2d.Draw;
+import arc.math.Mathf;
+import arc.util.Time;
+import mindustry.Vars;
+import mindustry.game.EventType;
+import mindustry.gen.Building;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+import mindustry.graphics.Layer;
+import mindustry.world.Tile;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Radioactive fallout left behind by nuclear strikes, damaging units and buildings until it decays.
+ * <p>
+ * The field is a dense grid with one cell per tile, stored as two primitive arrays: the level of each cell and the
+ * tick it was last written at. Decay is exponential, so the current level of a cell is computed from these two
+ * values whenever it is read, and no cell is ever updated just because time passed.
+ * <p>
+ * Damage is dealt every {@link #damageInterval} ticks by looking up the cell under each unit and building, so its
+ * cost depends on the number of entities, not on the number or area of fields. Nothing is done at all once every
+ * field has decayed below {@link #minLevel}.
+ * <p>
+ * The field is drawn from a texture with one pixel per tile, split into square regions. Only regions that were
+ * contaminated, or still hold fallout and are due for a refresh, are redrawn and uploaded.
+ */
+public class RadiationField {
+    // Ticks after which the level of a cell has halved
+    public static float halfLife = 60f * 60f;
+    // Levels below this are treated as no radiation
+    public static float minLevel = 0.01f;
+    // Ticks between damage passes
+    public static float damageInterval = 30f;
+    // Damage per second to units and buildings at a level of 1
+    public static float unitDamage = 20f;
+    public static float buildingDamage = 10f;
+    // Width and height of a render region in tiles
+    public static final int regionSize = 32;
+    // Ticks between redraws of a region that still holds fallout, to show its decay
+    public static float regionRefreshInterval = 60f;
+    // Color of the fallout overlay at a level of 1
+    public static final Color color = Color.valueOf("8aff3a");
+
+    private static int width;
+    private static int height;
+    // Level of each cell at the time of its stamp
+    private static float[] levels = new float[0];
+    // Tick each cell was last written at
+    private static float[] stamps = new float[0];
+    // Tick until which some cell is above the minimum level, 0 once everything has decayed
+    private static float activeUntil;
+    private static float damageTimer;
+
+    // Render state, only used on clients with graphics
+    private static int regionsX;
+    private static int regionsY;
+    private static boolean[] dirtyRegions = new boolean[0];
+    // Tick until which each region holds visible fallout
+    private static float[] regionActiveUntil = new float[0];
+    private static float[] regionDrawn = new float[0];
+    private static Pixmap regionPixmap;
+    private static Texture texture;
+
+    /**
+     * Registers the event hooks that reset, damage with and draw the field.
+     */
+    public static void init() {
+        Events.on(EventType.WorldLoadEvent.class, event -> reset());
+        Events.run(EventType.Trigger.update, () -> {
+            if (Vars.state.isPlaying()) {
+                update(Time.delta);
+            }
+        });
+        if (!Vars.headless) {
+            Events.run(EventType.Trigger.draw, RadiationField::draw);
+        }
+    }
+
+    /**
+     * Clears the field and resizes it to the current world.
+     * <p>
+     * Called automatically whenever a world is loaded.
+     */
+    public static void reset() {
+        width = Vars.world.width();
+        height = Vars.world.height();
+        levels = new float[width * height];
+        stamps = new float[width * height];
+        activeUntil = 0f;
+        damageTimer = 0f;
+        regionsX = Mathf.ceil(width / (float) regionSize);
+        regionsY = Mathf.ceil(height / (float) regionSize);
+        dirtyRegions = new boolean[regionsX * regionsY];
+        regionActiveUntil = new float[regionsX * regionsY];
+        regionDrawn = new float[regionsX * regionsY];
+        if (texture != null) {
+            texture.dispose();
+            texture = null;
+        }
+    }
+
+    /**
+     * Adds fallout around the given tile, falling off linearly from the center to the edge of the radius.
+     *
+     * @param center the center of the fallout
+     * @param radius the radius in tiles
+     * @param level the level added at the center
+     */
+    public static void contaminate(Tile center, float radius, float level) {
+        if (level <= 0f || radius <= 0f) {
+            return;
+        }
+        if (width != Vars.world.width() || height != Vars.world.height()) {
+            reset();
+        }
+        float now = now();
+        int r = Mathf.ceil(radius);
+        int minX = Math.max(center.x - r, 0);
+        int minY = Math.max(center.y - r, 0);
+        int maxX = Math.min(center.x + r, width - 1);
+        int maxY = Math.min(center.y + r, height - 1);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                float distance = Mathf.dst(center.x, center.y, x, y);
+                if (distance > radius) {
+                    continue;
+                }
+                int cell = x + y * width;
+                levels[cell] = decayed(cell, now) + level * (1f - distance / radius);
+                stamps[cell] = now;
+            }
+        }
+        // The center holds the highest level, so it is the last cell to decay below the minimum
+        float until = now + lifetime(level(center.x, center.y));
+        activeUntil = Math.max(activeUntil, until);
+        for (int ry = minY / regionSize; ry <= maxY / regionSize; ry++) {
+            for (int rx = minX / regionSize; rx <= maxX / regionSize; rx++) {
+                int region = rx + ry * regionsX;
+                dirtyRegions[region] = true;
+                regionActiveUntil[region] = Math.max(regionActiveUntil[region], until);
+            }
+        }
+    }
+
+    /**
+     * Returns the current level of the given tile.
+     *
+     * @param x the tile x coordinate
+     * @param y the tile y coordinate
+     * @return the level, or 0 outside the field or below the minimum level
+     */
+    public static float level(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0f;
+        }
+        float level = decayed(x + y * width, now());
+        return level < minLevel ? 0f : level;
+    }
+
+    /**
+     * Returns the current level at the given world position.
+     *
+     * @param x the world x coordinate
+     * @param y the world y coordinate
+     * @return the level, or 0 outside the field or below the minimum level
+     */
+    public static float levelAt(float x, float y) {
+        return level(Math.round(x / Vars.tilesize), Math.round(y / Vars.tilesize));
+    }
+
+    /**
+     * Returns whether any cell is above the minimum level.
+     *
+     * @return true if some fallout has not decayed yet
+     */
+    public static boolean isActive() {
+        return activeUntil > now();
+    }
+
+    /**
+     * Advances the damage timer and damages everything standing in fallout when it elapses.
+     * <p>
+     * Called automatically once per tick.
+     *
+     * @param ticks the ticks since the last update
+     */
+    public static void update(float ticks) {
+        if (activeUntil == 0f) {
+            return;
+        }
+        if (!isActive()) {
+            activeUntil = 0f;
+            return;
+        }
+        damageTimer += ticks;
+        if (damageTimer < damageInterval) {
+            return;
+        }
+        // Clients see the damage through the server's entity sync
+        if (!Vars.net.client()) {
+            applyDamage(damageTimer / 60f);
+        }
+        damageTimer = 0f;
+    }
+
+    /**
+     * Damages every unit and building by the level under it.
+     *
+     * @param seconds the seconds of exposure to apply
+     */
+    public static void applyDamage(float seconds) {
+        for (Unit unit : Groups.unit) {
+            float level = levelAt(unit.x, unit.y);
+            if (level > 0f && !unit.isFlying()) {
+                unit.damage(level * unitDamage * seconds);
+            }
+        }
+        for (Building building : Groups.build) {
+            float level = level(building.tileX(), building.tileY());
+            if (level > 0f) {
+                building.damage(level * buildingDamage * seconds);
+            }
+        }
+    }
+
+    /**
+     * Writes the current levels of all contaminated cells.
+     * <p>
+     * The format is: int width, int height, int cell count, and for each cell an int index and a float level.
+     *
+     * @param stream the output to write to
+     * @throws IOException if writing fails
+     */
+    static void write(DataOutput stream) throws IOException {
+        float now = now();
+        int count = 0;
+        if (activeUntil > now) {
+            for (int cell = 0; cell < levels.length; cell++) {
+                if (decayed(cell, now) >= minLevel) {
+                    count++;
+                }
+            }
+        }
+        stream.writeInt(width);
+        stream.writeInt(height);
+        stream.writeInt(count);
+        if (count == 0) {
+            return;
+        }
+        for (int cell = 0; cell < levels.length; cell++) {
+            float level = decayed(cell, now);
+            if (level >= minLevel) {
+                stream.writeInt(cell);
+                stream.writeFloat(level);
+            }
+        }
+    }
+
+    /**
+     * Replaces the field with levels written by {@link #write(DataOutput)}, as of the current tick.
+     *
+     * @param fieldWidth the width of the written field
+     * @param fieldHeight the height of the written field
+     * @param cells the indices of the contaminated cells
+     * @param cellLevels the levels of the contaminated cells
+     */
+    static void load(int fieldWidth, int fieldHeight, int[] cells, float[] cellLevels) {
+        reset();
+        if (fieldWidth != width || fieldHeight != height) {
+            return;
+        }
+        float now = now();
+        for (int i = 0; i < cells.length; i++) {
+            int cell = cells[i];
+            if (cell < 0 || cell >= levels.length) {
+                continue;
+            }
+            levels[cell] = cellLevels[i];
+            stamps[cell] = now;
+            float until = now + lifetime(cellLevels[i]);
+            activeUntil = Math.max(activeUntil, until);
+            int region = (cell % width) / regionSize + (cell / width) / regionSize * regionsX;
+            dirtyRegions[region] = true;
+            regionActiveUntil[region] = Math.max(regionActiveUntil[region], until);
+        }
+    }
+
+    private static float decayed(int cell, float now) {
+        float level = levels[cell];
+        if (level == 0f) {
+            return 0f;
+        }
+        return level * (float) Math.pow(2.0, -(now - stamps[cell]) / halfLife);
+    }
+
+    // Ticks until the given level decays below the minimum level
+    private static float lifetime(float level) {
+        return level <= minLevel ? 0f : halfLife * Mathf.log2(level / minLevel);
+    }
+
+    private static float now() {
+        return (float) Vars.state.tick;
+    }
+
+    private static void draw() {
+        if (width == 0 || (activeUntil == 0f && texture == null)) {
+            return;
+        }
+        if (texture == null) {
+            Pixmap pixmap = new Pixmap(width, height);
+            texture = new Texture(pixmap);
+            pixmap.dispose();
+            texture.setFilter(Texture.TextureFilter.linear);
+            regionPixmap = new Pixmap(regionSize, regionSize);
+            Arrays.fill(dirtyRegions, true);
+        }
+        float now = now();
+        for (int region = 0; region < dirtyRegions.length; region++) {
+            // Regions with fallout are redrawn as it decays, empty regions only once after they were cleared
+            boolean refresh = regionActiveUntil[region] > regionDrawn[region] && now - regionDrawn[region] >= regionRefreshInterval;
+            if (dirtyRegions[region] || refresh) {
+                drawRegion(region, now);
+            }
+        }
+        if (activeUntil == 0f) {
+            return;
+        }
+        Draw.z(Layer.scorch + 1f);
+        // The texture is stored upside down, as pixmaps start at the top
+        Draw.rect(Draw.wrap(texture), (width * Vars.tilesize) / 2f - Vars.tilesize / 2f, (height * Vars.tilesize) / 2f - Vars.tilesize / 2f,
+                width * Vars.tilesize, -height * Vars.tilesize);
+        Draw.reset();
+    }
+
+    private static void drawRegion(int region, float now) {
+        int startX = (region % regionsX) * regionSize;
+        int startY = (region / regionsX) * regionSize;
+        regionPixmap.fill(0);
+        for (int y = 0; y < regionSize && startY + y < height; y++) {
+            for (int x = 0; x < regionSize && startX + x < width; x++) {
+                float level = decayed(startX + x + (startY + y) * width, now);
+                if (level >= minLevel) {
+                    regionPixmap.setRaw(x, y, Color.rgba8888(color.r, color.g, color.b, Mathf.clamp(level) * 0.5f));
+                }
+            }
+        }
+        texture.draw(regionPixmap, startX, startY);
+        dirtyRegions[region] = false;
+        regionDrawn[region] = now;
+        // A region that has fully decayed is drawn empty one last time
+        if (regionActiveUntil[region] <= now) {
+            regionActiveUntil[region] = 0f;
+        }
+    }
+}
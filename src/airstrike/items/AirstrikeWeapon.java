@@ -1,27 +1,67 @@
 package airstrike.items;
 
 import airstrike.meta.AirstrikeStat;
+import airstrike.metrics.AirstrikeMetrics;
+import airstrike.targeting.StrikeRegistry;
+import airstrike.targeting.UnitTargets;
 import arc.util.Timer;
+import mindustry.game.Team;
 import mindustry.type.Item;
 import mindustry.world.Tile;
 
 public abstract class AirstrikeWeapon extends Item {
     public float volume;
+    // Radius in tiles that automatic targeting tries to fill with enemies
+    public float targetRadius = 0f;
+    // Ticks a tracked unit's position is led by its velocity when the strike lands
+    public float leadTime = 0f;
+    // Damage enemy defenses have to deal to shoot the weapon down before impact
+    public float interceptHealth = 200f;
     // Method for weapons to implement defining what happens on impact
     public abstract void onImpact(Tile impactTile);
 
+    // Called instead of onImpact(Tile) for strikes with an id, which is the same on the server and on every client.
+    // Weapons with random effects seed them from it, so all peers see the same impact
+    public void onImpact(int strikeId, Tile impactTile) {
+        onImpact(impactTile);
+    }
+
     public AirstrikeWeapon(String name) {
         super(name);
     }
 
     // Calls onImpact at impactTile after impactDelay
     public void impact(Tile impactTile, float impactDelay) {
+        long dispatched = AirstrikeMetrics.start();
         // Schedule the impact after the delay
         Timer.schedule(() -> {
             // Ensure thread safety
             synchronized (this) {
                 this.onImpact(impactTile);
             }
+            AirstrikeMetrics.strikes.increment();
+            AirstrikeMetrics.strikeLatency.recordSince(dispatched);
+        }, impactDelay);
+    }
+
+    // Drops the weapon as a strike of the given team that enemy defenses can shoot down, and calls onImpact after impactDelay
+    // unless it was shot down. If unitId is not -1 the strike lands at the position of that unit,
+    // or where the unit was last seen if it died or disappeared before impact
+    public void impact(int strikeId, Team team, Tile impactTile, int unitId, float impactDelay) {
+        long dispatched = AirstrikeMetrics.start();
+        StrikeRegistry.add(strikeId, team, this, impactTile, unitId, impactDelay);
+        UnitTargets.Target target = unitId >= 0 ? UnitTargets.track(unitId, impactTile) : null;
+        Timer.schedule(() -> {
+            // Unit targets are only resolved on the landing tick
+            Tile landingTile = target == null ? impactTile : UnitTargets.resolve(target, leadTime);
+            if (!StrikeRegistry.remove(strikeId) || landingTile == null) {
+                return;
+            }
+            synchronized (this) {
+                this.onImpact(strikeId, landingTile);
+            }
+            AirstrikeMetrics.strikes.increment();
+            AirstrikeMetrics.strikeLatency.recordSince(dispatched);
         }, impactDelay);
     }
 
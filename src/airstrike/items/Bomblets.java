@@ -0,0 +1,195 @@
+package airstrike.items;
+
+import airstrike.metrics.AirstrikeMetrics;
+import arc.Events;
+import arc.math.Mathf;
+import arc.struct.IntFloatMap;
+import arc.struct.IntSeq;
+import arc.struct.Seq;
+import arc.util.Time;
+import arc.util.pooling.Pool;
+import mindustry.Vars;
+import mindustry.entities.Units;
+import mindustry.game.EventType;
+import mindustry.gen.Building;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+
+/**
+ * Bomblets released by {@link ClusterWeapon}s, falling until they land.
+ * <p>
+ * Bomblets are plain pooled objects instead of bullets or entities, so a salvo of hundreds allocates nothing
+ * and costs one timer update each per tick. All bomblets landing in the same tick are exploded together:
+ * the damage every unit and building takes from them is summed first, and then dealt once per target,
+ * instead of one full {@code Damage.damage} call per bomblet.
+ */
+public class Bomblets {
+    // Bomblets that have not landed yet
+    private static final Seq<Bomblet> falling = new Seq<>(false, 256, Bomblet.class);
+    private static final Seq<Bomblet> landing = new Seq<>(false, 256, Bomblet.class);
+    private static final Pool<Bomblet> pool = new Pool<Bomblet>(256, 4096) {
+        @Override
+        protected Bomblet newObject() {
+            return new Bomblet();
+        }
+    };
+    // Damage summed per target during a batch (unit id: damage) and (building position: damage)
+    private static final IntFloatMap unitDamage = new IntFloatMap();
+    private static final IntFloatMap buildingDamage = new IntFloatMap();
+    // Buildings already hit by the current bomblet
+    private static final IntSeq hitBuildings = new IntSeq();
+
+    /**
+     * Registers the event hooks that drop and clear bomblets.
+     */
+    public static void init() {
+        Events.run(EventType.Trigger.update, () -> {
+            if (Vars.state.isPlaying()) {
+                update(Time.delta);
+            }
+        });
+        Events.on(EventType.WorldLoadEvent.class, event -> clear());
+    }
+
+    /**
+     * Releases a bomblet that lands after the given delay.
+     *
+     * @param weapon the cluster weapon the bomblet belongs to
+     * @param x the world x coordinate it lands at
+     * @param y the world y coordinate it lands at
+     * @param delay the ticks until it lands
+     */
+    public static void drop(ClusterWeapon weapon, float x, float y, float delay) {
+        Bomblet bomblet = pool.obtain();
+        bomblet.weapon = weapon;
+        bomblet.x = x;
+        bomblet.y = y;
+        bomblet.timer = delay;
+        falling.add(bomblet);
+    }
+
+    /**
+     * Advances all falling bomblets and explodes the ones that land.
+     * <p>
+     * Called automatically once per tick.
+     *
+     * @param ticks the ticks since the last update
+     */
+    public static void update(float ticks) {
+        if (falling.isEmpty()) {
+            return;
+        }
+        // Iterate backwards, as removing from the unordered seq moves the last bomblet into the removed place
+        for (int i = falling.size - 1; i >= 0; i--) {
+            Bomblet bomblet = falling.items[i];
+            bomblet.timer -= ticks;
+            if (bomblet.timer <= 0f) {
+                landing.add(bomblet);
+                falling.remove(i);
+            }
+        }
+        if (!landing.isEmpty()) {
+            land(landing);
+            pool.freeAll(landing);
+            landing.clear();
+        }
+    }
+
+    /**
+     * Removes all falling bomblets without exploding them.
+     */
+    public static void clear() {
+        pool.freeAll(falling);
+        falling.clear();
+    }
+
+    /**
+     * Returns the number of bomblets that have not landed yet.
+     *
+     * @return the number of falling bomblets
+     */
+    public static int size() {
+        return falling.size;
+    }
+
+    /**
+     * Explodes the given bomblets together, dealing the summed damage once to every target.
+     * <p>
+     * Damage falls off from the center of each bomblet like vanilla explosions, down to 40% at the edge.
+     * Armor is applied once to the summed damage of a target, not once per bomblet.
+     *
+     * @param bomblets the bomblets that landed
+     */
+    static void land(Seq<Bomblet> bomblets) {
+        long start = AirstrikeMetrics.start();
+        for (int i = 0; i < bomblets.size; i++) {
+            Bomblet bomblet = bomblets.items[i];
+            ClusterWeapon weapon = bomblet.weapon;
+            float radius = weapon.bombletRadius * Vars.tilesize;
+            weapon.bombletEffect.at(bomblet.x, bomblet.y);
+
+            Units.nearby(bomblet.x - radius, bomblet.y - radius, radius * 2f, radius * 2f, unit -> {
+                float distance = unit.dst(bomblet.x, bomblet.y);
+                if (distance <= radius) {
+                    unitDamage.increment(unit.id, 0f, falloff(weapon.bombletDamage, distance, radius));
+                }
+            });
+
+            // Multi-tile buildings cover several of the tiles, but are only damaged once per bomblet
+            int tileRadius = Mathf.ceil(weapon.bombletRadius);
+            int tileX = Math.round(bomblet.x / Vars.tilesize);
+            int tileY = Math.round(bomblet.y / Vars.tilesize);
+            hitBuildings.clear();
+            for (int dx = -tileRadius; dx <= tileRadius; dx++) {
+                for (int dy = -tileRadius; dy <= tileRadius; dy++) {
+                    Building building = Vars.world.build(tileX + dx, tileY + dy);
+                    if (building == null || hitBuildings.contains(building.pos())) {
+                        continue;
+                    }
+                    hitBuildings.add(building.pos());
+                    float distance = building.dst(bomblet.x, bomblet.y);
+                    if (distance <= radius + building.hitSize() / 2f) {
+                        buildingDamage.increment(building.pos(), 0f, falloff(weapon.bombletDamage, Math.min(distance, radius), radius));
+                    }
+                }
+            }
+        }
+
+        for (IntFloatMap.Entry entry : unitDamage.entries()) {
+            Unit unit = Groups.unit.getByID(entry.key);
+            if (unit != null) {
+                unit.damage(entry.value);
+            }
+        }
+        for (IntFloatMap.Entry entry : buildingDamage.entries()) {
+            Building building = Vars.world.build(entry.key);
+            if (building != null) {
+                building.damage(entry.value);
+            }
+        }
+        unitDamage.clear();
+        buildingDamage.clear();
+
+        AirstrikeMetrics.bomblets.add(bomblets.size);
+        AirstrikeMetrics.bombletBatchTime.recordSince(start);
+    }
+
+    private static float falloff(float damage, float distance, float radius) {
+        return damage * Mathf.lerp(1f - distance / radius, 1f, 0.4f);
+    }
+
+    /**
+     * A single falling bomblet.
+     */
+    static class Bomblet implements Pool.Poolable {
+        ClusterWeapon weapon;
+        float x, y;
+        // Ticks until the bomblet lands
+        float timer;
+
+        @Override
+        public void reset() {
+            weapon = null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package airstrike.items;
+
+import airstrike.meta.AirstrikeStat;
+import arc.math.Mathf;
+import arc.math.Rand;
+import arc.math.geom.Vec2;
+import mindustry.Vars;
+import mindustry.content.Fx;
+import mindustry.entities.Effect;
+import mindustry.world.Tile;
+
+/**
+ * Weapon that splits into many small bomblets over an area on impact.
+ * <p>
+ * Bomblets are not bullets: they are pooled by {@link Bomblets}, land at random times over the next
+ * {@link #spreadTime} ticks, and the damage of all bomblets landing in the same tick is dealt in one batch.
+ * <p>
+ * The scatter is seeded from the strike id and the impact tile, so the server and every client drop the same bomblets.
+ */
+public class ClusterWeapon extends AirstrikeWeapon {
+    // Number of bomblets released on impact
+    public int bomblets = 60;
+    // Radius in tiles the bomblets are scattered over
+    public float spreadRadius = 10f;
+    // Maximum ticks between the impact and the landing of a bomblet
+    public float spreadTime = 30f;
+    // Radius in tiles of the explosion of a single bomblet
+    public float bombletRadius = 1.5f;
+    public float bombletDamage = 150f;
+    // Effect shown where each bomblet lands
+    public Effect bombletEffect = Fx.blastExplosion;
+
+    private final Vec2 offset = new Vec2();
+    private final Rand rand = new Rand();
+
+    public ClusterWeapon(String name) {
+        super(name);
+    }
+
+    @Override
+    public void onImpact(Tile impactTile) {
+        scatter(impactTile, impactTile.pos());
+    }
+
+    @Override
+    public void onImpact(int strikeId, Tile impactTile) {
+        scatter(impactTile, ((long) strikeId << 32) | (impactTile.pos() & 0xffffffffL));
+    }
+
+    private void scatter(Tile impactTile, long seed) {
+        float worldx = impactTile.worldx();
+        float worldy = impactTile.worldy();
+        rand.setSeed(seed);
+        for (int i = 0; i < bomblets; i++) {
+            // Uniformly distributed over the spread area
+            offset.trns(rand.random(360f), Mathf.sqrt(rand.nextFloat()) * spreadRadius * Vars.tilesize);
+            Bomblets.drop(this, worldx + offset.x, worldy + offset.y, rand.random(spreadTime));
+        }
+    }
+
+    @Override
+    public void setStats() {
+        super.setStats();
+        stats.add(AirstrikeStat.explosionRadius, spreadRadius);
+        stats.add(AirstrikeStat.bomblets, bomblets);
+        stats.add(AirstrikeStat.explosionDamage, bombletDamage);
+    }
+}
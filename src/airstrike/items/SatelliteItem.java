@@ -2,9 +2,12 @@ package airstrike.items;
 
 import airstrike.meta.AirstrikeStat;
 import mindustry.type.Item;
+import mindustry.world.meta.StatUnit;
 
 public class SatelliteItem extends Item {
     public float volume;
+    // Seconds the satellite takes for one orbit
+    public float orbitalPeriod = 30f;
 
     public SatelliteItem(String name) {
         super(name);
@@ -19,5 +22,6 @@ public class SatelliteItem extends Item {
     public void setStats() {
         super.setStats();
         stats.add(AirstrikeStat.volume, volume);
+        stats.add(AirstrikeStat.orbitalPeriod, orbitalPeriod, StatUnit.seconds);
     }
 }
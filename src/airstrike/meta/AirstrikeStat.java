@@ -8,10 +8,12 @@ public class AirstrikeStat {
     public static final Stat
 
             volume = new Stat("volume"),
+            orbitalPeriod = new Stat("orbital-period"),
             impactDelay = new Stat("impact-delay", StatCat.function),
             explosionRadius = new Stat("explosion-radius", StatCat.function),
             explosionDamage = new Stat("explosion-damage", StatCat.function),
-            knockbackStrength = new Stat("knockback-strength", StatCat.function)
+            knockbackStrength = new Stat("knockback-strength", StatCat.function),
+            bomblets = new Stat("bomblets", StatCat.function)
 
     ;
 }
@@ -0,0 +1,244 @@
+package airstrike.metrics;
+
+import arc.files.Fi;
+import arc.util.CommandHandler;
+import arc.util.Log;
+import arc.util.Strings;
+import arc.util.Time;
+import mindustry.Vars;
+import mindustry.gen.Player;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Registry of the mod's runtime metrics.
+ * <p>
+ * Metrics are disabled by default and only record while {@link #enabled} is set,
+ * so the mod pays a single boolean check per measured operation when nobody is reading them.
+ * They can be enabled, printed and dumped as JSON with the {@code airstrike-metrics} command.
+ */
+public class AirstrikeMetrics {
+    // Whether metrics are being recorded
+    public static boolean enabled = false;
+
+    private static final LinkedHashMap<String, Counter> counters = new LinkedHashMap<>();
+    private static final LinkedHashMap<String, Histogram> histograms = new LinkedHashMap<>();
+
+    // Launcher
+    public static final Counter launches = counter("launcher.launches");
+    public static final Histogram launchWeapons = histogram("launcher.payload-weapons", "weapons");
+    public static final Histogram launchVolume = histogram("launcher.payload-volume", "volume");
+    // Orbital data persistence
+    public static final Histogram saveTime = histogram("orbital.save-time", "ns");
+    public static final Histogram saveBytes = histogram("orbital.save-bytes", "bytes");
+    public static final Histogram loadTime = histogram("orbital.load-time", "ns");
+    public static final Histogram savesScanTime = histogram("orbital.saves-scan-time", "ns");
+    public static final Histogram writeTime = histogram("orbital.background-write-time", "ns");
+    public static final Counter coalescedWrites = counter("orbital.coalesced-writes");
+    // Strikes
+    public static final Counter strikes = counter("strike.strikes");
+    public static final Histogram strikeLatency = histogram("strike.dispatch-to-impact", "ns");
+    // Explosions
+    public static final Counter explosions = counter("explosion.explosions");
+    public static final Histogram explosionTime = histogram("explosion.compute-time", "ns");
+    public static final Histogram explosionUnits = histogram("explosion.units", "units");
+    public static final Histogram explosionBuildings = histogram("explosion.buildings", "buildings");
+    // Cluster munitions
+    public static final Counter bomblets = counter("cluster.bomblets");
+    public static final Histogram bombletBatchTime = histogram("cluster.batch-time", "ns");
+    // Chain reactions
+    public static final Counter chainDetonations = counter("chain.detonations");
+    public static final Counter chainDropped = counter("chain.dropped-detonations");
+    // Craters
+    public static final Counter craterTiles = counter("terrain.crater-tiles");
+    public static final Histogram craterTime = histogram("terrain.crater-time", "ns");
+    // Remote strikes
+    public static final Counter remoteStrikes = counter("remote.queued-strikes");
+    public static final Counter remoteImpacts = counter("remote.applied-impacts");
+    public static final Histogram remoteApplyTime = histogram("remote.apply-time", "ns");
+
+    /**
+     * Creates and registers a new counter.
+     *
+     * @param name the unique name of the counter
+     * @return the new counter
+     */
+    public static Counter counter(String name) {
+        Counter counter = new Counter(name);
+        counters.put(name, counter);
+        return counter;
+    }
+
+    /**
+     * Creates and registers a new histogram.
+     *
+     * @param name the unique name of the histogram
+     * @param unit the unit of the recorded values
+     * @return the new histogram
+     */
+    public static Histogram histogram(String name, String unit) {
+        Histogram histogram = new Histogram(name, unit);
+        histograms.put(name, histogram);
+        return histogram;
+    }
+
+    /**
+     * Returns the current time for timing an operation, or 0 if metrics are disabled.
+     * <p>
+     * Pass the result to {@link Histogram#recordSince(long)} when the operation is done.
+     *
+     * @return the current time in nanoseconds, or 0
+     */
+    public static long start() {
+        return enabled ? Time.nanos() : 0;
+    }
+
+    /**
+     * Resets all counters and histograms.
+     */
+    public static void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Returns a human-readable report of all metrics, one metric per line.
+     *
+     * @return the report
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder("Airstrike metrics (" + (enabled ? "enabled" : "disabled") + ")");
+        for (Counter counter : counters.values()) {
+            report.append("\n").append(counter.name).append(": ").append(counter.get());
+        }
+        for (Histogram histogram : histograms.values()) {
+            report.append("\n").append(histogram.name).append(": ")
+                    .append("count=").append(histogram.count())
+                    .append(" mean=").append(Strings.fixed((float) histogram.mean(), 1))
+                    .append(" p50=").append(histogram.percentile(0.5))
+                    .append(" p99=").append(histogram.percentile(0.99))
+                    .append(" max=").append(histogram.max())
+                    .append(" ").append(histogram.unit);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Returns a JSON string containing all metrics.
+     * <p>
+     * The JSON string is formatted as follows:
+     * <pre>
+     * {
+     *   "enabled": true,
+     *   "counters": {"name": value, ...},
+     *   "histograms": {"name": {"unit": "ns", "count": 0, "sum": 0, "min": 0, "max": 0, "mean": 0, "p50": 0, "p90": 0, "p99": 0}, ...}
+     * }
+     * </pre>
+     *
+     * @return the JSON string representation of all metrics
+     */
+    public static String toJson() {
+        StringBuilder jsonBuilder = new StringBuilder("{");
+        jsonBuilder.append("\"enabled\":").append(enabled);
+
+        jsonBuilder.append(",\"counters\":{");
+        for (Counter counter : counters.values()) {
+            jsonBuilder.append("\"").append(counter.name).append("\":").append(counter.get()).append(",");
+        }
+        if (!counters.isEmpty()) {
+            jsonBuilder.setLength(jsonBuilder.length() - 1);
+        }
+        jsonBuilder.append("}");
+
+        jsonBuilder.append(",\"histograms\":{");
+        for (Histogram histogram : histograms.values()) {
+            jsonBuilder.append("\"").append(histogram.name).append("\":{")
+                    .append("\"unit\":\"").append(histogram.unit).append("\",")
+                    .append("\"count\":").append(histogram.count()).append(",")
+                    .append("\"sum\":").append(histogram.sum()).append(",")
+                    .append("\"min\":").append(histogram.min()).append(",")
+                    .append("\"max\":").append(histogram.max()).append(",")
+                    .append("\"mean\":").append(histogram.mean()).append(",")
+                    .append("\"p50\":").append(histogram.percentile(0.5)).append(",")
+                    .append("\"p90\":").append(histogram.percentile(0.9)).append(",")
+                    .append("\"p99\":").append(histogram.percentile(0.99))
+                    .append("},");
+        }
+        if (!histograms.isEmpty()) {
+            jsonBuilder.setLength(jsonBuilder.length() - 1);
+        }
+        jsonBuilder.append("}");
+
+        jsonBuilder.append("}");
+        return jsonBuilder.toString();
+    }
+
+    /**
+     * Writes all metrics as JSON to the given file.
+     *
+     * @param file the file to write to
+     */
+    public static void dump(Fi file) {
+        file.writeString(toJson());
+    }
+
+    /**
+     * Returns the file metrics are dumped to by the {@code airstrike-metrics dump} command.
+     *
+     * @return the dump file in the game's data directory
+     */
+    public static Fi dumpFile() {
+        return Vars.dataDirectory.child("airstrike-metrics.json");
+    }
+
+    /**
+     * Registers the {@code airstrike-metrics} server console command.
+     *
+     * @param handler the server command handler
+     */
+    public static void registerServerCommands(CommandHandler handler) {
+        handler.register("airstrike-metrics", "[on/off/reset/dump]", "Controls and prints the Airstrike mod's runtime metrics.", args -> {
+            Log.info(runCommand(args));
+        });
+    }
+
+    /**
+     * Registers the {@code airstrike-metrics} chat command, available to admins.
+     *
+     * @param handler the client command handler
+     */
+    public static void registerClientCommands(CommandHandler handler) {
+        handler.<Player>register("airstrike-metrics", "[on/off/reset/dump]", "Controls and prints the Airstrike mod's runtime metrics.", (args, player) -> {
+            if (!player.admin) {
+                player.sendMessage("[scarlet]You must be an admin to use this command.");
+                return;
+            }
+            player.sendMessage(runCommand(args));
+        });
+    }
+
+    private static String runCommand(String[] args) {
+        String action = args.length == 0 ? "" : args[0];
+        switch (action) {
+            case "on":
+                enabled = true;
+                return "Airstrike metrics enabled.";
+            case "off":
+                enabled = false;
+                return "Airstrike metrics disabled.";
+            case "reset":
+                reset();
+                return "Airstrike metrics reset.";
+            case "dump":
+                Fi file = dumpFile();
+                dump(file);
+                return "Airstrike metrics written to " + file.absolutePath();
+            default:
+                return report();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package airstrike.metrics;
+
+/**
+ * A named counter, only counting while {@link AirstrikeMetrics#enabled} is set.
+ */
+public class Counter {
+    public final String name;
+    private long value;
+
+    public Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Adds the given amount to the counter.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        if (AirstrikeMetrics.enabled) {
+            value += amount;
+        }
+    }
+
+    public long get() {
+        return value;
+    }
+
+    public void reset() {
+        value = 0;
+    }
+}
@@ -0,0 +1,110 @@
+package airstrike.metrics;
+
+import arc.util.Time;
+
+import java.util.Arrays;
+
+/**
+ * A named histogram of non-negative values, only recording while {@link AirstrikeMetrics#enabled} is set.
+ * <p>
+ * Values are sorted into power-of-two buckets, so recording is constant time and memory use is fixed.
+ * Percentiles are approximated by the upper bound of the bucket they fall into.
+ * <p>
+ * Histograms are not thread safe, values measured on other threads are recorded on the game thread.
+ */
+public class Histogram {
+    public final String name;
+    // Unit of the recorded values, used in reports (e.g. "ns", "bytes")
+    public final String unit;
+
+    // buckets[i] counts values in [2^(i-1), 2^i), bucket 0 counts zeros
+    private final long[] buckets = new long[64];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public Histogram(String name, String unit) {
+        this.name = name;
+        this.unit = unit;
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (!AirstrikeMetrics.enabled) {
+            return;
+        }
+        value = Math.max(value, 0);
+        buckets[64 - Long.numberOfLeadingZeros(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Records the time elapsed since the given start time, as returned by {@link AirstrikeMetrics#start()}.
+     * <p>
+     * Does nothing if the start time was taken while metrics were disabled.
+     *
+     * @param start the start time in nanoseconds
+     */
+    public void recordSince(long start) {
+        if (start != 0) {
+            record(Time.nanos() - start);
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    public long min() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns an approximation of the given percentile of the recorded values.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the upper bound of the bucket containing the percentile, capped at the maximum
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return i == 0 ? 0 : i == 63 ? max : Math.min(max, (1L << i) - 1);
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+}
@@ -0,0 +1,320 @@
+package airstrike.metrics;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import airstrike.items.AirstrikeWeapon;
+import airstrike.net.OrbitalSync;
+import arc.ApplicationListener;
+import arc.Core;
+import arc.files.Fi;
+import arc.util.CommandHandler;
+import arc.util.Log;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.Vars;
+import mindustry.game.Team;
+import mindustry.gen.Player;
+import mindustry.world.Tile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Optional append-only binary journal of every orbital data mutation and every strike.
+ * <p>
+ * A journal starts with a snapshot of the orbital data, followed by one record per mutation or strike,
+ * each stamped with the game tick it happened at.
+ * {@link #replay(Fi, boolean)} feeds a journal back through the {@link OrbitalData} API as fast as possible,
+ * so slow sessions can be benchmarked and replays can be checked to end in the same inventory.
+ * <p>
+ * While not recording, {@link #recordMutation} and {@link #recordStrike} are a single null check.
+ */
+public class OrbitalJournal {
+    // Identifies journal files and their format version
+    public static final int magic = 0x41534a4c;
+    public static final byte version = 1;
+    // Record types
+    public static final byte snapshotRecord = 0;
+    public static final byte mutationRecord = 1;
+    public static final byte strikeRecord = 2;
+
+    // Output of the journal being recorded, null while not recording
+    private static Writes output = null;
+    private static Fi outputFile = null;
+    private static boolean listenerAdded = false;
+
+    /**
+     * Starts recording a new journal to the given file, replacing the file if it exists.
+     * <p>
+     * The current orbital data is written as the first record. Any journal already being recorded is stopped.
+     *
+     * @param file the file to record to
+     */
+    public static void start(Fi file) {
+        stop();
+        if (!listenerAdded) {
+            // Don't lose buffered records when the game exits while recording
+            Core.app.addListener(new ApplicationListener() {
+                @Override
+                public void dispose() {
+                    stop();
+                }
+            });
+            listenerAdded = true;
+        }
+        outputFile = file;
+        output = new Writes(new DataOutputStream(new BufferedOutputStream(file.write(false), 8192)));
+        output.i(magic);
+        output.b(version);
+        output.b(snapshotRecord);
+        output.d(tick());
+        byte[] snapshot = OrbitalData.serializedOrbitalData().getBytes(StandardCharsets.UTF_8);
+        output.i(snapshot.length);
+        output.b(snapshot);
+    }
+
+    /**
+     * Stops recording and closes the journal file. Does nothing if not recording.
+     */
+    public static void stop() {
+        if (output == null) {
+            return;
+        }
+        output.close();
+        output = null;
+        outputFile = null;
+    }
+
+    /**
+     * Returns whether a journal is being recorded.
+     *
+     * @return true if recording
+     */
+    public static boolean isRecording() {
+        return output != null;
+    }
+
+    /**
+     * Records a mutation of the orbital data. Does nothing if not recording.
+     *
+     * @param kind the kind of location, either {@link OrbitalSync#planetKind} or {@link OrbitalSync#sectorKind}
+     * @param location the planet name or sector id
+     * @param team the team owning the weapons
+     * @param weapon the weapon that was added or removed
+     * @param change the number of weapons added (positive) or removed (negative)
+     */
+    public static void recordMutation(byte kind, String location, Team team, AirstrikeWeapon weapon, int change) {
+        if (output == null) {
+            return;
+        }
+        output.b(mutationRecord);
+        output.d(tick());
+        output.b(kind);
+        output.str(location);
+        output.b(team.id);
+        output.str(weapon.name);
+        output.i(change);
+    }
+
+    /**
+     * Records an accepted strike. Does nothing if not recording.
+     * <p>
+     * The weapon removed from orbit by the strike is recorded separately as a mutation.
+     *
+     * @param team the team calling the strike
+     * @param buildingPos the packed position of the calling building
+     * @param weapon the weapon striking
+     * @param targetPos the packed position of the target tile
+     * @param impactDelay the delay until impact in seconds
+     */
+    public static void recordStrike(Team team, int buildingPos, AirstrikeWeapon weapon, int targetPos, float impactDelay) {
+        if (output == null) {
+            return;
+        }
+        output.b(strikeRecord);
+        output.d(tick());
+        output.b(team.id);
+        output.i(buildingPos);
+        output.str(weapon.name);
+        output.i(targetPos);
+        output.f(impactDelay);
+    }
+
+    /**
+     * Replays a journal, replacing the current orbital data with the journal's snapshot and applying its mutations.
+     * <p>
+     * Records are applied immediately one after another, ignoring their ticks.
+     * Locations missing from the orbital data are created, as they were created by corrections in the original session.
+     * Strikes only hit if {@code strikes} is set and the target exists in the current world;
+     * they impact immediately instead of after their delay.
+     * Nothing is recorded while replaying.
+     *
+     * @param file the journal to replay
+     * @param strikes whether to perform the recorded strikes on the current world
+     * @return the number of records replayed, or -1 if the file is not a journal
+     */
+    public static int replay(Fi file, boolean strikes) {
+        // Don't journal the replay into the journal being recorded
+        Writes recording = output;
+        output = null;
+        int records = 0;
+        try (Reads input = new Reads(new DataInputStream(new BufferedInputStream(file.read(), 8192)))) {
+            if (input.i() != magic || input.b() != version) {
+                Log.err("Airstrike journal " + file.name() + " has an unknown format");
+                return -1;
+            }
+            while (true) {
+                byte type;
+                try {
+                    type = input.b();
+                } catch (RuntimeException e) {
+                    // End of the journal
+                    if (e.getCause() instanceof EOFException) {
+                        break;
+                    }
+                    throw e;
+                }
+                input.d(); // Tick, not needed for replay
+                switch (type) {
+                    case snapshotRecord:
+                        OrbitalData.deserializeOrbitalData(new String(input.b(input.i()), StandardCharsets.UTF_8));
+                        break;
+                    case mutationRecord:
+                        replayMutation(input.b(), input.str(), Team.get(input.ub()), AirstrikeItems.getWeapon(input.str()), input.i());
+                        break;
+                    case strikeRecord:
+                        replayStrike(strikes, Team.get(input.ub()), input.i(), AirstrikeItems.getWeapon(input.str()), input.i(), input.f());
+                        break;
+                    default:
+                        Log.err("Unknown record type " + type + " in Airstrike journal " + file.name());
+                        return -1;
+                }
+                records++;
+            }
+        } finally {
+            output = recording;
+        }
+        return records;
+    }
+
+    /**
+     * Replays a journal like {@link #replay(Fi, boolean)}, without strikes, and restores the orbital data afterwards.
+     * <p>
+     * Used by the {@code airstrike-journal} command, which runs in a live session: the replayed inventory is never
+     * kept, so the next save doesn't persist it, and clients are sent the restored data instead of the replay's changes.
+     *
+     * @param file the journal to replay
+     * @return the number of records replayed, or -1 if the file is not a journal
+     */
+    public static int replayDetached(Fi file) {
+        String live = OrbitalData.serializedOrbitalData();
+        try {
+            return replay(file, false);
+        } finally {
+            OrbitalData.deserializeOrbitalData(live);
+            // Drops the changes the replay queued for clients
+            OrbitalSync.broadcastSnapshot();
+        }
+    }
+
+    /**
+     * Returns the file journals are recorded to by the {@code airstrike-journal} command.
+     *
+     * @return the journal file in the game's data directory
+     */
+    public static Fi journalFile() {
+        return Vars.dataDirectory.child("airstrike-journal.bin");
+    }
+
+    /**
+     * Registers the {@code airstrike-journal} server console command.
+     *
+     * @param handler the server command handler
+     */
+    public static void registerServerCommands(CommandHandler handler) {
+        handler.register("airstrike-journal", "[start/stop/replay]", "Records or replays the Airstrike mod's orbital journal.", args -> {
+            Log.info(runCommand(args));
+        });
+    }
+
+    /**
+     * Registers the {@code airstrike-journal} chat command, available to admins.
+     *
+     * @param handler the client command handler
+     */
+    public static void registerClientCommands(CommandHandler handler) {
+        handler.<Player>register("airstrike-journal", "[start/stop/replay]", "Records or replays the Airstrike mod's orbital journal.", (args, player) -> {
+            if (!player.admin) {
+                player.sendMessage("[scarlet]You must be an admin to use this command.");
+                return;
+            }
+            player.sendMessage(runCommand(args));
+        });
+    }
+
+    private static String runCommand(String[] args) {
+        String action = args.length == 0 ? "" : args[0];
+        Fi file = journalFile();
+        switch (action) {
+            case "start":
+                start(file);
+                return "Airstrike journal recording to " + file.absolutePath();
+            case "stop":
+                stop();
+                return "Airstrike journal stopped.";
+            case "replay":
+                if (isRecording() && file.equals(outputFile)) {
+                    return "Stop recording before replaying the journal.";
+                }
+                if (!file.exists()) {
+                    return "No Airstrike journal at " + file.absolutePath();
+                }
+                long start = System.nanoTime();
+                int records = replayDetached(file);
+                return "Replayed " + records + " records in " + (System.nanoTime() - start) / 1000000 + "ms.";
+            default:
+                return "Airstrike journal is " + (isRecording() ? "recording to " + outputFile.absolutePath() : "not recording") + ".";
+        }
+    }
+
+    private static void replayMutation(byte kind, String location, Team team, AirstrikeWeapon weapon, int change) {
+        if (weapon == null) {
+            return;
+        }
+        if (kind == OrbitalSync.planetKind) {
+            OrbitalData.planetOrbitalWeapons.computeIfAbsent(location, key -> new OrbitalLocation());
+            if (change > 0) {
+                OrbitalData.addOrbitalWeaponToPlanet(location, team, weapon, change);
+            } else {
+                OrbitalData.removeOrbitalWeaponFromPlanet(location, team, weapon, -change);
+            }
+        } else {
+            OrbitalData.sectorOrbitalWeapons.computeIfAbsent(location, key -> new OrbitalLocation());
+            if (change > 0) {
+                OrbitalData.addOrbitalWeaponToSector(location, team, weapon, change);
+            } else {
+                OrbitalData.removeOrbitalWeaponFromSector(location, team, weapon, -change);
+            }
+        }
+    }
+
+    private static void replayStrike(boolean strikes, Team team, int buildingPos, AirstrikeWeapon weapon, int targetPos, float impactDelay) {
+        if (!strikes || weapon == null || Vars.world == null) {
+            return;
+        }
+        Tile target = Vars.world.tile(targetPos);
+        if (target != null) {
+            weapon.onImpact(target);
+        }
+    }
+
+    private static double tick() {
+        return Vars.state == null ? 0 : Vars.state.tick;
+    }
+}
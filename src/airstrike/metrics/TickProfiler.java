@@ -0,0 +1,208 @@
+package airstrike.metrics;
+
+import arc.math.geom.Point2;
+import arc.util.CommandHandler;
+import arc.util.Log;
+import arc.util.Strings;
+import arc.util.Time;
+import mindustry.gen.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Opt-in sampling profiler for the mod's per-tick code and event handlers.
+ * <p>
+ * Code is profiled in named sections (one per block type or event handler).
+ * Each sampled run is stored as a (section, building position, time) entry in a fixed-size ring buffer,
+ * so memory use does not grow with the number of buildings or the profiling duration.
+ * Reports aggregate the buffer by section and by building to find the top offenders.
+ * <p>
+ * While disabled, {@link #begin(int)} is a single boolean check and nothing is recorded.
+ */
+public class TickProfiler {
+    // Whether runs are being sampled
+    public static boolean enabled = false;
+    // Only one in this many runs of each section is sampled
+    public static int sampleInterval = 1;
+    // Number of samples kept, older samples are overwritten
+    public static final int capacity = 8192;
+    // Position used for sections that don't belong to a building
+    public static final int noPosition = -1;
+
+    private static final ArrayList<String> sectionNames = new ArrayList<>();
+    private static long[] sectionRuns = new long[0];
+
+    // Ring buffer of samples, stored as parallel arrays
+    private static final int[] sampleSections = new int[capacity];
+    private static final int[] samplePositions = new int[capacity];
+    private static final long[] sampleNanos = new long[capacity];
+    private static int head;
+    private static int size;
+
+    /**
+     * Registers a new profiled section.
+     *
+     * @param name the name of the section, shown in reports
+     * @return the id of the section, passed to {@link #begin(int)} and {@link #end(int, int, long)}
+     */
+    public static int section(String name) {
+        sectionNames.add(name);
+        sectionRuns = Arrays.copyOf(sectionRuns, sectionNames.size());
+        return sectionNames.size() - 1;
+    }
+
+    /**
+     * Starts timing a run of the given section, if the profiler is enabled and the run is sampled.
+     *
+     * @param section the id of the section
+     * @return the start time in nanoseconds, or 0 if the run is not sampled
+     */
+    public static long begin(int section) {
+        if (!enabled) {
+            return 0;
+        }
+        return sectionRuns[section]++ % sampleInterval == 0 ? Time.nanos() : 0;
+    }
+
+    /**
+     * Stops timing a run started with {@link #begin(int)} and records it.
+     * <p>
+     * Does nothing if the run was not sampled.
+     *
+     * @param section the id of the section
+     * @param position the packed position of the building, or {@link #noPosition}
+     * @param start the start time returned by {@link #begin(int)}
+     */
+    public static void end(int section, int position, long start) {
+        if (start == 0) {
+            return;
+        }
+        sampleSections[head] = section;
+        samplePositions[head] = position;
+        sampleNanos[head] = Time.nanos() - start;
+        head = (head + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+    }
+
+    /**
+     * Removes all samples.
+     */
+    public static void reset() {
+        head = 0;
+        size = 0;
+        Arrays.fill(sectionRuns, 0);
+    }
+
+    /**
+     * Returns a report of the sampled sections and the top offending buildings.
+     * <p>
+     * Sections are sorted by total sampled time, buildings by the total sampled time of their section.
+     *
+     * @param top the maximum number of sections and buildings to list
+     * @return the report
+     */
+    public static String report(int top) {
+        // Aggregate per section: (runs, total, max)
+        long[][] sections = new long[sectionNames.size()][3];
+        // Aggregate per instance: (section, position) -> (runs, total, max)
+        HashMap<Long, long[]> instances = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            int section = sampleSections[i];
+            long nanos = sampleNanos[i];
+            add(sections[section], nanos);
+            if (samplePositions[i] != noPosition) {
+                long key = ((long) section << 32) | (samplePositions[i] & 0xffffffffL);
+                add(instances.computeIfAbsent(key, k -> new long[3]), nanos);
+            }
+        }
+
+        StringBuilder report = new StringBuilder("Airstrike tick profiler (" + (enabled ? "enabled" : "disabled") + ", " + size + " samples, 1 in " + sampleInterval + ")");
+        report.append("\nTop sections by total time:");
+        Integer[] sectionOrder = new Integer[sections.length];
+        for (int i = 0; i < sectionOrder.length; i++) {
+            sectionOrder[i] = i;
+        }
+        Arrays.sort(sectionOrder, (a, b) -> Long.compare(sections[b][1], sections[a][1]));
+        for (int i = 0; i < Math.min(top, sectionOrder.length); i++) {
+            long[] stats = sections[sectionOrder[i]];
+            if (stats[0] == 0) {
+                break;
+            }
+            report.append("\n  ").append(sectionNames.get(sectionOrder[i])).append(": ").append(format(stats));
+        }
+
+        report.append("\nTop buildings by total time:");
+        ArrayList<Long> instanceOrder = new ArrayList<>(instances.keySet());
+        instanceOrder.sort((a, b) -> Long.compare(instances.get(b)[1], instances.get(a)[1]));
+        for (int i = 0; i < Math.min(top, instanceOrder.size()); i++) {
+            long key = instanceOrder.get(i);
+            int position = (int) key;
+            report.append("\n  ").append(sectionNames.get((int) (key >>> 32)))
+                    .append(" at (").append(Point2.x(position)).append(", ").append(Point2.y(position)).append("): ")
+                    .append(format(instances.get(key)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Registers the {@code airstrike-profiler} server console command.
+     *
+     * @param handler the server command handler
+     */
+    public static void registerServerCommands(CommandHandler handler) {
+        handler.register("airstrike-profiler", "[on/off/reset/top/sample] [count]", "Controls and prints the Airstrike mod's tick profiler.", args -> {
+            Log.info(runCommand(args));
+        });
+    }
+
+    /**
+     * Registers the {@code airstrike-profiler} chat command, available to admins.
+     *
+     * @param handler the client command handler
+     */
+    public static void registerClientCommands(CommandHandler handler) {
+        handler.<Player>register("airstrike-profiler", "[on/off/reset/top/sample] [count]", "Controls and prints the Airstrike mod's tick profiler.", (args, player) -> {
+            if (!player.admin) {
+                player.sendMessage("[scarlet]You must be an admin to use this command.");
+                return;
+            }
+            player.sendMessage(runCommand(args));
+        });
+    }
+
+    private static String runCommand(String[] args) {
+        String action = args.length == 0 ? "" : args[0];
+        int count = args.length > 1 && Strings.canParsePositiveInt(args[1]) ? Strings.parseInt(args[1]) : 10;
+        switch (action) {
+            case "on":
+                enabled = true;
+                return "Airstrike tick profiler enabled.";
+            case "off":
+                enabled = false;
+                return "Airstrike tick profiler disabled.";
+            case "reset":
+                reset();
+                return "Airstrike tick profiler reset.";
+            case "sample":
+                sampleInterval = count;
+                return "Airstrike tick profiler samples 1 in " + sampleInterval + " runs.";
+            default:
+                return report(count);
+        }
+    }
+
+    private static void add(long[] stats, long nanos) {
+        stats[0]++;
+        stats[1] += nanos;
+        stats[2] = Math.max(stats[2], nanos);
+    }
+
+    private static String format(long[] stats) {
+        return "runs=" + stats[0]
+                + " total=" + Strings.fixed(stats[1] / 1e6f, 3) + "ms"
+                + " mean=" + Strings.fixed(stats[1] / (float) stats[0] / 1e3f, 2) + "us"
+                + " max=" + Strings.fixed(stats[2] / 1e3f, 2) + "us";
+    }
+}
@@ -0,0 +1,135 @@
+package airstrike.net;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.items.AirstrikeWeapon;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.Vars;
+import mindustry.game.Team;
+import mindustry.net.Packet;
+import mindustry.type.Item;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Changes in the server's orbital data during one frame.
+ * <p>
+ * Each entry is a (location, team-id, weapon-id, count change) tuple, grouped by location.
+ */
+public class OrbitalDeltaPacket extends Packet {
+    // Changes per planet and per sector (location: ((team-id, weapon-id): change))
+    public HashMap<String, HashMap<Integer, Integer>> planets = new HashMap<>();
+    public HashMap<String, HashMap<Integer, Integer>> sectors = new HashMap<>();
+
+    /**
+     * Creates a delta packet from the given pending changes.
+     * <p>
+     * Changes that cancelled out during the frame are left out.
+     *
+     * @param planetChanges the changes per planet
+     * @param sectorChanges the changes per sector
+     * @return a packet containing a copy of the non-zero changes
+     */
+    public static OrbitalDeltaPacket create(HashMap<String, HashMap<Integer, Integer>> planetChanges, HashMap<String, HashMap<Integer, Integer>> sectorChanges) {
+        OrbitalDeltaPacket packet = new OrbitalDeltaPacket();
+        copyNonZero(planetChanges, packet.planets);
+        copyNonZero(sectorChanges, packet.sectors);
+        return packet;
+    }
+
+    /**
+     * Returns the number of (location, team, weapon) changes in this packet.
+     *
+     * @return the number of changes
+     */
+    public int size() {
+        int size = 0;
+        for (HashMap<Integer, Integer> changes : planets.values()) {
+            size += changes.size();
+        }
+        for (HashMap<Integer, Integer> changes : sectors.values()) {
+            size += changes.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void write(Writes write) {
+        OrbitalSync.writeCounts(write, planets);
+        OrbitalSync.writeCounts(write, sectors);
+    }
+
+    @Override
+    public void read(Reads read) {
+        planets = OrbitalSync.readCounts(read);
+        sectors = OrbitalSync.readCounts(read);
+    }
+
+    @Override
+    public void handleClient() {
+        apply(OrbitalData.planetOrbitalWeapons, OrbitalData.sectorOrbitalWeapons);
+        notifyChanges(planets);
+        notifyChanges(sectors);
+    }
+
+    /**
+     * Applies the changes of this packet to the given maps.
+     * <p>
+     * The maps are passed explicitly, so a server and a client mirror can live in the same process.
+     *
+     * @param planetData the planet orbital data to change
+     * @param sectorData the sector orbital data to change
+     */
+    public void apply(HashMap<String, OrbitalLocation> planetData, HashMap<String, OrbitalLocation> sectorData) {
+        applyChanges(planets, planetData);
+        applyChanges(sectors, sectorData);
+    }
+
+    private static void applyChanges(HashMap<String, HashMap<Integer, Integer>> changes, HashMap<String, OrbitalLocation> data) {
+        for (Map.Entry<String, HashMap<Integer, Integer>> entry : changes.entrySet()) {
+            OrbitalLocation location = data.computeIfAbsent(entry.getKey(), key -> new OrbitalLocation());
+            for (Map.Entry<Integer, Integer> weapon : entry.getValue().entrySet()) {
+                String weaponName = OrbitalSync.weaponName(OrbitalSync.keyWeapon(weapon.getKey()));
+                if (weaponName == null) {
+                    continue;
+                }
+                LinkedList<String> orbitalWeapons = location.get(Team.get(OrbitalSync.keyTeam(weapon.getKey())));
+                int change = weapon.getValue();
+                for (int i = 0; i < change; i++) {
+                    orbitalWeapons.add(weaponName);
+                }
+                for (int i = 0; i < -change; i++) {
+                    orbitalWeapons.remove(weaponName);
+                }
+            }
+        }
+    }
+
+    private static void notifyChanges(HashMap<String, HashMap<Integer, Integer>> changes) {
+        for (Map.Entry<String, HashMap<Integer, Integer>> entry : changes.entrySet()) {
+            for (Map.Entry<Integer, Integer> weapon : entry.getValue().entrySet()) {
+                Item item = Vars.content.item(OrbitalSync.keyWeapon(weapon.getKey()));
+                if (item instanceof AirstrikeWeapon) {
+                    OrbitalData.notifyChanged(entry.getKey(), Team.get(OrbitalSync.keyTeam(weapon.getKey())), (AirstrikeWeapon) item, weapon.getValue());
+                }
+            }
+        }
+    }
+
+    private static void copyNonZero(HashMap<String, HashMap<Integer, Integer>> from, HashMap<String, HashMap<Integer, Integer>> to) {
+        for (Map.Entry<String, HashMap<Integer, Integer>> entry : from.entrySet()) {
+            HashMap<Integer, Integer> changes = new HashMap<>();
+            for (Map.Entry<Integer, Integer> weapon : entry.getValue().entrySet()) {
+                if (weapon.getValue() != 0) {
+                    changes.put(weapon.getKey(), weapon.getValue());
+                }
+            }
+            if (!changes.isEmpty()) {
+                to.put(entry.getKey(), changes);
+            }
+        }
+    }
+}
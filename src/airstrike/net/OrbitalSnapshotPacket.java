@@ -0,0 +1,114 @@
+package airstrike.net;
+
+import airstrike.AirstrikeUtils;
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.Vars;
+import mindustry.game.Team;
+import mindustry.net.Packet;
+import mindustry.type.Item;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Full copy of the server's orbital data, sent to players when they join.
+ * <p>
+ * Weapons are sent as ((team-id, weapon-id): count) per location instead of one name per weapon.
+ */
+public class OrbitalSnapshotPacket extends Packet {
+    // Location the server is currently at
+    public String location = "";
+    // Weapon counts per planet and per sector (location: ((team-id, weapon-id): count))
+    public HashMap<String, HashMap<Integer, Integer>> planets = new HashMap<>();
+    public HashMap<String, HashMap<Integer, Integer>> sectors = new HashMap<>();
+
+    /**
+     * Creates a snapshot of the current orbital data.
+     *
+     * @return a packet containing the current orbital data
+     */
+    public static OrbitalSnapshotPacket create() {
+        OrbitalSnapshotPacket packet = new OrbitalSnapshotPacket();
+        packet.location = AirstrikeUtils.getLocation();
+        packet.planets = count(OrbitalData.planetOrbitalWeapons);
+        packet.sectors = count(OrbitalData.sectorOrbitalWeapons);
+        return packet;
+    }
+
+    @Override
+    public void write(Writes write) {
+        write.str(location);
+        OrbitalSync.writeCounts(write, planets);
+        OrbitalSync.writeCounts(write, sectors);
+    }
+
+    @Override
+    public void read(Reads read) {
+        location = read.str();
+        planets = OrbitalSync.readCounts(read);
+        sectors = OrbitalSync.readCounts(read);
+    }
+
+    @Override
+    public void handleClient() {
+        OrbitalSync.serverLocation = location;
+        apply(OrbitalData.planetOrbitalWeapons, OrbitalData.sectorOrbitalWeapons);
+        OrbitalData.notifyReloaded();
+    }
+
+    /**
+     * Replaces the contents of the given maps with the contents of this snapshot.
+     * <p>
+     * The maps are passed explicitly, so a server and a client mirror can live in the same process.
+     *
+     * @param planetData the planet orbital data to replace
+     * @param sectorData the sector orbital data to replace
+     */
+    public void apply(HashMap<String, OrbitalLocation> planetData, HashMap<String, OrbitalLocation> sectorData) {
+        expand(planets, planetData);
+        expand(sectors, sectorData);
+    }
+
+    private static HashMap<String, HashMap<Integer, Integer>> count(HashMap<String, OrbitalLocation> data) {
+        HashMap<String, HashMap<Integer, Integer>> counts = new HashMap<>();
+        for (Map.Entry<String, OrbitalLocation> entry : data.entrySet()) {
+            HashMap<Integer, Integer> weaponCounts = new HashMap<>();
+            LinkedList<String>[] teams = entry.getValue().teams;
+            for (int teamId = 0; teamId < teams.length; teamId++) {
+                if (teams[teamId] == null) {
+                    continue;
+                }
+                for (String weaponName : teams[teamId]) {
+                    Item item = Vars.content.item(weaponName);
+                    if (item != null) {
+                        weaponCounts.merge(OrbitalSync.packKey(teamId, item.id), 1, Integer::sum);
+                    }
+                }
+            }
+            counts.put(entry.getKey(), weaponCounts);
+        }
+        return counts;
+    }
+
+    private static void expand(HashMap<String, HashMap<Integer, Integer>> counts, HashMap<String, OrbitalLocation> data) {
+        data.clear();
+        for (Map.Entry<String, HashMap<Integer, Integer>> entry : counts.entrySet()) {
+            OrbitalLocation location = new OrbitalLocation();
+            for (Map.Entry<Integer, Integer> weapon : entry.getValue().entrySet()) {
+                String weaponName = OrbitalSync.weaponName(OrbitalSync.keyWeapon(weapon.getKey()));
+                if (weaponName == null) {
+                    continue;
+                }
+                LinkedList<String> orbitalWeapons = location.get(Team.get(OrbitalSync.keyTeam(weapon.getKey())));
+                for (int i = 0; i < weapon.getValue(); i++) {
+                    orbitalWeapons.add(weaponName);
+                }
+            }
+            data.put(entry.getKey(), location);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package airstrike.net;
+
+import airstrike.OrbitalData;
+import airstrike.items.AirstrikeWeapon;
+import arc.Events;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.Vars;
+import mindustry.game.EventType;
+import mindustry.game.Team;
+import mindustry.net.Net;
+import mindustry.type.Item;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class OrbitalSync {
+    // Location kinds, matching the two maps in OrbitalData
+    public static final byte planetKind = 0;
+    public static final byte sectorKind = 1;
+
+    // Location reported by the server, used by clients instead of their own saves
+    // (null when not connected, cleared by restoreLocalData() once the connection is gone)
+    public static String serverLocation = null;
+
+    // Changes made during the current frame, flushed as one delta packet (location: ((team-id, weapon-id): change))
+    private static final HashMap<String, HashMap<Integer, Integer>> pendingPlanets = new HashMap<>();
+    private static final HashMap<String, HashMap<Integer, Integer>> pendingSectors = new HashMap<>();
+
+    /**
+     * Registers the orbital packets and the event hooks that keep clients in sync with the server.
+     * <p>
+     * Packets need to be registered in the same order on every machine, so this has to be called from mod init.
+     */
+    public static void init() {
+        Net.registerPacket(OrbitalSnapshotPacket::new);
+        Net.registerPacket(OrbitalDeltaPacket::new);
+
+        // Send the full orbital data to every player that joins
+        Events.on(EventType.PlayerJoin.class, event -> {
+            if (Vars.net.server() && event.player.con != null) {
+                // Send pending changes to the other players first, the snapshot already contains them
+                flush();
+                event.player.con.send(OrbitalSnapshotPacket.create(), true);
+            }
+        });
+        // Send the changes of each frame as a single packet
+        Events.run(EventType.Trigger.update, OrbitalSync::flush);
+        // The mirror replaced the local data, bring it back once the client left the server
+        Events.run(EventType.Trigger.update, OrbitalSync::restoreLocalData);
+        Events.on(EventType.ResetEvent.class, event -> restoreLocalData());
+    }
+
+    /**
+     * Replaces the mirror of the server's orbital data with the local orbital data, if this machine was a client
+     * of a server and no longer is.
+     * <p>
+     * Snapshots are applied to the same maps the local data lives in, so without this the server's data would be
+     * written into the local index by the next save after leaving.
+     * This method is called automatically once per frame and whenever the game is reset.
+     */
+    public static void restoreLocalData() {
+        if (serverLocation == null || isMirror()) {
+            return;
+        }
+        serverLocation = null;
+        pendingPlanets.clear();
+        pendingSectors.clear();
+        OrbitalData.loadOrbitalData();
+    }
+
+    /**
+     * Returns whether the local orbital data is a read-only mirror of the server's data.
+     * <p>
+     * This is the case for clients connected to a server.
+     * Only the server modifies the orbital data, clients apply the snapshots and deltas it sends.
+     *
+     * @return true if the orbital data must not be modified locally
+     */
+    public static boolean isMirror() {
+        return Vars.net != null && Vars.net.client();
+    }
+
+    /**
+     * Records a change in the orbital data, to be sent to all clients at the end of the frame.
+     * <p>
+     * Changes of the same weapon of the same team at the same location are merged, so only the net change is sent.
+     * Does nothing if this machine is not a server.
+     *
+     * @param kind the kind of location, either {@link #planetKind} or {@link #sectorKind}
+     * @param location the planet name or sector id
+     * @param team the team owning the weapons
+     * @param weapon the weapon that was added or removed
+     * @param change the number of weapons added (positive) or removed (negative)
+     */
+    public static void recordChange(byte kind, String location, Team team, AirstrikeWeapon weapon, int change) {
+        if (Vars.net == null || !Vars.net.server() || change == 0) {
+            return;
+        }
+        HashMap<String, HashMap<Integer, Integer>> pending = kind == planetKind ? pendingPlanets : pendingSectors;
+        pending.computeIfAbsent(location, key -> new HashMap<>()).merge(packKey(team.id, weapon.id), change, Integer::sum);
+    }
+
+    /**
+     * Sends all changes recorded this frame to the clients as one {@link OrbitalDeltaPacket}.
+     * <p>
+     * This method is called automatically once per frame.
+     */
+    public static void flush() {
+        if (pendingPlanets.isEmpty() && pendingSectors.isEmpty()) {
+            return;
+        }
+        if (Vars.net.server()) {
+            OrbitalDeltaPacket packet = OrbitalDeltaPacket.create(pendingPlanets, pendingSectors);
+            if (packet.size() > 0) {
+                Vars.net.send(packet, true);
+            }
+        }
+        pendingPlanets.clear();
+        pendingSectors.clear();
+    }
+
+    /**
+     * Sends the full orbital data to all clients, replacing their mirror.
+     * <p>
+     * Used whenever the server replaces its data as a whole, for example when a new world is loaded.
+     * Pending deltas are dropped, as the snapshot already contains them.
+     */
+    public static void broadcastSnapshot() {
+        pendingPlanets.clear();
+        pendingSectors.clear();
+        if (Vars.net.server()) {
+            Vars.net.send(OrbitalSnapshotPacket.create(), true);
+        }
+    }
+
+    /**
+     * Packs a team id and a weapon id into a single key.
+     *
+     * @param teamId the id of the team
+     * @param weaponId the content id of the weapon
+     * @return the packed key
+     */
+    public static int packKey(int teamId, short weaponId) {
+        return (teamId << 16) | (weaponId & 0xffff);
+    }
+
+    /**
+     * Returns the team id of a key created by {@link #packKey(int, short)}.
+     *
+     * @param key the packed key
+     * @return the team id
+     */
+    public static int keyTeam(int key) {
+        return key >>> 16;
+    }
+
+    /**
+     * Returns the weapon id of a key created by {@link #packKey(int, short)}.
+     *
+     * @param key the packed key
+     * @return the content id of the weapon
+     */
+    public static short keyWeapon(int key) {
+        return (short) (key & 0xffff);
+    }
+
+    /**
+     * Writes a map of (location: ((team-id, weapon-id): count)) in the compact form shared by snapshots and deltas.
+     *
+     * @param write the output to write to
+     * @param counts the counts to write
+     */
+    static void writeCounts(Writes write, HashMap<String, HashMap<Integer, Integer>> counts) {
+        write.i(counts.size());
+        for (Map.Entry<String, HashMap<Integer, Integer>> location : counts.entrySet()) {
+            write.str(location.getKey());
+            write.s(location.getValue().size());
+            for (Map.Entry<Integer, Integer> weapon : location.getValue().entrySet()) {
+                write.b(keyTeam(weapon.getKey()));
+                write.s(keyWeapon(weapon.getKey()));
+                write.i(weapon.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a map of (location: ((team-id, weapon-id): count)) written by {@link #writeCounts(Writes, HashMap)}.
+     *
+     * @param read the input to read from
+     * @return the counts that were read
+     */
+    static HashMap<String, HashMap<Integer, Integer>> readCounts(Reads read) {
+        int locations = read.i();
+        HashMap<String, HashMap<Integer, Integer>> counts = new HashMap<>();
+        for (int i = 0; i < locations; i++) {
+            String location = read.str();
+            int weapons = read.s();
+            HashMap<Integer, Integer> weaponCounts = new HashMap<>();
+            for (int j = 0; j < weapons; j++) {
+                int teamId = read.ub();
+                short weaponId = read.s();
+                weaponCounts.put(packKey(teamId, weaponId), read.i());
+            }
+            counts.put(location, weaponCounts);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the name of the weapon with the given content id, or null if the id is not a weapon.
+     *
+     * @param id the content id of the weapon
+     * @return the name of the weapon, or null
+     */
+    static String weaponName(short id) {
+        Item item = Vars.content.item(id);
+        return item instanceof AirstrikeWeapon ? item.name : null;
+    }
+}
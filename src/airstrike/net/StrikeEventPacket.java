@@ -0,0 +1,107 @@
+package airstrike.net;
+
+import airstrike.items.AirstrikeWeapon;
+import airstrike.targeting.StrikeRegistry;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.Vars;
+import mindustry.game.Team;
+import mindustry.net.Packet;
+import mindustry.type.Item;
+import mindustry.world.Tile;
+
+import java.util.Arrays;
+
+/**
+ * Strikes accepted by the server during one frame, broadcast to all clients.
+ * <p>
+ * Each strike is stored as a (strike id, team id, weapon-id, target position, unit id, impact delay) tuple in parallel arrays.
+ * Strikes on a tile have a unit id of -1, strikes on a unit use the target position as the unit's last known position.
+ */
+public class StrikeEventPacket extends Packet {
+    public int[] ids = new int[4];
+    public byte[] teams = new byte[4];
+    public short[] weapons = new short[4];
+    public int[] targets = new int[4];
+    public int[] units = new int[4];
+    public float[] delays = new float[4];
+    private int size;
+
+    /**
+     * Adds a strike to this packet.
+     *
+     * @param id the id of the strike in the {@link StrikeRegistry}
+     * @param team the team that called the strike
+     * @param weapon the content id of the weapon
+     * @param target the packed position of the target tile
+     * @param unit the id of the target unit, or -1 to strike the target tile
+     * @param delay the impact delay in seconds
+     */
+    public void add(int id, Team team, short weapon, int target, int unit, float delay) {
+        if (size == weapons.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            teams = Arrays.copyOf(teams, size * 2);
+            weapons = Arrays.copyOf(weapons, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            units = Arrays.copyOf(units, size * 2);
+            delays = Arrays.copyOf(delays, size * 2);
+        }
+        ids[size] = id;
+        teams[size] = (byte) team.id;
+        weapons[size] = weapon;
+        targets[size] = target;
+        units[size] = unit;
+        delays[size] = delay;
+        size++;
+    }
+
+    /**
+     * Returns the number of strikes in this packet.
+     *
+     * @return the number of strikes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all strikes from this packet, so it can be reused.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public void write(Writes write) {
+        write.s(size);
+        for (int i = 0; i < size; i++) {
+            write.i(ids[i]);
+            write.b(teams[i]);
+            write.s(weapons[i]);
+            write.i(targets[i]);
+            write.i(units[i]);
+            write.f(delays[i]);
+        }
+    }
+
+    @Override
+    public void read(Reads read) {
+        clear();
+        int count = read.s();
+        for (int i = 0; i < count; i++) {
+            add(read.i(), Team.get(read.ub()), read.s(), read.i(), read.i(), read.f());
+        }
+    }
+
+    @Override
+    public void handleClient() {
+        for (int i = 0; i < size; i++) {
+            Item item = Vars.content.item(weapons[i]);
+            Tile target = Vars.world.tile(targets[i]);
+            if (!(item instanceof AirstrikeWeapon) || target == null) {
+                continue;
+            }
+            ((AirstrikeWeapon) item).impact(ids[i], Team.get(teams[i] & 0xff), target, units[i], delays[i]);
+        }
+    }
+}
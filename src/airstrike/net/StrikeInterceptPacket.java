@@ -0,0 +1,37 @@
+package airstrike.net;
+
+import airstrike.targeting.StrikeRegistry;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.net.Packet;
+
+/**
+ * Strikes shot down by enemy defenses on the server during one frame, broadcast to all clients.
+ */
+public class StrikeInterceptPacket extends Packet {
+    // Ids of the strikes in the StrikeRegistry
+    public int[] strikes = new int[0];
+
+    @Override
+    public void write(Writes write) {
+        write.s(strikes.length);
+        for (int strike : strikes) {
+            write.i(strike);
+        }
+    }
+
+    @Override
+    public void read(Reads read) {
+        strikes = new int[read.s()];
+        for (int i = 0; i < strikes.length; i++) {
+            strikes[i] = read.i();
+        }
+    }
+
+    @Override
+    public void handleClient() {
+        for (int strike : strikes) {
+            StrikeRegistry.intercepted(strike);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package airstrike.net;
+
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.net.NetConnection;
+import mindustry.net.Packet;
+
+/**
+ * Request of a client to call a strike, validated by the server.
+ */
+public class StrikeRequestPacket extends Packet {
+    // Packed position of the calling building
+    public int building;
+    // Content id of the weapon
+    public short weapon;
+    // Packed position of the target tile
+    public int target;
+    // Id of the unit to strike, or -1 to strike the target tile
+    public int unit = -1;
+
+    @Override
+    public void write(Writes write) {
+        write.i(building);
+        write.s(weapon);
+        write.i(target);
+        write.i(unit);
+    }
+
+    @Override
+    public void read(Reads read) {
+        building = read.i();
+        weapon = read.s();
+        target = read.i();
+        unit = read.i();
+    }
+
+    @Override
+    public void handleServer(NetConnection con) {
+        if (con.player == null) {
+            return;
+        }
+        StrikeSync.handleRequest(con.player.team(), building, weapon, target, unit);
+    }
+}
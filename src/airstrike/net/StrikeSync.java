@@ -0,0 +1,196 @@
+package airstrike.net;
+
+import airstrike.OrbitalData;
+import airstrike.blocks.Beacon;
+import airstrike.blocks.OrbitalController;
+import airstrike.items.AirstrikeWeapon;
+import airstrike.metrics.OrbitalJournal;
+import airstrike.targeting.StrikeRegistry;
+import arc.Events;
+import arc.struct.IntSeq;
+import arc.util.Log;
+import mindustry.Vars;
+import mindustry.game.EventType;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+import mindustry.net.Net;
+import mindustry.type.Item;
+import mindustry.world.Tile;
+
+public class StrikeSync {
+    // Strikes accepted during the current frame, broadcast as one packet
+    private static StrikeEventPacket pending = new StrikeEventPacket();
+    // Strikes shot down during the current frame
+    private static final IntSeq pendingIntercepts = new IntSeq();
+
+    /**
+     * Registers the strike packets and the hook that broadcasts accepted strikes.
+     * <p>
+     * Packets need to be registered in the same order on every machine, so this has to be called from mod init.
+     */
+    public static void init() {
+        Net.registerPacket(StrikeRequestPacket::new);
+        Net.registerPacket(StrikeEventPacket::new);
+        Net.registerPacket(StrikeInterceptPacket::new);
+
+        // Broadcast the strikes of each frame as a single packet
+        Events.run(EventType.Trigger.update, StrikeSync::flush);
+    }
+
+    /**
+     * Requests a strike of the given weapon from the given building.
+     * <p>
+     * Clients send the request to the server, which validates it and broadcasts the strike.
+     * Servers and single player games handle the request directly.
+     *
+     * @param building the beacon or orbital controller calling the strike
+     * @param weapon the weapon to strike with
+     * @param target the tile to strike
+     */
+    public static void requestStrike(Beacon.BeaconBuild building, AirstrikeWeapon weapon, Tile target) {
+        requestStrike(building, weapon, target, null);
+    }
+
+    /**
+     * Requests a strike of the given weapon from the given building, following the given unit until impact.
+     *
+     * @param building the beacon or orbital controller calling the strike
+     * @param weapon the weapon to strike with
+     * @param target the tile to strike if no unit is given
+     * @param unit the unit to strike, or null to strike the target tile
+     */
+    public static void requestStrike(Beacon.BeaconBuild building, AirstrikeWeapon weapon, Tile target, Unit unit) {
+        int unitId = unit == null ? -1 : unit.id;
+        if (Vars.net.client()) {
+            StrikeRequestPacket packet = new StrikeRequestPacket();
+            packet.building = building.pos();
+            packet.weapon = weapon.id;
+            packet.target = target.pos();
+            packet.unit = unitId;
+            Vars.net.send(packet, true);
+        } else {
+            handleRequest(building.team, building.pos(), weapon.id, target.pos(), unitId);
+        }
+    }
+
+    /**
+     * Validates a strike request and performs it if it is valid.
+     * <p>
+     * A request is valid if the building is a beacon or orbital controller of the requesting team,
+     * the target is the beacon itself (or any tile for orbital controllers),
+     * and the weapon is in orbit.
+     *
+     * @param team the team of the player requesting the strike
+     * @param buildingPos the packed position of the calling building
+     * @param weaponId the content id of the weapon
+     * @param targetPos the packed position of the target tile
+     * @return true if the strike was performed, false if the request was rejected
+     */
+    public static boolean handleRequest(Team team, int buildingPos, short weaponId, int targetPos) {
+        return handleRequest(team, buildingPos, weaponId, targetPos, -1);
+    }
+
+    /**
+     * Validates a strike request on a tile or a unit and performs it if it is valid.
+     * <p>
+     * Only orbital controllers can strike units, and only units of other teams.
+     * Strikes on a unit land wherever the unit is on impact, the target tile is replaced by the unit's current tile.
+     *
+     * @param team the team of the player requesting the strike
+     * @param buildingPos the packed position of the calling building
+     * @param weaponId the content id of the weapon
+     * @param targetPos the packed position of the target tile
+     * @param unitId the id of the target unit, or -1 to strike the target tile
+     * @return true if the strike was performed, false if the request was rejected
+     */
+    public static boolean handleRequest(Team team, int buildingPos, short weaponId, int targetPos, int unitId) {
+        Building building = Vars.world.build(buildingPos);
+        Item item = Vars.content.item(weaponId);
+        Tile target = Vars.world.tile(targetPos);
+        if (!(building instanceof Beacon.BeaconBuild) || building.team != team) {
+            Log.warn("Rejected strike request from team " + team.name + ": invalid building");
+            return false;
+        }
+        if (!(item instanceof AirstrikeWeapon) || target == null) {
+            Log.warn("Rejected strike request from team " + team.name + ": invalid weapon or target");
+            return false;
+        }
+        // Beacons can only strike their own location
+        if (!(building instanceof OrbitalController.OrbitalControllerBuild) && target != building.tile) {
+            Log.warn("Rejected strike request from team " + team.name + ": beacon target out of range");
+            return false;
+        }
+        if (unitId >= 0) {
+            Unit unit = Groups.unit.getByID(unitId);
+            if (!(building instanceof OrbitalController.OrbitalControllerBuild) || unit == null || unit.team == team || unit.tileOn() == null) {
+                Log.warn("Rejected strike request from team " + team.name + ": invalid unit");
+                return false;
+            }
+            target = unit.tileOn();
+            targetPos = target.pos();
+        }
+        AirstrikeWeapon weapon = (AirstrikeWeapon) item;
+        // Only weapons launched by the building's team can be called
+        if (!OrbitalData.removeOrbitalWeapon(building.team, weapon)) {
+            Log.err("Selected weapon not in orbit");
+            return false;
+        }
+        float impactDelay = ((Beacon) building.block).impactDelay(team, target);
+        int strikeId = StrikeRegistry.nextId();
+        if (Vars.net.server()) {
+            pending.add(strikeId, team, weaponId, targetPos, unitId, impactDelay);
+        }
+        // Strikes on units are journaled with the unit's tile at call time
+        OrbitalJournal.recordStrike(team, buildingPos, weapon, targetPos, impactDelay);
+        weapon.impact(strikeId, team, target, unitId, impactDelay);
+        return true;
+    }
+
+    /**
+     * Records a strike shot down by enemy defenses, to be sent to all clients at the end of the frame.
+     * <p>
+     * Does nothing if this machine is not a server.
+     *
+     * @param strikeId the id of the strike
+     */
+    public static void recordIntercept(int strikeId) {
+        if (Vars.net != null && Vars.net.server()) {
+            pendingIntercepts.add(strikeId);
+        }
+    }
+
+    /**
+     * Sends all strikes accepted this frame to the clients as one {@link StrikeEventPacket},
+     * followed by the strikes shot down this frame as one {@link StrikeInterceptPacket}.
+     * <p>
+     * This method is called automatically once per frame.
+     */
+    public static void flush() {
+        if (!pendingIntercepts.isEmpty()) {
+            if (Vars.net.server()) {
+                // Strikes called and shot down in the same frame have to reach the clients first
+                flushStrikes();
+                StrikeInterceptPacket packet = new StrikeInterceptPacket();
+                packet.strikes = pendingIntercepts.toArray();
+                Vars.net.send(packet, true);
+            }
+            pendingIntercepts.clear();
+        }
+        flushStrikes();
+    }
+
+    private static void flushStrikes() {
+        if (pending.size() == 0) {
+            return;
+        }
+        StrikeEventPacket packet = pending;
+        pending = new StrikeEventPacket();
+        if (Vars.net.server()) {
+            // Orbital data changes have to reach the clients before the strikes
+            OrbitalSync.flush();
+            Vars.net.send(packet, true);
+        }
+    }
+}
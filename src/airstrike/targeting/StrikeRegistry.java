@@ -0,0 +1,505 @@
+package airstrike.targeting;
+
+import airstrike.items.AirstrikeWeapon;
+import airstrike.net.StrikeSync;
+import arc.Events;
+import arc.func.Intc;
+import arc.graphics.g2d.Draw;
+import arc.math.Mathf;
+import arc.math.geom.Vec2;
+import arc.struct.IntIntMap;
+import arc.struct.IntSeq;
+import arc.util.Time;
+import mindustry.Vars;
+import mindustry.content.Fx;
+import mindustry.game.EventType;
+import mindustry.game.Team;
+import mindustry.game.Teams;
+import mindustry.gen.Building;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+import mindustry.graphics.Layer;
+import mindustry.world.Tile;
+import mindustry.world.blocks.defense.turrets.BaseTurret;
+import mindustry.world.blocks.defense.turrets.PointDefenseTurret;
+import mindustry.world.blocks.defense.turrets.Turret;
+import mindustry.world.meta.BlockFlag;
+
+import java.util.Arrays;
+
+/**
+ * Strikes that are falling towards their target, which enemy defenses can shoot down before impact.
+ * <p>
+ * Strikes are stored in parallel arrays, and each is also listed in the bucket of the grid cell above its target.
+ * Adding and removing a strike are O(1): the strike is appended to its bucket, and removed by moving the last strike
+ * into its place, both in the arrays and in its bucket. Radius queries only visit the cells overlapping the radius.
+ * <p>
+ * Strikes on a tracked unit follow it: their position is only brought up to date when it is needed, by a radius query,
+ * an interception pass or a drawn frame, and then moved to where the unit is heading (see {@link UnitTargets#aim}),
+ * so they are intercepted and drawn above the tile they will land on. Nothing is done for them on other ticks.
+ * <p>
+ * Every {@link #interceptInterval} ticks, the turrets of each team with enemy strikes in flight look for the closest
+ * enemy strike in their range and damage it. Nothing is checked while no strikes are in flight.
+ * Only the server intercepts strikes, clients are told by {@link StrikeSync}.
+ */
+public class StrikeRegistry {
+    // Width and height of a grid cell in tiles
+    public static final int cellSize = 8;
+    // Ticks between interception passes
+    public static float interceptInterval = 5f;
+    // Damage per second dealt to strikes by turrets other than point defenses
+    public static float turretInterceptDps = 60f;
+    // Height in world units strikes are drawn at when they are called, they reach the ground on impact
+    public static float dropHeight = 120f;
+
+    private static int width;
+    private static int height;
+    // Strikes in the cells of the grid, as indices into the arrays below (null for cells that never had a strike)
+    private static IntSeq[] buckets = new IntSeq[0];
+
+    // Strikes in flight, stored as parallel arrays
+    private static int[] ids = new int[16];
+    private static Team[] teams = new Team[16];
+    private static AirstrikeWeapon[] weapons = new AirstrikeWeapon[16];
+    private static float[] xs = new float[16];
+    private static float[] ys = new float[16];
+    // Id of the unit each strike follows, -1 for strikes on a fixed tile
+    private static int[] unitIds = new int[16];
+    private static float[] healths = new float[16];
+    private static long[] launchTimes = new long[16];
+    private static long[] impactTimes = new long[16];
+    private static int[] cells = new int[16];
+    // Position of each strike in its bucket
+    private static int[] bucketIndices = new int[16];
+    private static int size;
+    // Strike id: index into the arrays
+    private static final IntIntMap indices = new IntIntMap();
+    // Number of strikes in flight per team
+    private static int[] teamCounts = new int[Team.all.length];
+    // Number of strikes following a unit
+    private static int trackedCount;
+
+    private static int nextId = 1;
+    private static float interceptTimer;
+
+    /**
+     * Registers the event hooks that intercept and draw strikes in flight.
+     */
+    public static void init() {
+        Events.on(EventType.WorldLoadEvent.class, event -> reset());
+        Events.run(EventType.Trigger.update, StrikeRegistry::update);
+        if (!Vars.headless) {
+            Events.run(EventType.Trigger.draw, StrikeRegistry::draw);
+        }
+    }
+
+    /**
+     * Removes all strikes and resizes the grid to the current world.
+     * <p>
+     * Called automatically whenever a world is loaded. Strikes that were in flight never land.
+     */
+    public static void reset() {
+        width = Mathf.ceil(Vars.world.width() / (float) cellSize);
+        height = Mathf.ceil(Vars.world.height() / (float) cellSize);
+        buckets = new IntSeq[width * height];
+        indices.clear();
+        Arrays.fill(teams, null);
+        Arrays.fill(weapons, null);
+        Arrays.fill(teamCounts, 0);
+        trackedCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns a new strike id. Ids are assigned by the server and sent to clients with the strike.
+     *
+     * @return the new id
+     */
+    public static int nextId() {
+        return nextId++;
+    }
+
+    /**
+     * Adds a strike that lands on the given tile after the given delay.
+     *
+     * @param id the id of the strike, from {@link #nextId()}
+     * @param team the team that called the strike
+     * @param weapon the falling weapon
+     * @param target the tile the strike lands on
+     * @param impactDelay the delay until impact in seconds
+     */
+    public static void add(int id, Team team, AirstrikeWeapon weapon, Tile target, float impactDelay) {
+        add(id, team, weapon, target, -1, impactDelay);
+    }
+
+    /**
+     * Adds a strike that follows the given unit until it lands after the given delay.
+     *
+     * @param id the id of the strike, from {@link #nextId()}
+     * @param team the team that called the strike
+     * @param weapon the falling weapon
+     * @param target the tile the strike was called on
+     * @param unitId the id of the unit the strike follows, -1 to stay above the target
+     * @param impactDelay the delay until impact in seconds
+     */
+    public static void add(int id, Team team, AirstrikeWeapon weapon, Tile target, int unitId, float impactDelay) {
+        if (width != Mathf.ceil(Vars.world.width() / (float) cellSize) || height != Mathf.ceil(Vars.world.height() / (float) cellSize)) {
+            reset();
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        int index = size++;
+        ids[index] = id;
+        teams[index] = team;
+        weapons[index] = weapon;
+        xs[index] = target.worldx();
+        ys[index] = target.worldy();
+        unitIds[index] = unitId;
+        healths[index] = weapon.interceptHealth;
+        launchTimes[index] = Time.millis();
+        impactTimes[index] = launchTimes[index] + (long) (impactDelay * 1000f);
+        addToBucket(index, (target.x / cellSize) + (target.y / cellSize) * width);
+        indices.put(id, index);
+        teamCounts[team.id]++;
+        if (unitId >= 0) {
+            trackedCount++;
+        }
+    }
+
+    /**
+     * Removes a strike, either because it landed or because it was shot down.
+     *
+     * @param id the id of the strike
+     * @return true if the strike was still in flight, false if it was shot down or never added
+     */
+    public static boolean remove(int id) {
+        int index = indices.remove(id, -1);
+        if (index == -1) {
+            return false;
+        }
+        teamCounts[teams[index].id]--;
+        if (unitIds[index] >= 0) {
+            trackedCount--;
+        }
+        removeFromBucket(index);
+        // Move the last strike into the freed place of the arrays
+        int moved = --size;
+        if (moved != index) {
+            ids[index] = ids[moved];
+            teams[index] = teams[moved];
+            weapons[index] = weapons[moved];
+            xs[index] = xs[moved];
+            ys[index] = ys[moved];
+            unitIds[index] = unitIds[moved];
+            healths[index] = healths[moved];
+            launchTimes[index] = launchTimes[moved];
+            impactTimes[index] = impactTimes[moved];
+            cells[index] = cells[moved];
+            bucketIndices[index] = bucketIndices[moved];
+            buckets[cells[index]].set(bucketIndices[index], index);
+            indices.put(ids[index], index);
+        }
+        teams[moved] = null;
+        weapons[moved] = null;
+        return true;
+    }
+
+    /**
+     * Returns whether a strike is still in flight.
+     *
+     * @param id the id of the strike
+     * @return true if the strike has neither landed nor been shot down
+     */
+    public static boolean contains(int id) {
+        return indices.containsKey(id);
+    }
+
+    /**
+     * Damages a strike in flight, shooting it down if its health drops to zero.
+     *
+     * @param id the id of the strike
+     * @param amount the damage to deal
+     * @return true if the strike was shot down
+     */
+    public static boolean damage(int id, float amount) {
+        int index = indices.get(id, -1);
+        if (index == -1) {
+            return false;
+        }
+        healths[index] -= amount;
+        if (healths[index] > 0f) {
+            return false;
+        }
+        intercepted(id);
+        StrikeSync.recordIntercept(id);
+        return true;
+    }
+
+    /**
+     * Removes a strike that was shot down, so it never lands.
+     * <p>
+     * Used by clients when the server reports an interception.
+     *
+     * @param id the id of the strike
+     * @return true if the strike was still in flight
+     */
+    public static boolean intercepted(int id) {
+        int index = indices.get(id, -1);
+        if (index == -1) {
+            return false;
+        }
+        Fx.explosion.at(xs[index], ys[index] + altitude(index));
+        return remove(id);
+    }
+
+    /**
+     * Returns the strike of another team closest to the given position, ignoring strikes out of range.
+     *
+     * @param team the team looking for enemy strikes
+     * @param x the world x coordinate
+     * @param y the world y coordinate
+     * @param range the range in world units
+     * @return the id of the closest enemy strike, or -1 if there is none in range
+     */
+    public static int closestEnemy(Team team, float x, float y, float range) {
+        if (size - teamCounts[team.id] <= 0) {
+            return -1;
+        }
+        followUnits();
+        return findClosestEnemy(team, x, y, range);
+    }
+
+    // Closest enemy strike without bringing tracked strikes up to date first
+    private static int findClosestEnemy(Team team, float x, float y, float range) {
+        float worldCell = cellSize * Vars.tilesize;
+        int minX = Math.max((int) ((x - range) / worldCell), 0);
+        int minY = Math.max((int) ((y - range) / worldCell), 0);
+        int maxX = Math.min((int) ((x + range) / worldCell), width - 1);
+        int maxY = Math.min((int) ((y + range) / worldCell), height - 1);
+        int closest = -1;
+        float closestDistance = range * range;
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                IntSeq bucket = buckets[cx + cy * width];
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size; i++) {
+                    int index = bucket.items[i];
+                    // Own, allied and derelict strikes are never engaged
+                    if (!team.isEnemy(teams[index]) || teams[index] == Team.derelict) {
+                        continue;
+                    }
+                    float distance = Mathf.dst2(x, y, xs[index], ys[index]);
+                    if (distance <= closestDistance) {
+                        closestDistance = distance;
+                        closest = ids[index];
+                    }
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Calls the given function for every strike within range of the given position.
+     *
+     * @param x the world x coordinate
+     * @param y the world y coordinate
+     * @param range the range in world units
+     * @param cons the function called with the id of each strike
+     */
+    public static void intersect(float x, float y, float range, Intc cons) {
+        followUnits();
+        float worldCell = cellSize * Vars.tilesize;
+        int minX = Math.max((int) ((x - range) / worldCell), 0);
+        int minY = Math.max((int) ((y - range) / worldCell), 0);
+        int maxX = Math.min((int) ((x + range) / worldCell), width - 1);
+        int maxY = Math.min((int) ((y + range) / worldCell), height - 1);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                IntSeq bucket = buckets[cx + cy * width];
+                if (bucket == null) {
+                    continue;
+                }
+                // Iterate backwards, so the function may remove the current strike
+                for (int i = bucket.size - 1; i >= 0; i--) {
+                    int index = bucket.items[i];
+                    if (i < bucket.size && Mathf.within(x, y, xs[index], ys[index], range)) {
+                        cons.get(ids[index]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of strikes in flight.
+     *
+     * @return the number of strikes
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Returns the remaining health of a strike in flight.
+     *
+     * @param id the id of the strike
+     * @return the remaining health, or 0 if the strike is not in flight
+     */
+    public static float health(int id) {
+        int index = indices.get(id, -1);
+        return index == -1 ? 0f : healths[index];
+    }
+
+    // Moves the strikes on tracked units to where their unit is heading, strikes whose unit is gone stay where it was
+    private static void followUnits() {
+        if (trackedCount == 0) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (unitIds[i] < 0) {
+                continue;
+            }
+            Unit unit = Groups.unit.getByID(unitIds[i]);
+            if (unit == null || !unit.isValid()) {
+                continue;
+            }
+            Tile tile = UnitTargets.aim(unit, weapons[i].leadTime);
+            if (tile == null) {
+                continue;
+            }
+            xs[i] = tile.worldx();
+            ys[i] = tile.worldy();
+            int cell = (tile.x / cellSize) + (tile.y / cellSize) * width;
+            if (cell != cells[i]) {
+                removeFromBucket(i);
+                addToBucket(i, cell);
+            }
+        }
+    }
+
+    private static void update() {
+        if (size == 0 || Vars.net.client() || !Vars.state.isPlaying()) {
+            return;
+        }
+        interceptTimer += Time.delta;
+        if (interceptTimer < interceptInterval) {
+            return;
+        }
+        intercept(interceptTimer);
+        interceptTimer = 0f;
+    }
+
+    /**
+     * Lets the turrets of every team with enemy strikes in flight shoot at the closest one.
+     *
+     * @param ticks the ticks since the last interception pass
+     */
+    public static void intercept(float ticks) {
+        followUnits();
+        for (Teams.TeamData data : Vars.state.teams.present) {
+            if (size - teamCounts[data.team.id] <= 0) {
+                continue;
+            }
+            for (Building building : Vars.indexer.getFlagged(data.team, BlockFlag.turret)) {
+                if (!(building.block instanceof BaseTurret) || !building.isValid()) {
+                    continue;
+                }
+                float damage = interceptDamage(building, ticks);
+                if (damage <= 0f) {
+                    continue;
+                }
+                int strike = findClosestEnemy(data.team, building.x, building.y, ((BaseTurret) building.block).range);
+                if (strike == -1) {
+                    continue;
+                }
+                int index = indices.get(strike, -1);
+                Fx.pointBeam.at(building.x, building.y, 0f, data.team.color, new Vec2(xs[index], ys[index] + altitude(index)));
+                damage(strike, damage);
+                if (size == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static float interceptDamage(Building building, float ticks) {
+        // Falling strikes are air targets, out of reach of ground-only turrets
+        if (building.block instanceof Turret && !((Turret) building.block).targetAir) {
+            return 0f;
+        }
+        if (building.block instanceof PointDefenseTurret) {
+            PointDefenseTurret block = (PointDefenseTurret) building.block;
+            return block.bulletDamage * building.efficiency * ticks / block.reload;
+        }
+        if (building instanceof Turret.TurretBuild && ((Turret.TurretBuild) building).hasAmmo()) {
+            return turretInterceptDps * ticks / 60f;
+        }
+        return 0f;
+    }
+
+    // Height of a strike above its target, falling linearly until impact
+    private static float altitude(int index) {
+        long duration = impactTimes[index] - launchTimes[index];
+        if (duration <= 0) {
+            return 0f;
+        }
+        return dropHeight * Mathf.clamp((impactTimes[index] - Time.millis()) / (float) duration);
+    }
+
+    private static void draw() {
+        if (size == 0) {
+            return;
+        }
+        followUnits();
+        Draw.z(Layer.flyingUnit);
+        for (int i = 0; i < size; i++) {
+            float altitude = altitude(i);
+            float iconSize = weapons[i].fullIcon.width * Draw.scl;
+            // Shadow on the target, and the weapon above it
+            Draw.color(0f, 0f, 0f, 0.4f);
+            Draw.rect(weapons[i].fullIcon, xs[i], ys[i], iconSize, iconSize);
+            Draw.color();
+            Draw.rect(weapons[i].fullIcon, xs[i], ys[i] + altitude, iconSize, iconSize);
+        }
+        Draw.reset();
+    }
+
+    private static void addToBucket(int index, int cell) {
+        IntSeq bucket = buckets[cell];
+        if (bucket == null) {
+            bucket = buckets[cell] = new IntSeq(4);
+        }
+        cells[index] = cell;
+        bucketIndices[index] = bucket.size;
+        bucket.add(index);
+    }
+
+    // Takes the strike out of its bucket, moving the bucket's last strike into its place
+    private static void removeFromBucket(int index) {
+        IntSeq bucket = buckets[cells[index]];
+        int last = bucket.pop();
+        if (last != index) {
+            bucket.set(bucketIndices[index], last);
+            bucketIndices[last] = bucketIndices[index];
+        }
+    }
+
+    private static void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        teams = Arrays.copyOf(teams, capacity);
+        weapons = Arrays.copyOf(weapons, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        unitIds = Arrays.copyOf(unitIds, capacity);
+        healths = Arrays.copyOf(healths, capacity);
+        launchTimes = Arrays.copyOf(launchTimes, capacity);
+        impactTimes = Arrays.copyOf(impactTimes, capacity);
+        cells = Arrays.copyOf(cells, capacity);
+        bucketIndices = Arrays.copyOf(bucketIndices, capacity);
+    }
+}
@@ -0,0 +1,303 @@
+package airstrike.targeting;
+
+import arc.Events;
+import arc.math.Mathf;
+import arc.struct.IntSeq;
+import mindustry.Vars;
+import mindustry.game.EventType;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+import mindustry.world.Tile;
+
+import java.util.Arrays;
+
+/**
+ * Coarse grid of the value (maximum health) of buildings and units per team, for picking strike targets.
+ * <p>
+ * The map is split into square cells of {@link #cellSize} tiles. Each team has its own grid, and the value of
+ * the enemies of a team is found with a summed-area table over the grids of its enemy teams,
+ * so the value inside any box of cells is an O(1) query. Derelict blocks are never counted as enemies.
+ * <p>
+ * Buildings are tracked incrementally: tile changes mark their cell dirty, and only dirty cells are recounted.
+ * Units move every tick, so their grid is rebuilt from all units on the first query after
+ * {@link #unitRefreshInterval} ticks instead. Nothing is computed while no one queries the map.
+ */
+public class ThreatHeatmap {
+    // Width and height of a cell in tiles
+    public static final int cellSize = 4;
+    // Ticks after which the unit grid is rebuilt on the next query
+    public static float unitRefreshInterval = 30f;
+
+    private static int width;
+    private static int height;
+    // Value per cell for each team, null for teams without buildings or units
+    private static float[][] buildingValues = new float[Team.all.length][];
+    private static float[][] unitValues = new float[Team.all.length][];
+    // Sum of all teams per cell
+    private static float[] buildingTotal = new float[0];
+    private static float[] unitTotal = new float[0];
+    // Cells whose buildings have to be recounted
+    private static boolean[] dirty = new boolean[0];
+    private static final IntSeq dirtyCells = new IntSeq();
+    private static float unitRefreshTime = -1f;
+    // Incremented whenever a grid changes, to invalidate the summed-area tables
+    private static int version;
+    // Summed-area table of the enemy value per team, and the version it was built for
+    private static float[][] tables = new float[Team.all.length][];
+    private static int[] tableVersions = new int[Team.all.length];
+
+    /**
+     * Registers the event hooks that keep the heatmap up to date.
+     */
+    public static void init() {
+        Events.on(EventType.WorldLoadEvent.class, event -> reset());
+        Events.on(EventType.TileChangeEvent.class, event -> markDirty(event.tile));
+        Events.on(EventType.BuildTeamChangeEvent.class, event -> markDirty(event.build.tile));
+    }
+
+    /**
+     * Resizes the heatmap to the current world and counts all buildings again.
+     * <p>
+     * Called automatically whenever a world is loaded.
+     */
+    public static void reset() {
+        width = Mathf.ceil(Vars.world.width() / (float) cellSize);
+        height = Mathf.ceil(Vars.world.height() / (float) cellSize);
+        int cells = width * height;
+        buildingValues = new float[Team.all.length][];
+        unitValues = new float[Team.all.length][];
+        buildingTotal = new float[cells];
+        unitTotal = new float[cells];
+        dirty = new boolean[cells];
+        dirtyCells.clear();
+        tables = new float[Team.all.length][];
+        tableVersions = new int[Team.all.length];
+        unitRefreshTime = -1f;
+        version++;
+        for (Building building : Groups.build) {
+            add(buildingValues, buildingTotal, building.team, cell(building.tile.x, building.tile.y), building.maxHealth);
+        }
+    }
+
+    /**
+     * Returns the total value of the enemies of the given team within a square around the given tile.
+     *
+     * @param team the team looking for targets
+     * @param x the tile x coordinate of the center
+     * @param y the tile y coordinate of the center
+     * @param radius the half width of the square in tiles
+     * @return the value of enemy buildings and units, 0 if there are none
+     */
+    public static float value(Team team, int x, int y, float radius) {
+        float[] table = table(team);
+        if (table == null) {
+            return 0f;
+        }
+        int range = cellRange(radius);
+        return sum(table, x / cellSize - range, y / cellSize - range, x / cellSize + range, y / cellSize + range);
+    }
+
+    /**
+     * Returns the tile whose surroundings hold the highest value of the enemies of the given team.
+     * <p>
+     * Candidates are cell centers, the value is summed over the cells within the given radius.
+     * This costs one O(1) query per cell, independent of the number of buildings and units.
+     *
+     * @param team the team looking for targets
+     * @param radius the blast radius in tiles
+     * @return the center tile of the best cell, or null if there are no enemies
+     */
+    public static Tile bestTarget(Team team, float radius) {
+        float[] table = table(team);
+        if (table == null) {
+            return null;
+        }
+        int range = cellRange(radius);
+        float best = 0f;
+        int bestCell = -1;
+        for (int cy = 0; cy < height; cy++) {
+            for (int cx = 0; cx < width; cx++) {
+                float value = sum(table, cx - range, cy - range, cx + range, cy + range);
+                if (value > best) {
+                    best = value;
+                    bestCell = cy * width + cx;
+                }
+            }
+        }
+        if (bestCell < 0) {
+            return null;
+        }
+        int x = Math.min((bestCell % width) * cellSize + cellSize / 2, Vars.world.width() - 1);
+        int y = Math.min((bestCell / width) * cellSize + cellSize / 2, Vars.world.height() - 1);
+        return Vars.world.tile(x, y);
+    }
+
+    private static void markDirty(Tile tile) {
+        if (dirty.length == 0 || tile == null) {
+            return;
+        }
+        markDirty(cell(tile.x, tile.y));
+        // Buildings are counted in the cell of their center tile, which may be another cell
+        if (tile.build != null) {
+            markDirty(cell(tile.build.tile.x, tile.build.tile.y));
+        }
+    }
+
+    private static void markDirty(int cell) {
+        if (cell >= 0 && cell < dirty.length && !dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells.add(cell);
+        }
+    }
+
+    /**
+     * Brings the grids up to date and returns the enemy summed-area table of the given team.
+     */
+    private static float[] table(Team team) {
+        if (width == 0 || Vars.world.width() == 0) {
+            return null;
+        }
+        recountDirtyCells();
+        if (unitRefreshTime < 0f || Vars.state.tick - unitRefreshTime >= unitRefreshInterval) {
+            refreshUnits();
+        }
+        float[] table = tables[team.id];
+        if (table == null || tableVersions[team.id] != version) {
+            table = buildTable(team, table);
+            tables[team.id] = table;
+            tableVersions[team.id] = version;
+        }
+        return table;
+    }
+
+    private static void recountDirtyCells() {
+        if (dirtyCells.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < dirtyCells.size; i++) {
+            int cell = dirtyCells.get(i);
+            dirty[cell] = false;
+            for (float[] values : buildingValues) {
+                if (values != null) {
+                    values[cell] = 0f;
+                }
+            }
+            buildingTotal[cell] = 0f;
+            int startX = (cell % width) * cellSize;
+            int startY = (cell / width) * cellSize;
+            for (int y = startY; y < startY + cellSize; y++) {
+                for (int x = startX; x < startX + cellSize; x++) {
+                    Tile tile = Vars.world.tile(x, y);
+                    // Count every building once, at its center tile
+                    if (tile != null && tile.build != null && tile.build.tile == tile) {
+                        add(buildingValues, buildingTotal, tile.build.team, cell, tile.build.maxHealth);
+                    }
+                }
+            }
+        }
+        dirtyCells.clear();
+        version++;
+    }
+
+    private static void refreshUnits() {
+        for (float[] values : unitValues) {
+            if (values != null) {
+                Arrays.fill(values, 0f);
+            }
+        }
+        Arrays.fill(unitTotal, 0f);
+        for (Unit unit : Groups.unit) {
+            if (!unit.dead) {
+                add(unitValues, unitTotal, unit.team, cell(unit.tileX(), unit.tileY()), unit.maxHealth);
+            }
+        }
+        unitRefreshTime = (float) Vars.state.tick;
+        version++;
+    }
+
+    /**
+     * Builds the summed-area table of the value of the enemies of the given team, reusing the given array if possible.
+     * <p>
+     * The team itself, derelict blocks and any team it isn't hostile to are subtracted from the totals.
+     */
+    private static float[] buildTable(Team team, float[] table) {
+        int cells = width * height;
+        if (table == null || table.length != cells) {
+            table = new float[cells];
+        }
+        float[][] excluded = new float[Team.all.length * 2][];
+        int excludedCount = 0;
+        for (Team other : Team.all) {
+            if (team.isEnemy(other) && other != Team.derelict) {
+                continue;
+            }
+            if (buildingValues[other.id] != null) {
+                excluded[excludedCount++] = buildingValues[other.id];
+            }
+            if (unitValues[other.id] != null) {
+                excluded[excludedCount++] = unitValues[other.id];
+            }
+        }
+        for (int cy = 0; cy < height; cy++) {
+            float row = 0f;
+            for (int cx = 0; cx < width; cx++) {
+                int cell = cy * width + cx;
+                float enemy = buildingTotal[cell] + unitTotal[cell];
+                for (int i = 0; i < excludedCount; i++) {
+                    enemy -= excluded[i][cell];
+                }
+                row += enemy;
+                table[cell] = row + (cy > 0 ? table[cell - width] : 0f);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the sum of the cells in the given box (inclusive, clamped to the grid) from a summed-area table.
+     */
+    private static float sum(float[] table, int x1, int y1, int x2, int y2) {
+        x1 = Math.max(x1, 0);
+        y1 = Math.max(y1, 0);
+        x2 = Math.min(x2, width - 1);
+        y2 = Math.min(y2, height - 1);
+        if (x1 > x2 || y1 > y2) {
+            return 0f;
+        }
+        float total = table[y2 * width + x2];
+        if (x1 > 0) {
+            total -= table[y2 * width + x1 - 1];
+        }
+        if (y1 > 0) {
+            total -= table[(y1 - 1) * width + x2];
+        }
+        if (x1 > 0 && y1 > 0) {
+            total += table[(y1 - 1) * width + x1 - 1];
+        }
+        return total;
+    }
+
+    private static void add(float[][] values, float[] total, Team team, int cell, float value) {
+        if (cell < 0 || cell >= total.length) {
+            return;
+        }
+        if (values[team.id] == null) {
+            values[team.id] = new float[total.length];
+        }
+        values[team.id][cell] += value;
+        total[cell] += value;
+    }
+
+    private static int cell(int x, int y) {
+        if (x < 0 || y < 0 || x >= width * cellSize || y >= height * cellSize) {
+            return -1;
+        }
+        return (y / cellSize) * width + x / cellSize;
+    }
+
+    private static int cellRange(float radius) {
+        return Math.max(0, Mathf.round(radius / cellSize));
+    }
+}
@@ -0,0 +1,125 @@
+package airstrike.targeting;
+
+import arc.Events;
+import arc.struct.IntMap;
+import mindustry.Vars;
+import mindustry.game.EventType;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+import mindustry.world.Tile;
+
+/**
+ * Strike targets that follow a unit instead of staying on a tile.
+ * <p>
+ * Nothing is updated while a strike is pending: a target only stores the unit id and the unit's last known position.
+ * On impact, the unit is looked up by id (an O(1) map lookup) and the strike lands on its current position,
+ * optionally led by its velocity.
+ * <p>
+ * If the unit died before impact, the death event has stored where it died, and the strike lands there instead.
+ * Only deaths of tracked units are recorded, found with a single map lookup per death.
+ */
+public class UnitTargets {
+    // Targets of pending strikes (unit-id: target), shared by all strikes on the same unit
+    private static final IntMap<Target> targets = new IntMap<>();
+
+    /**
+     * Registers the event hooks that record where tracked units die.
+     */
+    public static void init() {
+        Events.on(EventType.UnitDestroyEvent.class, event -> {
+            Target target = targets.get(event.unit.id);
+            if (target != null) {
+                target.x = event.unit.x;
+                target.y = event.unit.y;
+            }
+        });
+        // Unit ids start over in a new world
+        Events.on(EventType.WorldLoadEvent.class, event -> targets.clear());
+    }
+
+    /**
+     * Starts tracking a unit for a pending strike.
+     * <p>
+     * Every call has to be matched by one {@link #resolve(Target, float)} on impact.
+     *
+     * @param unitId the id of the unit to strike
+     * @param fallback the tile to strike if the unit no longer exists and its death was not seen
+     * @return the target to resolve on impact
+     */
+    public static Target track(int unitId, Tile fallback) {
+        Target target = targets.get(unitId);
+        if (target == null) {
+            target = new Target(unitId);
+            Unit unit = Groups.unit.getByID(unitId);
+            if (unit != null) {
+                target.x = unit.x;
+                target.y = unit.y;
+            } else {
+                target.x = fallback.worldx();
+                target.y = fallback.worldy();
+            }
+            targets.put(unitId, target);
+        }
+        target.strikes++;
+        return target;
+    }
+
+    /**
+     * Returns the tile a strike on the given target lands on, and stops tracking the target if no other strike needs it.
+     *
+     * @param target the target returned by {@link #track(int, Tile)}
+     * @param leadTime the ticks the unit's position is extrapolated by its velocity, 0 to strike its current position
+     * @return the tile to strike, or null if the unit's last known position is outside the world
+     */
+    public static Tile resolve(Target target, float leadTime) {
+        if (--target.strikes <= 0) {
+            targets.remove(target.unitId);
+        }
+        Unit unit = Groups.unit.getByID(target.unitId);
+        if (unit != null && unit.isValid()) {
+            target.x = unit.x;
+            target.y = unit.y;
+            Tile led = aim(unit, leadTime);
+            if (led != null) {
+                return led;
+            }
+        }
+        return Vars.world.tileWorld(target.x, target.y);
+    }
+
+    /**
+     * Returns the tile a strike on the given unit lands on if it lands now.
+     *
+     * @param unit the tracked unit
+     * @param leadTime the ticks the unit's position is extrapolated by its velocity
+     * @return the tile, or null if the led position is outside the world
+     */
+    public static Tile aim(Unit unit, float leadTime) {
+        return Vars.world.tileWorld(unit.x + unit.vel.x * leadTime, unit.y + unit.vel.y * leadTime);
+    }
+
+    /**
+     * Returns the number of units tracked by pending strikes.
+     *
+     * @return the number of tracked units
+     */
+    public static int size() {
+        return targets.size;
+    }
+
+    /**
+     * A unit tracked by one or more pending strikes.
+     */
+    public static class Target {
+        // Id of the tracked unit
+        public final int unitId;
+        // Last known world position of the unit
+        float x, y;
+        // Number of pending strikes on this target
+        int strikes;
+
+        Target(int unitId) {
+            this.unitId = unitId;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package airstrike.terrain;
+
+import airstrike.metrics.AirstrikeMetrics;
+import arc.Events;
+import arc.math.Mathf;
+import arc.struct.IntSeq;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.game.EventType;
+import mindustry.world.Tile;
+import mindustry.world.blocks.environment.Floor;
+import mindustry.world.blocks.environment.Prop;
+import mindustry.world.blocks.environment.StaticWall;
+
+/**
+ * Craters left behind by large strikes: crater floors, with ore overlays and boulders removed.
+ * <p>
+ * Changing a floor or overlay tile by tile makes the game recache the floor render chunks around it and upload
+ * a pixel of the minimap, so a crater of thousands of tiles would do that thousands of times. Instead, all changes
+ * of a crater are collected first and then applied in one batch with tile notifications suppressed, after which
+ * every render chunk the crater touches is recached once and the minimap is updated once.
+ * <p>
+ * Only dry, walkable floors are replaced, by a floor that is dry and walkable as well, so the pathfinding costs of
+ * the tiles don't change and no flow field has to be updated. Tiles holding a wall are left alone.
+ * <p>
+ * The floor under buildings is replaced too, but their block and ore overlay are kept. Strikes stamp their crater
+ * before the game deals the damage of their blast, which it does later in the frame, so the crater can't tell which
+ * buildings the blast destroys; this way their footprint is crater once they are gone, and a surviving drill keeps
+ * the ores it counted.
+ * <p>
+ * Nothing is sent over the network: strikes land on the server and every client alike, and each peer stamps the
+ * crater on its own map. A crater depends on its center, radius, and the walls, boulders and buildings standing at
+ * the impact, so peers agree unless their maps already differed, for example when a building destroyed on the server
+ * is still standing on a lagging client, which then keeps the ores under it. Players joining later receive the
+ * server's tiles with the map.
+ */
+public class Craters {
+    // Changed tiles from which on the whole minimap is redrawn instead of single pixels
+    public static int minimapTileLimit = 256;
+    // Tiles between the points the floor render chunks are recached at, smaller than a render chunk
+    private static final int recacheStride = 8;
+
+    // Tiles of the current batch (tile position), by kind of change
+    private static final IntSeq floorTiles = new IntSeq();
+    private static final IntSeq overlayTiles = new IntSeq();
+    private static final IntSeq boulderTiles = new IntSeq();
+    private static final EventType.TileChangeEvent changeEvent = new EventType.TileChangeEvent();
+
+    /**
+     * Stamps a crater centered on the given tile.
+     *
+     * @param center the center of the crater
+     * @param radius the radius in tiles
+     * @param floor the floor of the crater
+     * @return the number of tiles changed
+     */
+    public static int stamp(Tile center, float radius, Floor floor) {
+        if (radius <= 0f) {
+            return 0;
+        }
+        long start = AirstrikeMetrics.start();
+        int r = Mathf.ceil(radius);
+        int minX = Math.max(center.x - r, 0);
+        int minY = Math.max(center.y - r, 0);
+        int maxX = Math.min(center.x + r, Vars.world.width() - 1);
+        int maxY = Math.min(center.y + r, Vars.world.height() - 1);
+        collect(center, radius, floor, minX, minY, maxX, maxY);
+        int changed = apply(floor);
+        if (changed > 0) {
+            invalidate(changed, minX, minY, maxX, maxY);
+        }
+        floorTiles.clear();
+        overlayTiles.clear();
+        boulderTiles.clear();
+        AirstrikeMetrics.craterTiles.add(changed);
+        AirstrikeMetrics.craterTime.recordSince(start);
+        return changed;
+    }
+
+    // Finds the tiles the crater changes, without changing anything yet
+    private static void collect(Tile center, float radius, Floor floor, int minX, int minY, int maxX, int maxY) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (Mathf.dst(center.x, center.y, x, y) > radius) {
+                    continue;
+                }
+                Tile tile = Vars.world.tile(x, y);
+                // Static walls are props as well, only the small, walkable props such as boulders are cleared
+                boolean boulder = tile.build == null && tile.block() instanceof Prop
+                        && !(tile.block() instanceof StaticWall) && !tile.block().solid;
+                if (!boulder && tile.build == null && tile.block() != Blocks.air) {
+                    continue;
+                }
+                if (boulder) {
+                    boulderTiles.add(tile.pos());
+                }
+                if (tile.build == null && tile.overlay() != Blocks.air) {
+                    overlayTiles.add(tile.pos());
+                }
+                if (tile.floor() != floor && walkable(tile.floor())) {
+                    floorTiles.add(tile.pos());
+                }
+            }
+        }
+    }
+
+    // Applies the collected changes while the world suppresses per-tile recaching and change events
+    private static int apply(Floor floor) {
+        boolean generating = Vars.world.isGenerating();
+        Vars.world.setGenerating(true);
+        try {
+            for (int i = 0; i < boulderTiles.size; i++) {
+                Vars.world.tile(boulderTiles.items[i]).setBlock(Blocks.air);
+            }
+            for (int i = 0; i < floorTiles.size; i++) {
+                Tile tile = Vars.world.tile(floorTiles.items[i]);
+                // Setting the floor keeps the overlay where the new floor allows it, so the overlay is set afterwards
+                tile.setFloor(floor);
+            }
+            for (int i = 0; i < overlayTiles.size; i++) {
+                Vars.world.tile(overlayTiles.items[i]).setOverlay(Blocks.air);
+            }
+        } finally {
+            Vars.world.setGenerating(generating);
+        }
+        return floorTiles.size + overlayTiles.size + boulderTiles.size;
+    }
+
+    // Refreshes everything that was not notified of the changes, once for the whole crater
+    private static void invalidate(int changed, int minX, int minY, int maxX, int maxY) {
+        if (Vars.headless || Vars.renderer == null) {
+            return;
+        }
+        // One tile per stride covers every render chunk overlapping the crater, plus the neighbours of its edge tiles
+        for (int y = Math.max(minY - 1, 0); ; y = Math.min(y + recacheStride, maxY + 1)) {
+            for (int x = Math.max(minX - 1, 0); ; x = Math.min(x + recacheStride, maxX + 1)) {
+                Tile tile = Vars.world.tile(x, y);
+                if (tile != null) {
+                    Vars.renderer.blocks.floor.recacheTile(tile);
+                }
+                if (x >= maxX + 1) {
+                    break;
+                }
+            }
+            if (y >= maxY + 1) {
+                break;
+            }
+        }
+        if (changed > minimapTileLimit) {
+            Vars.renderer.minimap.updateAll();
+        } else {
+            updateMinimap(floorTiles);
+            updateMinimap(overlayTiles);
+            updateMinimap(boulderTiles);
+        }
+        // Boulders are blocks, so the block renderer has to hear about each of them, they are few compared to floors
+        for (int i = 0; i < boulderTiles.size; i++) {
+            Events.fire(changeEvent.set(Vars.world.tile(boulderTiles.items[i])));
+        }
+    }
+
+    private static void updateMinimap(IntSeq tiles) {
+        for (int i = 0; i < tiles.size; i++) {
+            Vars.renderer.minimap.update(Vars.world.tile(tiles.items[i]));
+        }
+    }
+
+    // Whether a floor can be turned into a crater without changing its pathfinding cost
+    private static boolean walkable(Floor floor) {
+        return !floor.isLiquid && !floor.isDeep() && !floor.solid && floor.damageTaken <= 0f;
+    }
+}
@@ -0,0 +1,77 @@
+package airstrike;
+
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.PlanetFixture;
+import airstrike.fixtures.SaveDirectoryFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import mindustry.gen.Unit;
+import mindustry.type.Planet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AirstrikeUtilsTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @Test
+    void savesAreGroupedByPlanet() {
+        SaveDirectoryFixture saves = new SaveDirectoryFixture();
+        try {
+            Planet planet = PlanetFixture.create();
+            saves.addSectorSave(planet, 4);
+            saves.addSectorSave(planet, 17);
+            saves.addCustomSave(2);
+            saves.addBackup(2);
+            saves.addFile("settings.bin");
+
+            HashMap<Planet, LinkedList<Integer>> result = AirstrikeUtils.getSaves();
+
+            assertEquals(2, result.size());
+            LinkedList<Integer> sectors = result.get(planet);
+            assertNotNull(sectors);
+            assertTrue(sectors.contains(4));
+            assertTrue(sectors.contains(17));
+            assertEquals(1, result.get(null).size());
+            assertEquals(2, result.get(null).getFirst());
+        } finally {
+            saves.dispose();
+        }
+    }
+
+    @Test
+    void planetsAreFoundByNameAndId() {
+        Planet planet = PlanetFixture.create();
+
+        assertSame(planet, AirstrikeUtils.getPlanetByName(planet.name));
+        assertSame(planet, AirstrikeUtils.getPlanetById(String.valueOf(planet.id)));
+        assertNull(AirstrikeUtils.getPlanetByName("unknown-planet"));
+    }
+
+    @Test
+    void explosionDamagesOnlyInRange() {
+        WorldFixture.createWorld(50);
+        Building near = WorldFixture.placeBuilding(Blocks.copperWall, Team.crux, 26, 25);
+        Building far = WorldFixture.placeBuilding(Blocks.copperWall, Team.crux, 45, 45);
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 24, 25);
+        float unitHealth = unit.health;
+
+        AirstrikeUtils.explosion(Vars.world.tile(25, 25), 5f, 10f, 0f, 0f, 0f);
+
+        assertTrue(near.health < near.maxHealth);
+        assertEquals(far.maxHealth, far.health);
+        assertTrue(unit.health < unitHealth);
+    }
+}
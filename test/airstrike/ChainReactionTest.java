@@ -0,0 +1,121 @@
+package airstrike;
+
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.content.Items;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChainReactionTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+        ChainReaction.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        ChainReaction.clear();
+    }
+
+    @Test
+    void explosiveBuildingsInBlastDetonate() {
+        Building container = storage(20, 20, 300);
+        ChainReaction.recordBlast(container.x, container.y, 5f * Vars.tilesize, 0);
+
+        ChainReaction.onDestroyed(container);
+
+        assertEquals(1, ChainReaction.size());
+        // The items detonate through the queue instead of exploding right away
+        assertEquals(0, container.items.total());
+    }
+
+    @Test
+    void buildingsDestroyedByTheDamageOfAnExplosionDetonate() {
+        Building container = storage(20, 20, 300);
+
+        AirstrikeUtils.explosion(container.tile, 5f, 100000f, 0f, 0f, 0f);
+        // Building damage is dealt by a posted task, the blast is forgotten by the task after it
+        GameFixture.awaitPosted();
+
+        assertFalse(container.isValid());
+        assertEquals(1, ChainReaction.size());
+    }
+
+    @Test
+    void blastsAreForgottenAfterTheirDamage() {
+        Building container = storage(20, 20, 300);
+        ChainReaction.recordBlast(container.x, container.y, 5f * Vars.tilesize, 0);
+
+        ChainReaction.expireBlasts();
+        GameFixture.awaitPosted();
+        ChainReaction.onDestroyed(container);
+
+        assertEquals(0, ChainReaction.size());
+    }
+
+    @Test
+    void buildingsOutsideBlastsDontDetonate() {
+        Building container = storage(20, 20, 300);
+        ChainReaction.recordBlast(80 * Vars.tilesize, 80 * Vars.tilesize, 5f * Vars.tilesize, 0);
+
+        ChainReaction.onDestroyed(container);
+
+        assertEquals(0, ChainReaction.size());
+        assertEquals(300, container.items.total());
+    }
+
+    @Test
+    void harmlessItemsDontDetonate() {
+        Building container = WorldFixture.placeBuilding(Blocks.container, Team.crux, 20, 20);
+        container.items.add(Items.copper, 300);
+        ChainReaction.recordBlast(container.x, container.y, 5f * Vars.tilesize, 0);
+
+        ChainReaction.onDestroyed(container);
+
+        assertEquals(0, ChainReaction.size());
+    }
+
+    @Test
+    void chainsStopAfterMaxGenerations() {
+        Building container = storage(20, 20, 300);
+        ChainReaction.recordBlast(container.x, container.y, 5f * Vars.tilesize, ChainReaction.maxGenerations);
+
+        ChainReaction.onDestroyed(container);
+
+        assertEquals(0, ChainReaction.size());
+    }
+
+    @Test
+    void detonationsAreSpreadOverTicks() {
+        ChainReaction.recordBlast(50 * Vars.tilesize, 50 * Vars.tilesize, 100f * Vars.tilesize, 0);
+        int containers = 0;
+        for (int x = 5; x < 95; x += 15) {
+            for (int y = 5; y < 95; y += 15) {
+                ChainReaction.onDestroyed(storage(x, y, 50));
+                containers++;
+            }
+        }
+        assertEquals(containers, ChainReaction.size());
+
+        ChainReaction.update();
+
+        assertEquals(containers - ChainReaction.detonationsPerTick, ChainReaction.size());
+    }
+
+    private static Building storage(int x, int y, int blastCompound) {
+        Building container = WorldFixture.placeBuilding(Blocks.container, Team.crux, x, y);
+        container.items.add(Items.blastCompound, blastCompound);
+        return container;
+    }
+}
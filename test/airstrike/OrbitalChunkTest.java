@@ -0,0 +1,139 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.PlanetFixture;
+import arc.Core;
+import mindustry.game.Team;
+import mindustry.type.Planet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalChunkTest {
+    // Location of the headless game, which has no save file
+    static final String current = AirstrikeUtils.unsavedSectorId;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        OrbitalWriter.flush();
+        OrbitalWriter.file().delete();
+        Core.settings.remove(OrbitalWriter.legacyKey);
+        OrbitalChunk.takeLoadedSlice();
+    }
+
+    @Test
+    void sliceRoundTripsThroughSave() throws IOException {
+        OrbitalData.sectorOrbitalWeapons.put(current, new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector(current, Team.sharded, AirstrikeItems.nuke, 2);
+        OrbitalData.addOrbitalWeaponToSector(current, Team.crux, AirstrikeItems.precisionBomb, 3);
+        byte[] save = writeChunk();
+
+        GameFixture.reset();
+        readChunk(save);
+        OrbitalData.loadOrbitalData();
+
+        assertEquals(2, OrbitalData.getOrbitalWeaponCount(current, Team.sharded, AirstrikeItems.nuke.name));
+        assertEquals(3, OrbitalData.getOrbitalWeaponCount(current, Team.crux, AirstrikeItems.precisionBomb.name));
+    }
+
+    @Test
+    void loadingOlderSaveRestoresItsInventory() throws IOException {
+        OrbitalData.sectorOrbitalWeapons.put(current, new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector(current, Team.sharded, AirstrikeItems.nuke, 1);
+        byte[] olderSave = writeChunk();
+        OrbitalData.saveOrbitalData();
+        OrbitalData.addOrbitalWeaponToSector(current, Team.sharded, AirstrikeItems.nuke, 4);
+        OrbitalData.saveOrbitalData();
+
+        readChunk(olderSave);
+        OrbitalData.loadOrbitalData();
+
+        assertEquals(1, OrbitalData.getOrbitalWeaponCount(current, Team.sharded));
+    }
+
+    @Test
+    void indexHoldsPlanetsAndOtherSectors() {
+        Planet planet = PlanetFixture.create();
+        OrbitalData.planetOrbitalWeapons.put(planet.name, new OrbitalLocation());
+        OrbitalData.sectorOrbitalWeapons.put(current, new OrbitalLocation());
+        OrbitalData.sectorOrbitalWeapons.put("7", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToPlanet(planet.name, Team.sharded, AirstrikeItems.nuke, 2);
+        OrbitalData.addOrbitalWeaponToSector(current, Team.sharded, AirstrikeItems.nuke, 1);
+        OrbitalData.addOrbitalWeaponToSector("7", Team.sharded, AirstrikeItems.nuke, 1);
+
+        String index = OrbitalData.serializedOrbitalIndex();
+
+        assertTrue(index.contains("\"" + planet.name + "\""));
+        assertTrue(index.contains("\"7\""));
+        assertFalse(index.contains("\"" + current + "\""));
+    }
+
+    @Test
+    void indexLeavesOutSavedAndEmptySectors() {
+        OrbitalData.sectorOrbitalWeapons.put("8", new OrbitalLocation());
+        OrbitalData.sectorOrbitalWeapons.put("9", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("8", Team.sharded, AirstrikeItems.nuke, 1);
+        // Sector 8 has been loaded from its own save before
+        OrbitalData.markChunkSector("8");
+
+        String index = OrbitalData.serializedOrbitalIndex();
+
+        assertFalse(index.contains("\"8\""));
+        assertFalse(index.contains("\"9\""));
+    }
+
+    @Test
+    void legacySaveKeepsIndexInventory() {
+        OrbitalData.sectorOrbitalWeapons.put(current, new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector(current, Team.sharded, AirstrikeItems.nuke, 3);
+        // Index written before inventories moved into the saves
+        Core.settings.put(OrbitalWriter.legacyKey, OrbitalData.serializedOrbitalData());
+
+        GameFixture.reset();
+        OrbitalData.loadOrbitalData();
+
+        assertEquals(3, OrbitalData.getOrbitalWeaponCount(current, Team.sharded));
+    }
+
+    @Test
+    void unknownVersionsAreSkippedWhole() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(bytes);
+        stream.writeByte(OrbitalChunk.version + 1);
+        stream.writeInt(3);
+        stream.write(new byte[]{1, 2, 3});
+        // Whatever follows the chunk in the save
+        stream.writeInt(42);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        new OrbitalChunk().read(input);
+
+        assertNull(OrbitalChunk.takeLoadedSlice());
+        assertEquals(42, input.readInt());
+    }
+
+    private static byte[] writeChunk() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new OrbitalChunk().write(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static void readChunk(byte[] save) throws IOException {
+        new OrbitalChunk().read(new DataInputStream(new ByteArrayInputStream(save)));
+    }
+}
@@ -0,0 +1,64 @@
+package airstrike;
+
+import airstrike.fixtures.GameFixture;
+import arc.util.serialization.SerializationException;
+import mindustry.game.Team;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalDataReaderTest {
+    private final HashMap<String, OrbitalLocation> planets = new HashMap<>();
+    private final HashMap<String, OrbitalLocation> sectors = new HashMap<>();
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @Test
+    void weaponNamesAreInterned() {
+        new OrbitalDataReader("{\"planets\":{},\"sectors\":{\"1\":{\"1\":[\"nuke\",\"nuke\"],\"2\":[\"nuke\"]}}}").read(planets, sectors);
+
+        LinkedList<String> sharded = sectors.get("1").get(Team.sharded);
+        assertEquals(2, sharded.size());
+        assertSame(sharded.get(0), sharded.get(1));
+        assertSame(sharded.get(0), sectors.get("1").get(Team.crux).getFirst());
+    }
+
+    @Test
+    void legacyAndCurrentFormatsMix() {
+        new OrbitalDataReader(" {\n \"planets\" : { \"serpulo\" : [ \"nuke\" , \"bomb\" ] },\n \"sectors\" : { \"3\" : { \"1\" : [ \"bomb\" ] } } } ").read(planets, sectors);
+
+        assertEquals(2, planets.get("serpulo").get(OrbitalData.legacyTeam).size());
+        assertEquals("bomb", sectors.get("3").get(Team.sharded).getFirst());
+    }
+
+    @Test
+    void unknownTypesAndTeamsAreSkipped() {
+        new OrbitalDataReader("{\"version\":{\"a\":[1,true,null]},\"sectors\":{\"1\":{\"9999\":[\"nuke\"],\"1\":[\"nuke\"]}},\"planets\":{}}").read(planets, sectors);
+
+        assertEquals(1, sectors.get("1").get(Team.sharded).size());
+    }
+
+    @Test
+    void escapedNamesAreRead() {
+        new OrbitalDataReader("{\"sectors\":{\"1\":{\"1\":[\"odd\\\"name\",\"odd\\\"name\"]}}}").read(planets, sectors);
+
+        LinkedList<String> sharded = sectors.get("1").get(Team.sharded);
+        assertEquals("odd\"name", sharded.getFirst());
+        assertSame(sharded.get(0), sharded.get(1));
+    }
+
+    @Test
+    void malformedDataKeepsCurrentData() {
+        OrbitalData.deserializeOrbitalData("{\"planets\":{},\"sectors\":{\"1\":{}}}");
+
+        assertThrows(SerializationException.class, () -> OrbitalData.deserializeOrbitalData("{\"planets\":{\"serpulo\":[\"nuke\""));
+        assertTrue(OrbitalData.sectorOrbitalWeapons.containsKey("1"));
+    }
+}
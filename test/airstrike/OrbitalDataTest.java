@@ -0,0 +1,180 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.CampaignFixture;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.PlanetFixture;
+import airstrike.fixtures.SaveDirectoryFixture;
+import mindustry.game.Team;
+import mindustry.type.Planet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalDataTest {
+    private SaveDirectoryFixture saves;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        saves = new SaveDirectoryFixture();
+    }
+
+    @AfterEach
+    void tearDown() {
+        saves.dispose();
+    }
+
+    @Test
+    void weaponsAreCountedPerTeam() {
+        OrbitalData.sectorOrbitalWeapons.put("1", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("1", Team.sharded, AirstrikeItems.nuke, 3);
+        OrbitalData.addOrbitalWeaponToSector("1", Team.crux, AirstrikeItems.precisionBomb, 2);
+
+        assertEquals(3, OrbitalData.getOrbitalWeaponCount("1", Team.sharded));
+        assertEquals(3, OrbitalData.getOrbitalWeaponCount("1", Team.sharded, AirstrikeItems.nuke.name));
+        assertEquals(0, OrbitalData.getOrbitalWeaponCount("1", Team.sharded, AirstrikeItems.precisionBomb.name));
+        assertEquals(2, OrbitalData.getOrbitalWeaponCount("1", Team.crux));
+        assertEquals(0, OrbitalData.getOrbitalWeaponCount("1", Team.malis));
+    }
+
+    @Test
+    void removingFailsWithoutEnoughWeapons() {
+        OrbitalData.sectorOrbitalWeapons.put("1", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("1", Team.sharded, AirstrikeItems.nuke, 2);
+
+        assertFalse(OrbitalData.removeOrbitalWeaponFromSector("1", Team.crux, AirstrikeItems.nuke, 1));
+        assertFalse(OrbitalData.removeOrbitalWeaponFromSector("1", Team.sharded, AirstrikeItems.nuke, 3));
+        assertEquals(2, OrbitalData.getOrbitalWeaponCount("1", Team.sharded));
+
+        assertTrue(OrbitalData.removeOrbitalWeaponFromSector("1", Team.sharded, AirstrikeItems.nuke, 2));
+        assertEquals(0, OrbitalData.getOrbitalWeaponCount("1", Team.sharded));
+    }
+
+    @Test
+    void serializationRoundTrips() {
+        Planet planet = PlanetFixture.create();
+        OrbitalData.planetOrbitalWeapons.put(planet.name, new OrbitalLocation());
+        OrbitalData.sectorOrbitalWeapons.put("4", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToPlanet(planet.name, Team.sharded, AirstrikeItems.nuke, 2);
+        OrbitalData.addOrbitalWeaponToPlanet(planet.name, Team.blue, AirstrikeItems.precisionBomb, 1);
+        OrbitalData.addOrbitalWeaponToSector("4", Team.crux, AirstrikeItems.precisionBomb, 5);
+        String serialized = OrbitalData.serializedOrbitalData();
+
+        GameFixture.reset();
+        OrbitalData.deserializeOrbitalData(serialized);
+
+        assertEquals(2, OrbitalData.getOrbitalWeaponCount(planet.name, Team.sharded, AirstrikeItems.nuke.name));
+        assertEquals(1, OrbitalData.getOrbitalWeaponCount(planet.name, Team.blue, AirstrikeItems.precisionBomb.name));
+        assertEquals(5, OrbitalData.getOrbitalWeaponCount("4", Team.crux, AirstrikeItems.precisionBomb.name));
+        assertEquals(serialized, OrbitalData.serializedOrbitalData());
+    }
+
+    @Test
+    void legacyDataBelongsToLegacyTeam() {
+        String nuke = AirstrikeItems.nuke.name;
+        OrbitalData.deserializeOrbitalData("{\"planets\":{},\"sectors\":{\"2\":[\"" + nuke + "\",\"" + nuke + "\"]}}");
+
+        assertEquals(2, OrbitalData.getOrbitalWeaponCount("2", OrbitalData.legacyTeam, nuke));
+        assertEquals(0, OrbitalData.getOrbitalWeaponCount("2", Team.crux));
+    }
+
+    @Test
+    void correctionFollowsSaveFiles() {
+        Planet planet = PlanetFixture.create();
+        saves.addSectorSave(planet, 12);
+        saves.addCustomSave(3);
+        saves.addBackup(7);
+        OrbitalData.sectorOrbitalWeapons.put("5", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("5", Team.sharded, AirstrikeItems.nuke, 1);
+
+        OrbitalData.correctOrbitalData();
+
+        assertTrue(OrbitalData.planetOrbitalWeapons.containsKey(planet.name));
+        assertTrue(OrbitalData.sectorOrbitalWeapons.containsKey("3"));
+        // Sectors without a save file are removed, backups don't count as saves
+        assertFalse(OrbitalData.sectorOrbitalWeapons.containsKey("5"));
+        assertFalse(OrbitalData.sectorOrbitalWeapons.containsKey("7"));
+        // The headless game's own location is always kept
+        assertTrue(OrbitalData.sectorOrbitalWeapons.containsKey(AirstrikeUtils.unsavedSectorId));
+    }
+
+    @Test
+    void correctionRemovesUnknownWeapons() {
+        OrbitalData.deserializeOrbitalData("{\"planets\":{},\"sectors\":{\"-1\":{\"1\":[\"" + AirstrikeItems.nuke.name + "\",\"removed-weapon\"]}}}");
+
+        OrbitalData.correctOrbitalData();
+
+        assertEquals(1, OrbitalData.getOrbitalWeaponCount("-1", Team.sharded));
+        assertEquals(1, OrbitalData.getOrbitalWeaponCount("-1", Team.sharded, AirstrikeItems.nuke.name));
+    }
+
+    @Test
+    void correctionCleansGeneratedCampaign() {
+        CampaignFixture campaign = CampaignFixture.generate(2, 10, 20, 50, 0.2f, 0);
+        try {
+            OrbitalData.correctOrbitalData();
+
+            for (Planet planet : campaign.planets) {
+                assertTrue(OrbitalData.planetOrbitalWeapons.containsKey(planet.name));
+            }
+            for (String sectorId : campaign.sectors) {
+                assertTrue(OrbitalData.sectorOrbitalWeapons.containsKey(sectorId));
+            }
+            for (String sectorId : campaign.staleSectors) {
+                assertFalse(OrbitalData.sectorOrbitalWeapons.containsKey(sectorId));
+            }
+            assertFalse(OrbitalData.serializedOrbitalData().contains(CampaignFixture.unknownWeapon));
+        } finally {
+            campaign.dispose();
+        }
+    }
+
+    @Test
+    void missingLocationIsCreatedOnAccess() {
+        assertFalse(OrbitalData.sectorOrbitalWeapons.containsKey(AirstrikeUtils.unsavedSectorId));
+
+        assertNotNull(OrbitalData.getOrbitalWeapons(Team.sharded));
+        assertTrue(OrbitalData.sectorOrbitalWeapons.containsKey(AirstrikeUtils.unsavedSectorId));
+
+        OrbitalData.addOrbitalWeapon(Team.sharded, AirstrikeItems.nuke);
+        assertEquals(1, OrbitalData.getCurrentOrbitalWeaponCount(Team.sharded));
+    }
+
+    @Test
+    void correctionKeepsCurrentLocation() {
+        Planet planet = PlanetFixture.create();
+        PlanetFixture.enter(planet);
+        OrbitalData.addOrbitalWeapon(Team.sharded, AirstrikeItems.nuke);
+
+        // No saves at all, as on a fresh map
+        OrbitalData.correctOrbitalData(new HashMap<>());
+
+        assertEquals(1, OrbitalData.getOrbitalWeaponCount(planet.name, Team.sharded));
+    }
+
+    @Test
+    void currentLocationFollowsPlanet() {
+        Planet planet = PlanetFixture.create();
+        OrbitalData.planetOrbitalWeapons.put(planet.name, new OrbitalLocation());
+        OrbitalData.sectorOrbitalWeapons.put(AirstrikeUtils.unsavedSectorId, new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToPlanet(planet.name, Team.sharded, AirstrikeItems.nuke, 4);
+
+        assertEquals(AirstrikeUtils.unsavedSectorId, AirstrikeUtils.getLocation());
+        assertEquals(0, OrbitalData.getCurrentOrbitalWeaponCount(Team.sharded));
+
+        PlanetFixture.enter(planet);
+        assertEquals(planet.name, AirstrikeUtils.getLocation());
+        assertEquals(4, OrbitalData.getCurrentOrbitalWeaponCount(Team.sharded));
+    }
+}
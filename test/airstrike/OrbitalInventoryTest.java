@@ -0,0 +1,96 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.items.AirstrikeWeapon;
+import mindustry.game.Team;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalInventoryTest {
+    private final OrbitalInventory inventory = OrbitalInventory.get();
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+    }
+
+    @Test
+    void batchesApplyTogether() {
+        assertTrue(inventory.batch()
+                .add("1", Team.sharded, AirstrikeItems.nuke, 3)
+                .add("1", Team.sharded, AirstrikeItems.precisionBomb, 2)
+                .remove("1", Team.sharded, AirstrikeItems.nuke, 1)
+                .apply());
+
+        assertEquals(4, inventory.count("1", Team.sharded));
+        assertEquals(2, inventory.count("1", Team.sharded, AirstrikeItems.nuke));
+    }
+
+    @Test
+    void failedBatchChangesNothing() {
+        inventory.batch().add("1", Team.sharded, AirstrikeItems.nuke, 1).apply();
+
+        assertFalse(inventory.batch()
+                .add("1", Team.sharded, AirstrikeItems.precisionBomb, 5)
+                .remove("1", Team.sharded, AirstrikeItems.nuke, 2)
+                .apply());
+
+        assertEquals(1, inventory.count("1", Team.sharded));
+    }
+
+    @Test
+    void eachVisitsCountsPerWeapon() {
+        inventory.batch()
+                .add("1", Team.crux, AirstrikeItems.nuke, 2)
+                .add("1", Team.crux, AirstrikeItems.precisionBomb, 7)
+                .apply();
+        HashMap<AirstrikeWeapon, Integer> counts = new HashMap<>();
+
+        inventory.each("1", Team.crux, counts::put);
+
+        assertEquals(2, counts.size());
+        assertEquals(2, counts.get(AirstrikeItems.nuke));
+        assertEquals(7, counts.get(AirstrikeItems.precisionBomb));
+        inventory.each("unknown", Team.crux, (weapon, count) -> fail("Unknown locations have no weapons"));
+    }
+
+    @Test
+    void listenersSeeChangesAndReloads() {
+        ArrayList<String> events = new ArrayList<>();
+        OrbitalInventory.ChangeListener listener = new OrbitalInventory.ChangeListener() {
+            @Override
+            public void changed(String location, Team team, AirstrikeWeapon weapon, int change) {
+                events.add(location + " " + team.name + " " + weapon.name + " " + change);
+            }
+
+            @Override
+            public void reloaded() {
+                events.add("reloaded");
+            }
+        };
+        inventory.addListener(listener);
+        try {
+            inventory.batch().add("1", Team.sharded, AirstrikeItems.nuke, 2).remove("1", Team.sharded, AirstrikeItems.nuke, 1).apply();
+            OrbitalData.deserializeOrbitalData(OrbitalData.serializedOrbitalData());
+        } finally {
+            inventory.removeListener(listener);
+        }
+
+        assertEquals(3, events.size());
+        assertEquals("1 sharded " + AirstrikeItems.nuke.name + " 2", events.get(0));
+        assertEquals("1 sharded " + AirstrikeItems.nuke.name + " -1", events.get(1));
+        assertEquals("reloaded", events.get(2));
+    }
+}
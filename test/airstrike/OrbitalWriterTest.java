@@ -0,0 +1,33 @@
+package airstrike;
+
+import airstrike.fixtures.GameFixture;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalWriterTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @Test
+    void burstsEndWithNewestData() {
+        for (int i = 0; i < 1000; i++) {
+            OrbitalWriter.submit("{\"write\":" + i + "}");
+        }
+        OrbitalWriter.flush();
+
+        assertEquals("{\"write\":999}", OrbitalWriter.file().readString());
+        assertFalse(OrbitalWriter.file().sibling(OrbitalWriter.file().name() + ".tmp").exists());
+    }
+
+    @Test
+    void readSeesPendingData() {
+        OrbitalWriter.submit("{\"pending\":true}");
+
+        assertEquals("{\"pending\":true}", OrbitalWriter.read());
+    }
+}
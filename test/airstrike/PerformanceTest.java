@@ -0,0 +1,57 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import arc.util.Time;
+import mindustry.Vars;
+import mindustry.game.Team;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Coarse timing checks that catch large regressions.
+ * <p>
+ * Budgets are generous so the tests pass on slow CI machines, precise numbers come from the JMH benchmarks.
+ */
+@Tag("performance")
+public class PerformanceTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @Test
+    void serializationOfLargeInventory() {
+        GameFixture.reset();
+        for (int i = 0; i < 100; i++) {
+            OrbitalData.sectorOrbitalWeapons.put(String.valueOf(i), new OrbitalLocation());
+            OrbitalData.addOrbitalWeaponToSector(String.valueOf(i), Team.sharded, AirstrikeItems.nuke, 1000);
+        }
+
+        long start = Time.nanos();
+        String serialized = OrbitalData.serializedOrbitalData();
+        OrbitalData.deserializeOrbitalData(serialized);
+        long millis = Time.millisSinceNanos(start);
+
+        assertEquals(1000, OrbitalData.getOrbitalWeaponCount("99", Team.sharded));
+        assertTrue(millis < 2000, "Serialization round trip took " + millis + "ms");
+    }
+
+    @Test
+    void explosionOnDenseWorld() {
+        WorldFixture.createWorld(200, 0.5f, 0);
+
+        long start = Time.nanos();
+        for (int i = 0; i < 100; i++) {
+            AirstrikeUtils.explosion(Vars.world.tile(100, 100), 40f, 0f, 0f, 0f, 0f);
+        }
+        long millis = Time.millisSinceNanos(start);
+
+        assertTrue(millis < 5000, "100 explosions took " + millis + "ms");
+    }
+}
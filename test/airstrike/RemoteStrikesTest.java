@@ -0,0 +1,81 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Unit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteStrikesTest {
+    private static final String sector = "serpulo-15";
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        RemoteStrikes.clear();
+    }
+
+    @Test
+    void impactsWaitForTheirSector() {
+        RemoteStrikes.queue(sector, Team.sharded, AirstrikeItems.precisionBomb, 20, 20);
+        RemoteStrikes.queue(sector, Team.sharded, AirstrikeItems.precisionBomb, 40, 40);
+
+        assertEquals(2, RemoteStrikes.pendingCount(sector));
+        assertEquals(0, RemoteStrikes.pendingCount("serpulo-16"));
+        assertEquals(0, RemoteStrikes.applyPending("serpulo-16"));
+        assertEquals(2, RemoteStrikes.pendingCount(sector));
+    }
+
+    @Test
+    void impactsLandOnceWhenTheSectorLoads() {
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 20, 20);
+        RemoteStrikes.queue(sector, Team.sharded, AirstrikeItems.precisionBomb, 20, 20);
+
+        assertEquals(1, RemoteStrikes.applyPending(sector));
+
+        assertTrue(unit.health < unit.type.health);
+        assertEquals(0, RemoteStrikes.pendingCount(sector));
+        assertEquals(0, RemoteStrikes.applyPending(sector));
+    }
+
+    @Test
+    void impactsOutsideTheWorldAreDropped() {
+        RemoteStrikes.queue(sector, Team.sharded, AirstrikeItems.precisionBomb, 500, 500);
+
+        assertEquals(0, RemoteStrikes.applyPending(sector));
+        assertEquals(0, RemoteStrikes.pendingCount(sector));
+    }
+
+    @Test
+    void pendingImpactsSurviveWriting() throws IOException {
+        RemoteStrikes.queue(sector, Team.sharded, AirstrikeItems.precisionBomb, 20, 20);
+        RemoteStrikes.queue(sector, Team.crux, AirstrikeItems.nuke, 30, 60);
+        RemoteStrikes.queue("serpulo-16", Team.sharded, AirstrikeItems.clusterBomb, 10, 10);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RemoteStrikes.write(new DataOutputStream(bytes));
+
+        RemoteStrikes.clear();
+        RemoteStrikes.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, RemoteStrikes.pendingCount(sector));
+        assertEquals(1, RemoteStrikes.pendingCount("serpulo-16"));
+    }
+}
@@ -0,0 +1,90 @@
+package airstrike;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import mindustry.game.Team;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SatelliteOrbitsTest {
+    private static final String location = "serpulo";
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        SatelliteOrbits.clear();
+    }
+
+    @Test
+    void teamsWithoutSatellitesDontWait() {
+        assertEquals(0f, SatelliteOrbits.waitTime(location, Team.sharded, 0.1f, 0L));
+    }
+
+    @Test
+    void satellitesAboveTheTargetDropRightAway() {
+        SatelliteOrbits.launch(location, Team.sharded, AirstrikeItems.smallSatellite, 0.1f, 0L);
+
+        assertEquals(0f, SatelliteOrbits.waitTime(location, Team.sharded, 0.1f, 0L));
+        // Slightly past the target, but still inside the drop window
+        assertEquals(0f, SatelliteOrbits.waitTime(location, Team.sharded, 0.1f - SatelliteOrbits.dropWindow / 2f, 0L));
+    }
+
+    @Test
+    void waitDependsOnTheSatellitePosition() {
+        float period = AirstrikeItems.smallSatellite.orbitalPeriod;
+        SatelliteOrbits.launch(location, Team.sharded, AirstrikeItems.smallSatellite, 0f, 0L);
+
+        float halfOrbit = (0.5f - SatelliteOrbits.dropWindow) * period;
+        assertEquals(halfOrbit, SatelliteOrbits.waitTime(location, Team.sharded, 0.5f, 0L), 0.01f);
+        // A quarter of an orbit later, the satellite is a quarter of an orbit closer
+        long quarter = (long) (period * 1000f / 4f);
+        assertEquals(halfOrbit - period / 4f, SatelliteOrbits.waitTime(location, Team.sharded, 0.5f, quarter), 0.01f);
+        // Having just passed the target, it has to go all the way around
+        assertTrue(SatelliteOrbits.waitTime(location, Team.sharded, 0.5f, (long) (period * 1000f * 0.52f)) > period * 0.9f);
+    }
+
+    @Test
+    void closestSatelliteOfTheTeamIsUsed() {
+        float period = AirstrikeItems.mediumSatellite.orbitalPeriod;
+        SatelliteOrbits.launch(location, Team.sharded, AirstrikeItems.mediumSatellite, 0f, 0L);
+        SatelliteOrbits.launch(location, Team.sharded, AirstrikeItems.mediumSatellite, 0.4f, 0L);
+        SatelliteOrbits.launch(location, Team.crux, AirstrikeItems.mediumSatellite, 0.49f, 0L);
+
+        float wait = SatelliteOrbits.waitTime(location, Team.sharded, 0.5f, 0L);
+
+        assertEquals((0.1f - SatelliteOrbits.dropWindow) * period, wait, 0.01f);
+        assertEquals(0f, SatelliteOrbits.waitTime(location, Team.crux, 0.5f, 0L));
+        assertEquals(0f, SatelliteOrbits.waitTime("other-location", Team.sharded, 0.5f, 0L));
+    }
+
+    @Test
+    void satellitesSurviveWriting() throws IOException {
+        SatelliteOrbits.launch(location, Team.sharded, AirstrikeItems.smallSatellite, 0.2f, 1000L);
+        SatelliteOrbits.launch(location, Team.crux, AirstrikeItems.largeSatellite, 0.7f, 2000L);
+        SatelliteOrbits.launch("3", Team.sharded, AirstrikeItems.mediumSatellite, 0f, 3000L);
+        float wait = SatelliteOrbits.waitTime(location, Team.sharded, 0.6f, 5000L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SatelliteOrbits.write(new DataOutputStream(bytes));
+
+        SatelliteOrbits.clear();
+        SatelliteOrbits.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(1, SatelliteOrbits.count(location, Team.sharded));
+        assertEquals(1, SatelliteOrbits.count(location, Team.crux));
+        assertEquals(1, SatelliteOrbits.count("3", Team.sharded));
+        assertEquals(wait, SatelliteOrbits.waitTime(location, Team.sharded, 0.6f, 5000L));
+    }
+}
@@ -0,0 +1,101 @@
+package airstrike.blocks;
+
+import airstrike.OrbitalData;
+import airstrike.content.AirstrikeBlocks;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Unit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BeaconSentinelTest {
+    private Beacon.BeaconBuild beacon;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        beacon = (Beacon.BeaconBuild) WorldFixture.placeBuilding(AirstrikeBlocks.beacon, Team.sharded, 50, 50);
+        beacon.sentinelThreshold = 2;
+        beacon.sentinelWeapon = AirstrikeItems.precisionBomb;
+        OrbitalData.addOrbitalWeapon(Team.sharded, AirstrikeItems.precisionBomb, 3);
+    }
+
+    @Test
+    void strikesWhenThresholdIsReached() {
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 52, 50);
+        check();
+        assertEquals(3, weaponsInOrbit());
+
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 48, 50);
+        check();
+        assertEquals(2, weaponsInOrbit());
+        assertFalse(beacon.sentinelArmed);
+    }
+
+    @Test
+    void ignoresFarAndFriendlyUnits() {
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 90, 90);
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 10, 10);
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.sharded, 51, 50);
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.sharded, 49, 50);
+        check();
+
+        assertEquals(3, weaponsInOrbit());
+        assertTrue(beacon.sentinelArmed);
+    }
+
+    @Test
+    void rearmsOnlyAfterEnemiesLeave() {
+        Unit first = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 52, 50);
+        Unit second = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 48, 50);
+        check();
+        assertEquals(2, weaponsInOrbit());
+
+        // Still at half the threshold, the sentinel stays disarmed
+        second.remove();
+        WorldFixture.refreshUnits();
+        check();
+        assertFalse(beacon.sentinelArmed);
+
+        first.remove();
+        WorldFixture.refreshUnits();
+        check();
+        assertTrue(beacon.sentinelArmed);
+
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 52, 50);
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 48, 50);
+        check();
+        assertEquals(1, weaponsInOrbit());
+    }
+
+    @Test
+    void doesNothingWhenOff() {
+        beacon.sentinelThreshold = 0;
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 52, 50);
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 48, 50);
+        check();
+
+        assertEquals(3, weaponsInOrbit());
+    }
+
+    private void check() {
+        beacon.sentinelTimer = 0f;
+        beacon.updateSentinel();
+    }
+
+    private int weaponsInOrbit() {
+        return OrbitalData.getCurrentOrbitalWeaponCount(Team.sharded, AirstrikeItems.precisionBomb.name);
+    }
+}
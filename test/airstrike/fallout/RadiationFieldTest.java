@@ -0,0 +1,123 @@
+package airstrike.fallout;
+
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import mindustry.gen.Unit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RadiationFieldTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        Vars.state.tick = 0;
+        RadiationField.reset();
+    }
+
+    @Test
+    void fallsOffFromCenter() {
+        RadiationField.contaminate(Vars.world.tile(50, 50), 10f, 1f);
+
+        assertEquals(1f, RadiationField.level(50, 50), 0.0001f);
+        assertEquals(0.5f, RadiationField.level(55, 50), 0.0001f);
+        assertEquals(0f, RadiationField.level(61, 50));
+    }
+
+    @Test
+    void decaysLazily() {
+        RadiationField.contaminate(Vars.world.tile(50, 50), 10f, 1f);
+
+        Vars.state.tick = RadiationField.halfLife;
+        assertEquals(0.5f, RadiationField.level(50, 50), 0.0001f);
+
+        // Adding to a decayed cell starts from its current level
+        RadiationField.contaminate(Vars.world.tile(50, 50), 10f, 1f);
+        assertEquals(1.5f, RadiationField.level(50, 50), 0.0001f);
+
+        Vars.state.tick += RadiationField.halfLife * 20;
+        assertEquals(0f, RadiationField.level(50, 50));
+        assertFalse(RadiationField.isActive());
+    }
+
+    @Test
+    void damagesGroundUnitsAndBuildings() {
+        Unit inside = WorldFixture.spawnUnit(UnitTypes.dagger, Team.sharded, 50, 50);
+        Unit outside = WorldFixture.spawnUnit(UnitTypes.dagger, Team.sharded, 80, 80);
+        Unit flying = WorldFixture.spawnUnit(UnitTypes.flare, Team.sharded, 51, 50);
+        Building wall = WorldFixture.placeBuilding(Blocks.thoriumWall, Team.sharded, 49, 50);
+        RadiationField.contaminate(Vars.world.tile(50, 50), 10f, 1f);
+
+        RadiationField.applyDamage(1f);
+
+        assertTrue(inside.health < inside.maxHealth);
+        assertTrue(wall.health < wall.maxHealth);
+        assertEquals(outside.maxHealth, outside.health);
+        assertEquals(flying.maxHealth, flying.health);
+    }
+
+    @Test
+    void chunkRoundTrips() throws IOException {
+        RadiationField.contaminate(Vars.world.tile(20, 20), 5f, 2f);
+        RadiationField.contaminate(Vars.world.tile(70, 30), 8f, 1f);
+        float first = RadiationField.level(21, 20);
+        float second = RadiationField.level(70, 33);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new RadiationChunk().write(new DataOutputStream(bytes));
+        RadiationField.reset();
+        assertEquals(0f, RadiationField.level(21, 20));
+
+        new RadiationChunk().read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        RadiationChunk.applyLoaded();
+
+        assertEquals(first, RadiationField.level(21, 20), 0.0001f);
+        assertEquals(second, RadiationField.level(70, 33), 0.0001f);
+        assertTrue(RadiationField.isActive());
+    }
+
+    @Test
+    void emptyFieldIsSmall() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new RadiationChunk().write(new DataOutputStream(bytes));
+
+        // Version, length, width, height and a cell count of 0
+        assertEquals(17, bytes.size());
+    }
+
+    @Test
+    void unknownChunkVersionsAreSkippedWhole() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream stream = new DataOutputStream(bytes);
+        stream.writeByte(RadiationChunk.version + 1);
+        stream.writeInt(3);
+        stream.write(new byte[]{1, 2, 3});
+        // Whatever follows the chunk in the save
+        stream.writeInt(42);
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        new RadiationChunk().read(input);
+
+        assertEquals(42, input.readInt());
+    }
+}
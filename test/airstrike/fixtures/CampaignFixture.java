@@ -0,0 +1,106 @@
+package airstrike.fixtures;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import arc.math.Rand;
+import mindustry.game.Team;
+import mindustry.type.Planet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * Generates a large synthetic campaign: a save directory full of sector and custom-map saves,
+ * and orbital data of configurable size for them.
+ * <p>
+ * A fraction of the orbital data is stale, belonging to locations without saves or naming unknown weapons,
+ * so {@link OrbitalData#correctOrbitalData()} has real work to do.
+ */
+public class CampaignFixture {
+    // Weapon name that is not registered, removed by the correction
+    public static final String unknownWeapon = "removed-weapon";
+    // Teams owning the generated weapons
+    public static final Team[] teams = {Team.sharded, Team.crux, Team.malis};
+
+    public final SaveDirectoryFixture saves = new SaveDirectoryFixture();
+    public final ArrayList<Planet> planets = new ArrayList<>();
+    public final ArrayList<String> sectors = new ArrayList<>();
+    public final ArrayList<String> staleSectors = new ArrayList<>();
+
+    /**
+     * Generates a campaign and replaces the current orbital data with its orbital data.
+     *
+     * @param planetCount the number of planets with sector saves
+     * @param sectorsPerPlanet the number of sector saves per planet
+     * @param customSaves the number of custom-map saves, each with its own orbital data
+     * @param weaponsPerLocation the number of orbital weapons per planet and custom-map save
+     * @param staleFraction the fraction of extra sectors without saves, and of unknown weapons
+     * @param seed the random seed
+     * @return the generated campaign, to be disposed of after use
+     */
+    public static CampaignFixture generate(int planetCount, int sectorsPerPlanet, int customSaves, int weaponsPerLocation, float staleFraction, long seed) {
+        CampaignFixture campaign = new CampaignFixture();
+        Rand rand = new Rand(seed);
+        OrbitalData.planetOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons = new HashMap<>();
+
+        for (int i = 0; i < planetCount; i++) {
+            Planet planet = PlanetFixture.create();
+            campaign.planets.add(planet);
+            for (int sector = 0; sector < sectorsPerPlanet; sector++) {
+                campaign.saves.addSectorSave(planet, sector);
+                // Every sector is saved with a backup, which the scan has to skip
+                campaign.saves.addFile("sector-" + planet.name + "-" + sector + "-backup.msav");
+            }
+            OrbitalData.planetOrbitalWeapons.put(planet.name, location(rand, weaponsPerLocation, staleFraction));
+        }
+
+        for (int i = 0; i < customSaves; i++) {
+            campaign.saves.addCustomSave(i);
+            campaign.saves.addBackup(i);
+            campaign.sectors.add(String.valueOf(i));
+            OrbitalData.sectorOrbitalWeapons.put(String.valueOf(i), location(rand, weaponsPerLocation, staleFraction));
+        }
+        // Sectors whose saves were deleted, ids continue after the saved ones
+        int stale = Math.round(customSaves * staleFraction);
+        for (int i = 0; i < stale; i++) {
+            String sectorId = String.valueOf(customSaves + i);
+            campaign.staleSectors.add(sectorId);
+            OrbitalData.sectorOrbitalWeapons.put(sectorId, location(rand, weaponsPerLocation, staleFraction));
+        }
+        return campaign;
+    }
+
+    /**
+     * Returns the total number of save files in the generated save directory, including backups.
+     *
+     * @return the number of files
+     */
+    public int fileCount() {
+        return saves.directory.list().length;
+    }
+
+    /**
+     * Deletes the generated save directory and clears the orbital data.
+     */
+    public void dispose() {
+        saves.dispose();
+        OrbitalData.planetOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons = new HashMap<>();
+    }
+
+    private static OrbitalLocation location(Rand rand, int weapons, float staleFraction) {
+        OrbitalLocation location = new OrbitalLocation();
+        for (int i = 0; i < weapons; i++) {
+            LinkedList<String> orbitalWeapons = location.get(teams[rand.random(teams.length - 1)]);
+            if (rand.chance(staleFraction)) {
+                orbitalWeapons.add(unknownWeapon);
+            } else {
+                orbitalWeapons.add(rand.chance(0.1f) ? AirstrikeItems.nuke.name : AirstrikeItems.precisionBomb.name);
+            }
+        }
+        return location;
+    }
+}
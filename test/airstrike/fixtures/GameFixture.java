@@ -0,0 +1,119 @@
+package airstrike.fixtures;
+
+import airstrike.OrbitalData;
+import airstrike.content.AirstrikeBlocks;
+import airstrike.content.AirstrikeItems;
+import arc.ApplicationCore;
+import arc.Core;
+import arc.backend.headless.HeadlessApplication;
+import arc.files.Fi;
+import arc.util.Log;
+import mindustry.Vars;
+import mindustry.core.FileTree;
+import mindustry.core.Logic;
+import mindustry.net.Net;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots a headless game with the base content and the mod's content, for tests and benchmarks.
+ */
+public class GameFixture {
+    private static boolean launched;
+
+    /**
+     * Starts the headless game once per JVM, blocking until content is loaded.
+     * <p>
+     * The game's data directory (and with it the save directory) is a new temporary directory.
+     */
+    public static synchronized void launch() {
+        if (launched) {
+            return;
+        }
+        Fi dataDirectory = tempDirectory("airstrike-data");
+        boolean[] ready = {false};
+        Throwable[] error = {null};
+
+        ApplicationCore core = new ApplicationCore() {
+            @Override
+            public void setup() {
+                Core.settings.setDataDirectory(dataDirectory);
+                Vars.headless = true;
+                Vars.net = new Net(null);
+                Vars.tree = new FileTree();
+                Vars.init();
+                Vars.content.createBaseContent();
+                AirstrikeItems.load();  // Items need to be loaded before blocks, as they need them
+                AirstrikeBlocks.load();
+                add(Vars.logic = new Logic());
+                Vars.content.init();
+            }
+
+            @Override
+            public void init() {
+                super.init();
+                ready[0] = true;
+            }
+        };
+        new HeadlessApplication(core, throwable -> error[0] = throwable);
+
+        while (!ready[0]) {
+            if (error[0] != null) {
+                throw new RuntimeException("Failed to launch headless game", error[0]);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        // Debug logging in the mod would otherwise flood the output
+        Log.level = Log.LogLevel.err;
+        launched = true;
+    }
+
+    /**
+     * Clears the orbital data and the current world, and leaves any planet that was entered.
+     */
+    public static void reset() {
+        OrbitalData.planetOrbitalWeapons = new HashMap<>();
+        OrbitalData.sectorOrbitalWeapons = new HashMap<>();
+        PlanetFixture.leave();
+        Vars.logic.reset();
+    }
+
+    /**
+     * Blocks until every task posted to the application so far has run.
+     * <p>
+     * Tasks those tasks post in turn may still be waiting, call this again to run them as well.
+     */
+    public static void awaitPosted() {
+        CountDownLatch latch = new CountDownLatch(1);
+        Core.app.post(latch::countDown);
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Posted tasks did not run");
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a new temporary directory.
+     *
+     * @param prefix the prefix of the directory name
+     * @return the new directory
+     */
+    public static Fi tempDirectory(String prefix) {
+        try {
+            return new Fi(Files.createTempDirectory(prefix).toFile());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
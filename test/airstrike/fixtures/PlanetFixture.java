@@ -0,0 +1,40 @@
+package airstrike.fixtures;
+
+import mindustry.Vars;
+import mindustry.content.Planets;
+import mindustry.type.Planet;
+
+/**
+ * Fake campaign planets, for testing orbital data shared across a planet's sectors.
+ */
+public class PlanetFixture {
+    private static int created;
+
+    /**
+     * Creates a new planet with a small sector grid.
+     * <p>
+     * The name contains dashes, like the names of many modded planets, to exercise save name parsing.
+     *
+     * @return the new planet
+     */
+    public static Planet create() {
+        created++;
+        return new Planet("fake-planet-" + created, Planets.sun, 1f, 1);
+    }
+
+    /**
+     * Makes the game report the first sector of the given planet as the current sector.
+     *
+     * @param planet the planet to enter
+     */
+    public static void enter(Planet planet) {
+        Vars.state.rules.sector = planet.sectors.first();
+    }
+
+    /**
+     * Makes the game report that no planet is entered (not in campaign).
+     */
+    public static void leave() {
+        Vars.state.rules.sector = null;
+    }
+}
@@ -0,0 +1,72 @@
+package airstrike.fixtures;
+
+import arc.files.Fi;
+import mindustry.Vars;
+import mindustry.type.Planet;
+
+/**
+ * A temporary save directory, replacing {@link Vars#saveDirectory} while in use.
+ * <p>
+ * Save files are empty, as the mod only looks at their names.
+ */
+public class SaveDirectoryFixture {
+    public final Fi directory;
+    private final Fi previous;
+
+    public SaveDirectoryFixture() {
+        previous = Vars.saveDirectory;
+        directory = GameFixture.tempDirectory("airstrike-saves");
+        Vars.saveDirectory = directory;
+    }
+
+    /**
+     * Adds the save file of a campaign sector.
+     *
+     * @param planet the planet of the sector
+     * @param sectorId the id of the sector
+     * @return the new save file
+     */
+    public Fi addSectorSave(Planet planet, int sectorId) {
+        return addFile("sector-" + planet.name + "-" + sectorId + ".msav");
+    }
+
+    /**
+     * Adds the save file of a custom game.
+     *
+     * @param saveId the id of the save slot
+     * @return the new save file
+     */
+    public Fi addCustomSave(int saveId) {
+        return addFile(saveId + ".msav");
+    }
+
+    /**
+     * Adds the backup of a custom game's save file, which the mod must ignore.
+     *
+     * @param saveId the id of the save slot
+     * @return the new backup file
+     */
+    public Fi addBackup(int saveId) {
+        return addFile(saveId + "-backup.msav");
+    }
+
+    /**
+     * Adds an empty file with the given name.
+     *
+     * @param name the file name
+     * @return the new file
+     */
+    public Fi addFile(String name) {
+        Fi file = directory.child(name);
+        file.writeString("");
+        return file;
+    }
+
+    /**
+     * Deletes the directory and restores the previous save directory.
+     */
+    public void dispose() {
+        directory.deleteDirectory();
+        Vars.saveDirectory = previous;
+    }
+}
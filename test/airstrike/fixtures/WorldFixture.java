@@ -0,0 +1,110 @@
+package airstrike.fixtures;
+
+import arc.math.Mathf;
+import arc.math.Rand;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import mindustry.gen.Groups;
+import mindustry.gen.Unit;
+import mindustry.type.UnitType;
+import mindustry.world.Block;
+import mindustry.world.Tile;
+import mindustry.world.Tiles;
+
+/**
+ * Builds small worlds with buildings and units, replacing the current world.
+ */
+public class WorldFixture {
+
+    /**
+     * Replaces the current world with an empty square stone map.
+     *
+     * @param size the width and height of the map in tiles
+     */
+    public static void createWorld(int size) {
+        GameFixture.reset();
+        Vars.world.beginMapLoad();
+        Tiles tiles = Vars.world.resize(size, size);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                tiles.set(x, y, new Tile(x, y, Blocks.stone, Blocks.air, Blocks.air));
+            }
+        }
+        Vars.world.endMapLoad();
+    }
+
+    /**
+     * Replaces the current world with a square stone map with randomly placed walls and units.
+     *
+     * @param size the width and height of the map in tiles
+     * @param density the chance of each tile to hold a wall, and of each tenth tile to hold a unit
+     * @param seed the random seed
+     */
+    public static void createWorld(int size, float density, long seed) {
+        createWorld(size);
+        Rand rand = new Rand(seed);
+        for (Tile tile : Vars.world.tiles) {
+            if (rand.chance(density)) {
+                tile.setBlock(Blocks.copperWall, Team.crux);
+            }
+        }
+        int units = Mathf.round(size * size * density / 10f);
+        for (int i = 0; i < units; i++) {
+            UnitTypes.dagger.spawn(Team.crux, rand.random(size * Vars.tilesize), rand.random(size * Vars.tilesize));
+        }
+        refreshUnits();
+    }
+
+    /**
+     * Places a building on the given tile.
+     *
+     * @param block the block to place
+     * @param team the team owning the building
+     * @param x the tile x coordinate
+     * @param y the tile y coordinate
+     * @return the new building
+     */
+    public static Building placeBuilding(Block block, Team team, int x, int y) {
+        Tile tile = Vars.world.tile(x, y);
+        tile.setBlock(block, team);
+        return tile.build;
+    }
+
+    /**
+     * Removes the building on the given tile.
+     *
+     * @param x the tile x coordinate
+     * @param y the tile y coordinate
+     */
+    public static void removeBuilding(int x, int y) {
+        Vars.world.tile(x, y).setAir();
+    }
+
+    /**
+     * Spawns a unit centered on the given tile.
+     *
+     * @param type the type of the unit
+     * @param team the team of the unit
+     * @param x the tile x coordinate
+     * @param y the tile y coordinate
+     * @return the new unit
+     */
+    public static Unit spawnUnit(UnitType type, Team team, int x, int y) {
+        Unit unit = type.spawn(team, x * Vars.tilesize, y * Vars.tilesize);
+        refreshUnits();
+        return unit;
+    }
+
+    /**
+     * Rebuilds the spatial index of units, which the game otherwise only does while updating.
+     * <p>
+     * Units are only found by range queries once they are in the index.
+     */
+    public static void refreshUnits() {
+        Groups.unit.tree().clear();
+        Groups.unit.each(unit -> Groups.unit.tree().insert(unit));
+    }
+}
@@ -0,0 +1,103 @@
+package airstrike.items;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Building;
+import mindustry.gen.Unit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BombletsTest {
+    private final ClusterWeapon weapon = (ClusterWeapon) AirstrikeItems.clusterBomb;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        Bomblets.clear();
+    }
+
+    @Test
+    void allBombletsLandWithinSpreadTime() {
+        weapon.onImpact(Vars.world.tile(50, 50));
+        assertEquals(weapon.bomblets, Bomblets.size());
+
+        Bomblets.update(weapon.spreadTime / 2f);
+        assertTrue(Bomblets.size() < weapon.bomblets);
+
+        Bomblets.update(weapon.spreadTime / 2f + 1f);
+        assertEquals(0, Bomblets.size());
+    }
+
+    @Test
+    void damageIsSummedPerUnit() {
+        Unit target = WorldFixture.spawnUnit(UnitTypes.fortress, Team.crux, 30, 30);
+        Unit reference = WorldFixture.spawnUnit(UnitTypes.fortress, Team.crux, 80, 80);
+        Unit outside = WorldFixture.spawnUnit(UnitTypes.fortress, Team.crux, 40, 30);
+        for (int i = 0; i < 3; i++) {
+            Bomblets.drop(weapon, target.x, target.y, 0f);
+        }
+
+        Bomblets.update(1f);
+
+        // Three bomblets on the center hit like one explosion with their summed damage
+        reference.damage(weapon.bombletDamage * 3);
+        assertEquals(reference.health, target.health, 0.001f);
+        assertEquals(outside.maxHealth, outside.health);
+    }
+
+    @Test
+    void multiTileBuildingsAreHitOncePerBomblet() {
+        Building wall = WorldFixture.placeBuilding(Blocks.thoriumWallLarge, Team.crux, 20, 20);
+        Building reference = WorldFixture.placeBuilding(Blocks.thoriumWallLarge, Team.crux, 60, 60);
+        Bomblets.drop(weapon, wall.x, wall.y, 0f);
+
+        Bomblets.update(1f);
+
+        reference.damage(weapon.bombletDamage);
+        assertEquals(reference.health, wall.health, 0.001f);
+    }
+
+    @Test
+    void sameStrikeScattersTheSameBomblets() {
+        assertArrayEquals(strikeHealths(7), strikeHealths(7));
+    }
+
+    @Test
+    void clearDropsPendingBomblets() {
+        weapon.onImpact(Vars.world.tile(50, 50));
+        Bomblets.clear();
+
+        assertEquals(0, Bomblets.size());
+    }
+
+    // Health of units around a strike once all of its bomblets have landed, in a fresh world
+    private float[] strikeHealths(int strikeId) {
+        setUp();
+        Unit[] units = new Unit[5];
+        for (int i = 0; i < units.length; i++) {
+            units[i] = WorldFixture.spawnUnit(UnitTypes.fortress, Team.crux, 44 + i * 3, 50);
+        }
+        weapon.onImpact(strikeId, Vars.world.tile(50, 50));
+        Bomblets.update(weapon.spreadTime + 1f);
+
+        float[] healths = new float[units.length];
+        for (int i = 0; i < units.length; i++) {
+            healths[i] = units[i].health;
+        }
+        return healths;
+    }
+}
@@ -0,0 +1,100 @@
+package airstrike.metrics;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import arc.files.Fi;
+import mindustry.game.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalJournalTest {
+    private Fi directory;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        directory = GameFixture.tempDirectory("airstrike-journal");
+    }
+
+    @AfterEach
+    void tearDown() {
+        OrbitalJournal.stop();
+        directory.deleteDirectory();
+    }
+
+    @Test
+    void replayEndsInRecordedInventory() {
+        OrbitalData.sectorOrbitalWeapons.put("1", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("1", Team.sharded, AirstrikeItems.nuke, 2);
+        Fi journal = directory.child("journal.bin");
+
+        OrbitalJournal.start(journal);
+        OrbitalData.sectorOrbitalWeapons.put("2", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("1", Team.sharded, AirstrikeItems.precisionBomb, 5);
+        OrbitalData.addOrbitalWeaponToSector("2", Team.crux, AirstrikeItems.nuke, 3);
+        OrbitalData.removeOrbitalWeaponFromSector("1", Team.sharded, AirstrikeItems.nuke, 1);
+        // Failed removals change nothing and are not recorded
+        OrbitalData.removeOrbitalWeaponFromSector("2", Team.crux, AirstrikeItems.nuke, 10);
+        OrbitalJournal.stop();
+        String recorded = OrbitalData.serializedOrbitalData();
+
+        GameFixture.reset();
+        int records = OrbitalJournal.replay(journal, false);
+
+        // Snapshot and three mutations
+        assertEquals(4, records);
+        assertEquals(recorded, OrbitalData.serializedOrbitalData());
+    }
+
+    @Test
+    void replayIsNotRecorded() {
+        OrbitalData.sectorOrbitalWeapons.put("1", new OrbitalLocation());
+        Fi journal = directory.child("journal.bin");
+        OrbitalJournal.start(journal);
+        OrbitalData.addOrbitalWeaponToSector("1", Team.sharded, AirstrikeItems.nuke, 1);
+        OrbitalJournal.stop();
+
+        Fi second = directory.child("second.bin");
+        OrbitalJournal.start(second);
+        OrbitalJournal.replay(journal, false);
+        OrbitalJournal.stop();
+
+        // Only the snapshot of the second journal
+        assertEquals(1, OrbitalJournal.replay(second, false));
+    }
+
+    @Test
+    void detachedReplayKeepsTheLiveData() {
+        OrbitalData.sectorOrbitalWeapons.put("1", new OrbitalLocation());
+        Fi journal = directory.child("journal.bin");
+        OrbitalJournal.start(journal);
+        OrbitalData.addOrbitalWeaponToSector("1", Team.sharded, AirstrikeItems.nuke, 4);
+        OrbitalJournal.stop();
+        OrbitalData.removeOrbitalWeaponFromSector("1", Team.sharded, AirstrikeItems.nuke, 4);
+        OrbitalData.addOrbitalWeaponToSector("1", Team.crux, AirstrikeItems.precisionBomb, 1);
+        String live = OrbitalData.serializedOrbitalData();
+
+        assertEquals(2, OrbitalJournal.replayDetached(journal));
+
+        assertEquals(live, OrbitalData.serializedOrbitalData());
+    }
+
+    @Test
+    void unknownFilesAreRejected() {
+        Fi file = directory.child("not-a-journal.bin");
+        file.writeString("not a journal");
+
+        assertEquals(-1, OrbitalJournal.replay(file, false));
+    }
+}
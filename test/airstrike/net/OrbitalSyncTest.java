@@ -0,0 +1,111 @@
+package airstrike.net;
+
+import airstrike.OrbitalData;
+import airstrike.OrbitalLocation;
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import arc.util.io.Reads;
+import arc.util.io.Writes;
+import mindustry.game.Team;
+import mindustry.net.Packet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrbitalSyncTest {
+    // Client mirror of the server's orbital data, kept apart from the server's maps in OrbitalData
+    private HashMap<String, OrbitalLocation> mirrorPlanets;
+    private HashMap<String, OrbitalLocation> mirrorSectors;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        mirrorPlanets = new HashMap<>();
+        mirrorSectors = new HashMap<>();
+    }
+
+    @Test
+    void snapshotRoundTrips() {
+        OrbitalData.sectorOrbitalWeapons.put("3", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("3", Team.sharded, AirstrikeItems.nuke, 2);
+        OrbitalData.addOrbitalWeaponToSector("3", Team.crux, AirstrikeItems.precisionBomb, 7);
+
+        OrbitalSnapshotPacket packet = transfer(OrbitalSnapshotPacket.create(), new OrbitalSnapshotPacket());
+        packet.apply(mirrorPlanets, mirrorSectors);
+
+        assertEquals(2, mirrorSectors.get("3").get(Team.sharded).size());
+        assertEquals(7, mirrorSectors.get("3").get(Team.crux).size());
+        assertTrue(mirrorPlanets.isEmpty());
+    }
+
+    @Test
+    void deltaRoundTrips() {
+        mirrorSectors.put("3", new OrbitalLocation());
+        mirrorSectors.get("3").get(Team.sharded).add(AirstrikeItems.nuke.name);
+
+        HashMap<String, HashMap<Integer, Integer>> changes = new HashMap<>();
+        HashMap<Integer, Integer> sectorChanges = new HashMap<>();
+        sectorChanges.put(OrbitalSync.packKey(Team.sharded.id, AirstrikeItems.nuke.id), -1);
+        sectorChanges.put(OrbitalSync.packKey(Team.crux.id, AirstrikeItems.precisionBomb.id), 3);
+        // Changes that cancelled out are not sent
+        sectorChanges.put(OrbitalSync.packKey(Team.blue.id, AirstrikeItems.nuke.id), 0);
+        changes.put("3", sectorChanges);
+
+        OrbitalDeltaPacket sent = OrbitalDeltaPacket.create(new HashMap<>(), changes);
+        assertEquals(2, sent.size());
+        OrbitalDeltaPacket packet = transfer(sent, new OrbitalDeltaPacket());
+        packet.apply(mirrorPlanets, mirrorSectors);
+
+        assertTrue(mirrorSectors.get("3").get(Team.sharded).isEmpty());
+        assertEquals(3, mirrorSectors.get("3").get(Team.crux).size());
+        assertNull(mirrorSectors.get("3").getOrNull(Team.blue));
+    }
+
+    @Test
+    void leavingServerRestoresLocalData() {
+        OrbitalData.sectorOrbitalWeapons.put("3", new OrbitalLocation());
+        OrbitalData.addOrbitalWeaponToSector("3", Team.sharded, AirstrikeItems.nuke, 2);
+        OrbitalData.saveOrbitalData();
+        // A snapshot of a server replaces the local data
+        OrbitalSnapshotPacket snapshot = new OrbitalSnapshotPacket();
+        snapshot.sectors.put("9", new HashMap<>());
+        snapshot.sectors.get("9").put(OrbitalSync.packKey(Team.crux.id, AirstrikeItems.precisionBomb.id), 5);
+        snapshot.apply(OrbitalData.planetOrbitalWeapons, OrbitalData.sectorOrbitalWeapons);
+        OrbitalSync.serverLocation = "9";
+
+        // Not connected to any server, so the mirror is stale
+        OrbitalSync.restoreLocalData();
+
+        assertNull(OrbitalSync.serverLocation);
+        assertFalse(OrbitalData.sectorOrbitalWeapons.containsKey("9"));
+        assertEquals(2, OrbitalData.sectorOrbitalWeapons.get("3").get(Team.sharded).size());
+    }
+
+    @Test
+    void keysPackTeamAndWeapon() {
+        int key = OrbitalSync.packKey(Team.all.length - 1, AirstrikeItems.nuke.id);
+
+        assertEquals(Team.all.length - 1, OrbitalSync.keyTeam(key));
+        assertEquals(AirstrikeItems.nuke.id, OrbitalSync.keyWeapon(key));
+    }
+
+    private static <T extends Packet> T transfer(Packet sent, T received) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sent.write(new Writes(new DataOutputStream(bytes)));
+        received.read(new Reads(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        return received;
+    }
+}
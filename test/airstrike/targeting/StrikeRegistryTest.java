@@ -0,0 +1,150 @@
+package airstrike.targeting;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import arc.math.Mathf;
+import arc.math.Rand;
+import arc.struct.IntSeq;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Unit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrikeRegistryTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        StrikeRegistry.reset();
+    }
+
+    @Test
+    void addAndRemove() {
+        int id = StrikeRegistry.nextId();
+        StrikeRegistry.add(id, Team.sharded, AirstrikeItems.nuke, Vars.world.tile(10, 10), 5f);
+
+        assertTrue(StrikeRegistry.contains(id));
+        assertEquals(1, StrikeRegistry.size());
+        assertTrue(StrikeRegistry.remove(id));
+        assertFalse(StrikeRegistry.remove(id));
+        assertEquals(0, StrikeRegistry.size());
+    }
+
+    @Test
+    void closestEnemyIgnoresOwnTeamAndRange() {
+        int own = StrikeRegistry.nextId();
+        int far = StrikeRegistry.nextId();
+        int near = StrikeRegistry.nextId();
+        StrikeRegistry.add(own, Team.crux, AirstrikeItems.nuke, Vars.world.tile(50, 50), 5f);
+        StrikeRegistry.add(far, Team.sharded, AirstrikeItems.nuke, Vars.world.tile(90, 90), 5f);
+        StrikeRegistry.add(near, Team.sharded, AirstrikeItems.nuke, Vars.world.tile(55, 50), 5f);
+
+        float range = 20f * Vars.tilesize;
+        assertEquals(near, StrikeRegistry.closestEnemy(Team.crux, 50 * Vars.tilesize, 50 * Vars.tilesize, range));
+        assertEquals(-1, StrikeRegistry.closestEnemy(Team.crux, 10 * Vars.tilesize, 10 * Vars.tilesize, range));
+        assertEquals(-1, StrikeRegistry.closestEnemy(Team.sharded, 90 * Vars.tilesize, 90 * Vars.tilesize, range));
+    }
+
+    @Test
+    void derelictStrikesAreNotEngaged() {
+        StrikeRegistry.add(StrikeRegistry.nextId(), Team.derelict, AirstrikeItems.nuke, Vars.world.tile(50, 50), 5f);
+
+        assertEquals(-1, StrikeRegistry.closestEnemy(Team.crux, 50 * Vars.tilesize, 50 * Vars.tilesize, 20f * Vars.tilesize));
+    }
+
+    @Test
+    void groundTurretsDontShootStrikes() {
+        WorldFixture.placeBuilding(Blocks.lancer, Team.crux, 50, 50);
+        int id = StrikeRegistry.nextId();
+        StrikeRegistry.add(id, Team.sharded, AirstrikeItems.nuke, Vars.world.tile(52, 50), 5f);
+
+        StrikeRegistry.intercept(60f);
+
+        assertEquals(AirstrikeItems.nuke.interceptHealth, StrikeRegistry.health(id));
+    }
+
+    @Test
+    void damageShootsDown() {
+        int id = StrikeRegistry.nextId();
+        StrikeRegistry.add(id, Team.sharded, AirstrikeItems.precisionBomb, Vars.world.tile(10, 10), 5f);
+
+        assertFalse(StrikeRegistry.damage(id, AirstrikeItems.precisionBomb.interceptHealth / 2f));
+        assertTrue(StrikeRegistry.contains(id));
+        assertTrue(StrikeRegistry.damage(id, AirstrikeItems.precisionBomb.interceptHealth));
+        assertFalse(StrikeRegistry.contains(id));
+        // A strike that was shot down never lands
+        assertFalse(StrikeRegistry.remove(id));
+    }
+
+    @Test
+    void trackedStrikesFollowTheirUnit() {
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 10, 10);
+        int id = StrikeRegistry.nextId();
+        StrikeRegistry.add(id, Team.sharded, AirstrikeItems.nuke, Vars.world.tile(10, 10), unit.id, 5f);
+        float range = 4f * Vars.tilesize;
+
+        // Tracked strikes are brought up to date by the query itself
+        unit.set(80 * Vars.tilesize, 60 * Vars.tilesize);
+
+        assertEquals(id, StrikeRegistry.closestEnemy(Team.crux, 80 * Vars.tilesize, 60 * Vars.tilesize, range));
+        assertEquals(-1, StrikeRegistry.closestEnemy(Team.crux, 10 * Vars.tilesize, 10 * Vars.tilesize, range));
+        // Once the unit is gone, the strike stays where it was last seen
+        unit.remove();
+        assertEquals(id, StrikeRegistry.closestEnemy(Team.crux, 80 * Vars.tilesize, 60 * Vars.tilesize, range));
+        assertTrue(StrikeRegistry.remove(id));
+    }
+
+    @Test
+    void matchesNaiveSearch() {
+        // Random adds and removes, checked against a plain map of strike positions
+        Rand rand = new Rand(7);
+        HashMap<Integer, int[]> strikes = new HashMap<>();
+        IntSeq live = new IntSeq();
+        for (int step = 0; step < 5000; step++) {
+            if (live.isEmpty() || rand.chance(0.6)) {
+                int id = StrikeRegistry.nextId();
+                int x = rand.random(99);
+                int y = rand.random(99);
+                Team team = rand.chance(0.5) ? Team.sharded : Team.crux;
+                StrikeRegistry.add(id, team, AirstrikeItems.nuke, Vars.world.tile(x, y), 5f);
+                strikes.put(id, new int[]{x, y, team.id});
+                live.add(id);
+            } else {
+                int id = live.removeIndex(rand.random(live.size - 1));
+                assertTrue(StrikeRegistry.remove(id));
+                strikes.remove(id);
+            }
+
+            if (step % 50 == 0) {
+                float x = rand.random(100f) * Vars.tilesize;
+                float y = rand.random(100f) * Vars.tilesize;
+                float range = rand.random(30f) * Vars.tilesize;
+                int[] found = {0};
+                StrikeRegistry.intersect(x, y, range, id -> found[0]++);
+                int expected = 0;
+                for (int[] strike : strikes.values()) {
+                    if (Mathf.within(x, y, strike[0] * Vars.tilesize, strike[1] * Vars.tilesize, range)) {
+                        expected++;
+                    }
+                }
+                assertEquals(expected, found[0]);
+            }
+        }
+        assertEquals(strikes.size(), StrikeRegistry.size());
+    }
+}
@@ -0,0 +1,86 @@
+package airstrike.targeting;
+
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.content.Blocks;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.world.Tile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreatHeatmapTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+        ThreatHeatmap.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        WorldFixture.createWorld(100);
+        ThreatHeatmap.reset();
+    }
+
+    @Test
+    void noEnemiesMeansNoTarget() {
+        WorldFixture.placeBuilding(Blocks.copperWall, Team.sharded, 10, 10);
+
+        assertNull(ThreatHeatmap.bestTarget(Team.sharded, 5f));
+        assertNotNull(ThreatHeatmap.bestTarget(Team.crux, 5f));
+    }
+
+    @Test
+    void derelictBlocksAreNotTargets() {
+        WorldFixture.placeBuilding(Blocks.copperWall, Team.derelict, 10, 10);
+
+        assertNull(ThreatHeatmap.bestTarget(Team.sharded, 5f));
+        assertEquals(0f, ThreatHeatmap.value(Team.sharded, 10, 10, 2f));
+    }
+
+    @Test
+    void targetsDensestEnemyArea() {
+        // A lone enemy wall, a dense enemy cluster, and an even denser cluster of the own team
+        WorldFixture.placeBuilding(Blocks.copperWall, Team.crux, 10, 90);
+        for (int x = 70; x < 76; x++) {
+            for (int y = 70; y < 76; y++) {
+                WorldFixture.placeBuilding(Blocks.copperWall, Team.crux, x, y);
+            }
+        }
+        for (int x = 10; x < 30; x++) {
+            for (int y = 10; y < 30; y++) {
+                WorldFixture.placeBuilding(Blocks.copperWall, Team.sharded, x, y);
+            }
+        }
+
+        Tile target = ThreatHeatmap.bestTarget(Team.sharded, 4f);
+
+        assertNotNull(target);
+        assertTrue(target.x >= 64 && target.x < 82 && target.y >= 64 && target.y < 82, "Target " + target.x + ", " + target.y);
+    }
+
+    @Test
+    void removedBuildingsAreForgotten() {
+        WorldFixture.placeBuilding(Blocks.copperWall, Team.crux, 50, 50);
+        assertTrue(ThreatHeatmap.value(Team.sharded, 50, 50, 2f) > 0f);
+
+        WorldFixture.removeBuilding(50, 50);
+
+        assertEquals(0f, ThreatHeatmap.value(Team.sharded, 50, 50, 2f));
+    }
+
+    @Test
+    void unitsCount() {
+        WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 30, 60);
+
+        Tile target = ThreatHeatmap.bestTarget(Team.sharded, 2f);
+
+        assertNotNull(target);
+        assertEquals(30 / ThreatHeatmap.cellSize, target.x / ThreatHeatmap.cellSize);
+        assertEquals(60 / ThreatHeatmap.cellSize, target.y / ThreatHeatmap.cellSize);
+    }
+}
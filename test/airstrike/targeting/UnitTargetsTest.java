@@ -0,0 +1,100 @@
+package airstrike.targeting;
+
+import airstrike.content.AirstrikeItems;
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.content.UnitTypes;
+import mindustry.game.Team;
+import mindustry.gen.Unit;
+import mindustry.world.Tile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnitTargetsTest {
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+        UnitTargets.init();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+    }
+
+    @Test
+    void resolvesToCurrentPosition() {
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 20, 20);
+        UnitTargets.Target target = UnitTargets.track(unit.id, Vars.world.tile(20, 20));
+
+        unit.set(60 * Vars.tilesize, 40 * Vars.tilesize);
+
+        assertTile(60, 40, UnitTargets.resolve(target, 0f));
+        assertEquals(0, UnitTargets.size());
+    }
+
+    @Test
+    void leadsByVelocity() {
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 20, 20);
+        UnitTargets.Target target = UnitTargets.track(unit.id, Vars.world.tile(20, 20));
+
+        unit.vel.set(Vars.tilesize, 0f);
+
+        assertTile(30, 20, UnitTargets.resolve(target, 10f));
+    }
+
+    @Test
+    void precisionBombsLeadMovingUnits() {
+        float leadTime = AirstrikeItems.precisionBomb.leadTime;
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 20, 20);
+        UnitTargets.Target target = UnitTargets.track(unit.id, Vars.world.tile(20, 20));
+
+        unit.vel.set(0f, 0.5f);
+
+        assertTrue(leadTime > 0f);
+        assertTile(20, 20 + Math.round(0.5f * leadTime / Vars.tilesize), UnitTargets.resolve(target, leadTime));
+    }
+
+    @Test
+    void fallsBackToWhereUnitDied() {
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 20, 20);
+        UnitTargets.Target target = UnitTargets.track(unit.id, Vars.world.tile(20, 20));
+
+        unit.set(70 * Vars.tilesize, 30 * Vars.tilesize);
+        unit.destroy();
+
+        assertTile(70, 30, UnitTargets.resolve(target, 10f));
+    }
+
+    @Test
+    void fallsBackToTileOfMissingUnit() {
+        UnitTargets.Target target = UnitTargets.track(123456, Vars.world.tile(45, 55));
+
+        assertTile(45, 55, UnitTargets.resolve(target, 0f));
+    }
+
+    @Test
+    void strikesOnSameUnitShareTarget() {
+        Unit unit = WorldFixture.spawnUnit(UnitTypes.dagger, Team.crux, 20, 20);
+        UnitTargets.Target first = UnitTargets.track(unit.id, Vars.world.tile(20, 20));
+        UnitTargets.Target second = UnitTargets.track(unit.id, Vars.world.tile(20, 20));
+
+        assertSame(first, second);
+        UnitTargets.resolve(first, 0f);
+        assertEquals(1, UnitTargets.size());
+        UnitTargets.resolve(second, 0f);
+        assertEquals(0, UnitTargets.size());
+    }
+
+    private static void assertTile(int x, int y, Tile tile) {
+        assertNotNull(tile);
+        assertEquals(x, tile.x);
+        assertEquals(y, tile.y);
+    }
+}
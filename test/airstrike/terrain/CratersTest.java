@@ -0,0 +1,99 @@
+package airstrike.terrain;
+
+import airstrike.fixtures.GameFixture;
+import airstrike.fixtures.WorldFixture;
+import mindustry.Vars;
+import mindustry.content.Blocks;
+import mindustry.game.Team;
+import mindustry.world.Tile;
+import mindustry.world.blocks.environment.Floor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CratersTest {
+    private Floor crater;
+
+    @BeforeAll
+    static void launch() {
+        GameFixture.launch();
+    }
+
+    @BeforeEach
+    void setUp() {
+        GameFixture.reset();
+        WorldFixture.createWorld(100);
+        crater = Blocks.charr.asFloor();
+    }
+
+    @Test
+    void floorsInsideRadiusBecomeCraters() {
+        int changed = Craters.stamp(Vars.world.tile(50, 50), 5f, crater);
+
+        assertEquals(crater, Vars.world.tile(50, 50).floor());
+        assertEquals(crater, Vars.world.tile(55, 50).floor());
+        assertEquals(Blocks.stone, Vars.world.tile(56, 50).floor());
+        assertEquals(Blocks.stone, Vars.world.tile(54, 54).floor());
+        assertTrue(changed > 0);
+    }
+
+    @Test
+    void oresAndBouldersAreRemoved() {
+        Vars.world.tile(51, 50).setOverlay(Blocks.oreCopper);
+        Vars.world.tile(49, 50).setBlock(Blocks.boulder);
+        Vars.world.tile(70, 70).setOverlay(Blocks.oreCopper);
+
+        Craters.stamp(Vars.world.tile(50, 50), 5f, crater);
+
+        assertEquals(Blocks.air, Vars.world.tile(51, 50).overlay());
+        assertEquals(Blocks.air, Vars.world.tile(49, 50).block());
+        assertEquals(Blocks.oreCopper, Vars.world.tile(70, 70).overlay());
+    }
+
+    @Test
+    void wallsAndWaterAreLeftAlone() {
+        Vars.world.tile(49, 50).setBlock(Blocks.stoneWall);
+        Vars.world.tile(50, 49).setBlock(Blocks.iceWall);
+        Vars.world.tile(50, 51).setFloor(Blocks.deepwater.asFloor());
+
+        Craters.stamp(Vars.world.tile(50, 50), 5f, crater);
+
+        assertEquals(Blocks.stoneWall, Vars.world.tile(49, 50).block());
+        assertEquals(Blocks.iceWall, Vars.world.tile(50, 49).block());
+        assertEquals(Blocks.stone, Vars.world.tile(49, 50).floor());
+        assertEquals(Blocks.deepwater, Vars.world.tile(50, 51).floor());
+    }
+
+    @Test
+    void buildingsKeepTheirBlockAndOres() {
+        Vars.world.tile(51, 50).setOverlay(Blocks.oreCopper);
+        WorldFixture.placeBuilding(Blocks.copperWall, Team.crux, 51, 50);
+
+        Craters.stamp(Vars.world.tile(50, 50), 5f, crater);
+
+        Tile building = Vars.world.tile(51, 50);
+        assertEquals(Blocks.copperWall, building.block());
+        assertEquals(Blocks.oreCopper, building.overlay());
+        // Once the blast destroys the building, its footprint is crater
+        WorldFixture.removeBuilding(51, 50);
+        assertEquals(crater, building.floor());
+    }
+
+    @Test
+    void stampingTwiceChangesNothing() {
+        Craters.stamp(Vars.world.tile(50, 50), 5f, crater);
+
+        assertEquals(0, Craters.stamp(Vars.world.tile(50, 50), 5f, crater));
+    }
+
+    @Test
+    void cratersAtTheMapEdgeAreClipped() {
+        Craters.stamp(Vars.world.tile(0, 0), 5f, crater);
+
+        assertEquals(crater, Vars.world.tile(0, 0).floor());
+        assertEquals(crater, Vars.world.tile(5, 0).floor());
+        assertFalse(Vars.world.isGenerating());
+    }
+}